@@ -0,0 +1,65 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import parsing.JsonFileStatistics;
+import parsing.ParsingConfig;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.Executors;
+
+/**
+ * Throughput of {@link JsonFileStatistics#collectStats(Path, String)}
+ * per data set shape, attribute and number of parsing threads.
+ * The chunk size is lowered well below the size of the {@code FEW_HUGE} files, tens of megabytes each,
+ * so that data set measures chunked parsing of large files; the files of the other data sets stay whole.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class CollectStatsBenchmark {
+
+    private static final long CHUNK_SIZE = 4L * 1024 * 1024;
+
+    @Param({"SMALL_MANY", "FEW_HUGE", "HIGH_CARDINALITY"})
+    private GameDataGenerator.Dataset dataset;
+
+    @Param({"developer", "yearReleased", "genre"})
+    private String attribute;
+
+    @Param({"1", "4", "8"})
+    private int threads;
+
+    private Path dir;
+    private JsonFileStatistics jsonFileStatistics;
+
+    @Setup
+    public void setUp() {
+        dir = GameDataGenerator.generate(dataset);
+        jsonFileStatistics = new JsonFileStatistics(Executors.newFixedThreadPool(threads),
+                ParsingConfig.builder().chunkSize(CHUNK_SIZE).build());
+    }
+
+    @TearDown
+    public void tearDown() {
+        jsonFileStatistics.close();
+        GameDataGenerator.delete(dir);
+    }
+
+    @Benchmark
+    public Map<String, Integer> collectStats() {
+        return jsonFileStatistics.collectStats(dir, attribute);
+    }
+}
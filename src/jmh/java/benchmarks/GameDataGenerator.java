@@ -0,0 +1,114 @@
+package benchmarks;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Generator of synthetic folders with {@code Game} JSON files for benchmarks.
+ */
+public final class GameDataGenerator {
+
+    private static final List<String> GENRES = List.of("Action", "Adventure", "RPG", "Platformer", "Shooter",
+            "Strategy", "Simulation", "Puzzle", "Racing", "Sports", "Fighting", "Horror");
+
+    /**
+     * Shapes of generated data sets.
+     */
+    public enum Dataset {
+
+        /**
+         * Many small files with a few hundred distinct developers.
+         */
+        SMALL_MANY(2_000, 50, 300),
+
+        /**
+         * A few huge files with a few hundred distinct developers.
+         */
+        FEW_HUGE(2, 200_000, 300),
+
+        /**
+         * Medium files where nearly every developer and title is distinct.
+         */
+        HIGH_CARDINALITY(40, 10_000, Integer.MAX_VALUE);
+
+        private final int files;
+        private final int gamesPerFile;
+        private final int developers;
+
+        Dataset(int files, int gamesPerFile, int developers) {
+            this.files = files;
+            this.gamesPerFile = gamesPerFile;
+            this.developers = developers;
+        }
+    }
+
+    private GameDataGenerator() {
+    }
+
+    /**
+     * Generates the data set into a new temporary folder.
+     *
+     * @param dataset the shape of the data set
+     * @return the path to the folder containing the generated JSON files
+     */
+    public static Path generate(Dataset dataset) {
+        try {
+            Path dir = Files.createTempDirectory("games-" + dataset.name().toLowerCase());
+            Random random = new Random(42);
+            JsonFactory factory = new JsonFactory();
+            long id = 0;
+
+            for (int file = 0; file < dataset.files; file++) {
+                try (JsonGenerator generator = factory.createGenerator(dir.resolve("games-" + file + ".json").toFile(),
+                        JsonEncoding.UTF8)) {
+                    generator.useDefaultPrettyPrinter();
+                    generator.writeStartArray();
+                    for (int game = 0; game < dataset.gamesPerFile; game++, id++) {
+                        writeGame(generator, random, dataset, id);
+                    }
+                    generator.writeEndArray();
+                }
+            }
+            return dir;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deletes a generated folder with all of its files.
+     *
+     * @param dir the folder to delete
+     */
+    public static void delete(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeGame(JsonGenerator generator, Random random, Dataset dataset, long id) throws IOException {
+        long developer = dataset.developers == Integer.MAX_VALUE ? id : random.nextInt(dataset.developers);
+
+        generator.writeStartObject();
+        generator.writeStringField("title", "Game " + id);
+        generator.writeObjectFieldStart("developer");
+        generator.writeStringField("name", "Developer " + developer);
+        generator.writeEndObject();
+        generator.writeNumberField("yearReleased", 1980 + random.nextInt(45));
+        generator.writeStringField("genre", GENRES.get(random.nextInt(GENRES.size())) + ", "
+                + GENRES.get(random.nextInt(GENRES.size())));
+        generator.writeEndObject();
+    }
+}
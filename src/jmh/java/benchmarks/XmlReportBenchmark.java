@@ -0,0 +1,60 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import parsing.XmlParser;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Throughput of {@link XmlParser#parseStatsToXmlFile(Map, String)} per report size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Fork(1)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class XmlReportBenchmark {
+
+    private static final String ATTRIBUTE = "benchmark";
+
+    @Param({"100", "100000", "1000000"})
+    private int items;
+
+    private Map<String, Integer> stats;
+    private XmlParser xmlParser;
+    private String fileName;
+
+    @Setup
+    public void setUp() {
+        stats = new HashMap<>();
+        for (int i = 0; i < items; i++) {
+            stats.put("Developer & Sons " + i, i);
+        }
+        xmlParser = new XmlParser();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(Path.of(fileName));
+    }
+
+    @Benchmark
+    public String parseStatsToXmlFile() {
+        fileName = xmlParser.parseStatsToXmlFile(stats, ATTRIBUTE);
+        return fileName;
+    }
+}
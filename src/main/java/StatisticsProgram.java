@@ -1,44 +1,222 @@
+import exceptions.FolderWatchException;
 import exceptions.InvalidAttributeException;
 import exceptions.InvalidFolderException;
+import exceptions.MetricsExportException;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import metrics.PipelineMetrics;
+import parsing.CardinalityEstimate;
+import parsing.ErrorPolicy;
+import parsing.ExecutionStrategy;
+import parsing.FieldPath;
+import parsing.InputMode;
 import parsing.JsonFileStatistics;
+import parsing.NumericStatistics;
+import parsing.ParsingConfig;
+import parsing.RankedValue;
+import parsing.SkippedFile;
+import parsing.StatisticsWatcher;
 import parsing.XmlParser;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 
 /**
  * A program to collect statistics from JSON files within a
  * specified folder and generate XML reports based on attributes.
- * The supported attributes for statistics collection include
- * "developer", "yearReleased", and "genre".
+ * Any field of a game record can be aggregated, e.g. "title", "yearReleased", "genre",
+ * "developer.name" or its shorthand "developer".
  */
 @Getter
 @RequiredArgsConstructor
 public class StatisticsProgram {
 
-    private static final List<String> FIELDS = List.of("developer", "yearReleased", "genre");
+    private static final String OPTION_PREFIX = "--";
 
     private final JsonFileStatistics jsonFileStatistics;
     private final XmlParser xmlParser;
 
     /**
      * Main method to execute the statistics program.
+     * Options in the form {@code --name=value} may be placed anywhere among the arguments:
+     * <ul>
+     *     <li>{@code --executor} - the execution strategy: fixed (default), fork-join or virtual</li>
+     *     <li>{@code --input} - the way files are read: stream (default) or mapped</li>
+     *     <li>{@code --mapping-threshold} - the minimal size in bytes of files read with the mapped input</li>
+     *     <li>{@code --cache} - the file per-file statistics are cached in, so later runs parse only changed files</li>
+     *     <li>{@code --include} - the glob JSON file paths relative to the folder have to match, by default {@code **.{json,jsonl,ndjson}{,.gz,.zst}}</li>
+     *     <li>{@code --exclude} - the glob of file and subfolder paths relative to the folder that are skipped</li>
+     *     <li>{@code --max-depth} - the maximal depth of JSON files below the folder, by default 1</li>
+     *     <li>{@code --parse-queue} - the maximal number of parsing tasks queued or running at a time</li>
+     *     <li>{@code --merge-threads} - the number of threads merging parsed results, 1 by default</li>
+     *     <li>{@code --merge-queue} - the maximal number of parsed results waiting to be merged</li>
+     *     <li>{@code --on-error} - the way files that fail to parse are handled: fail-fast (default) cancels
+     *     the whole run, skip leaves them out of the statistics and reports them</li>
+     *     <li>{@code --file-timeout} - the time in milliseconds a single parsing task, i.e. a whole file or one chunk
+     *     of a large file, may take before it fails; a file split into chunks may take as long per chunk</li>
+     *     <li>{@code --gzip} - true to write gzip-compressed XML reports</li>
+     *     <li>{@code --metrics} - the file a JSON summary of the pipeline metrics is written to at the end of the run</li>
+     *     <li>{@code --jmx} - true to expose the pipeline metrics as a JMX MBean</li>
+     *     <li>{@code --top} - writes ranked reports of only the given number of most frequent values,
+     *     keeping memory bounded for attributes with huge numbers of distinct values</li>
+     *     <li>{@code --distinct} - writes reports of the estimated number of distinct values instead of counts,
+     *     the value is the HyperLogLog precision between 4 and 18</li>
+     *     <li>{@code --numeric} - writes numeric reports with min, max, mean, percentiles and a histogram,
+     *     the value is the histogram bucket width, e.g. 10 for decades</li>
+     *     <li>{@code --group-by} - the attribute reports are grouped by, e.g. genre; without {@code --numeric}
+     *     the counts of every attribute are reported per value of the grouping attribute</li>
+     *     <li>{@code --columnar} - true to convert the folder into a binary columnar store first,
+     *     so this and later runs count the attributes from the store instead of parsing JSON</li>
+     *     <li>{@code --watch} - keeps running and refreshes the reports as files change,
+     *     the value is the debounce interval in milliseconds</li>
+     * </ul>
      *
-     * @param args Command-line arguments: folderName and attribute
-     * @throws IllegalArgumentException if the number of arguments is not exactly 2
+     * @param args Command-line arguments: folderName followed by one or more attributes, and options
+     * @throws IllegalArgumentException if less than 2 arguments are provided or an option is invalid
      */
     public static void main(String[] args) {
-        if (args.length == 2) {
-            StatisticsProgram program = new StatisticsProgram(new JsonFileStatistics(), new XmlParser());
-            program.start(args[0], args[1]);
-        } else {
+        Map<String, String> options = parseOptions(args);
+        List<String> arguments = Arrays.stream(args)
+                .filter(arg -> !arg.startsWith(OPTION_PREFIX))
+                .toList();
+        if (arguments.size() < 2) {
             throw new IllegalArgumentException("Not enough arguments");
         }
+
+        ExecutionStrategy strategy = ExecutionStrategy.fromName(options.getOrDefault("executor", "fixed"));
+        PipelineMetrics metrics = new PipelineMetrics();
+        if (Boolean.parseBoolean(options.get("jmx"))) {
+            metrics.registerMBean();
+        }
+        ParsingConfig config = parsingConfig(options, strategy, metrics);
+        try (JsonFileStatistics jsonFileStatistics = new JsonFileStatistics(strategy.createExecutor(), config)) {
+            XmlParser xmlParser = new XmlParser(Boolean.parseBoolean(options.get("gzip")), metrics);
+            StatisticsProgram program = new StatisticsProgram(jsonFileStatistics, xmlParser);
+            if (Boolean.parseBoolean(options.get("columnar"))) {
+                program.convert(arguments.get(0));
+            }
+            if (options.containsKey("watch")) {
+                Duration debounce = Duration.ofMillis(Long.parseLong(options.get("watch")));
+                program.watch(arguments.get(0), arguments.subList(1, arguments.size()), debounce);
+            } else if (options.containsKey("numeric")) {
+                int bucketWidth = Integer.parseInt(options.get("numeric"));
+                program.startNumeric(arguments.get(0), arguments.subList(1, arguments.size()),
+                        options.get("group-by"), bucketWidth);
+            } else if (options.containsKey("group-by")) {
+                program.startCrossTab(arguments.get(0), arguments.subList(1, arguments.size()), options.get("group-by"));
+            } else if (options.containsKey("distinct")) {
+                int precision = Integer.parseInt(options.get("distinct"));
+                program.startDistinct(arguments.get(0), arguments.subList(1, arguments.size()), precision);
+            } else if (options.containsKey("top")) {
+                int limit = Integer.parseInt(options.get("top"));
+                program.startTop(arguments.get(0), arguments.subList(1, arguments.size()), limit);
+            } else if (arguments.size() == 2) {
+                program.start(arguments.get(0), arguments.get(1));
+            } else {
+                program.start(arguments.get(0), arguments.subList(1, arguments.size()));
+            }
+            program.reportSkippedFiles();
+        }
+
+        if (options.containsKey("metrics")) {
+            writeMetrics(metrics, Paths.get(options.get("metrics")));
+        }
+    }
+
+    /**
+     * Writes a JSON summary of the pipeline metrics to the given file.
+     *
+     * @param metrics     the pipeline metrics
+     * @param metricsFile the file to write the summary to
+     * @throws MetricsExportException if an error occurs while writing the file
+     */
+    private static void writeMetrics(PipelineMetrics metrics, Path metricsFile) {
+        try (OutputStream out = Files.newOutputStream(metricsFile)) {
+            metrics.writeJson(out);
+        } catch (IOException e) {
+            throw new MetricsExportException("Could not write metrics to " + metricsFile, e);
+        }
+        System.out.println("Metrics written to " + metricsFile);
+    }
+
+    /**
+     * Creates the parsing configuration from the command-line options.
+     *
+     * @param options  the command-line options
+     * @param strategy the execution strategy the parsing runs on
+     * @param metrics  the metrics the parsing stages are recorded to
+     * @return the parsing configuration
+     * @throws IllegalArgumentException if an option has an invalid value
+     */
+    private static ParsingConfig parsingConfig(Map<String, String> options, ExecutionStrategy strategy,
+                                               PipelineMetrics metrics) {
+        ParsingConfig.ParsingConfigBuilder builder = ParsingConfig.builder()
+                .recyclerPool(strategy.recyclerPool())
+                .metrics(metrics);
+        if (options.containsKey("input")) {
+            builder.inputMode(InputMode.fromName(options.get("input")));
+        }
+        if (options.containsKey("mapping-threshold")) {
+            builder.mappingThreshold(Long.parseLong(options.get("mapping-threshold")));
+        }
+        if (options.containsKey("cache")) {
+            builder.cacheFile(Paths.get(options.get("cache")));
+        }
+        if (options.containsKey("parse-queue")) {
+            builder.parseQueueCapacity(Integer.parseInt(options.get("parse-queue")));
+        }
+        if (options.containsKey("merge-threads")) {
+            builder.mergeParallelism(Integer.parseInt(options.get("merge-threads")));
+        }
+        if (options.containsKey("merge-queue")) {
+            builder.mergeQueueCapacity(Integer.parseInt(options.get("merge-queue")));
+        }
+        if (options.containsKey("on-error")) {
+            builder.errorPolicy(ErrorPolicy.fromName(options.get("on-error")));
+        }
+        if (options.containsKey("file-timeout")) {
+            builder.fileTimeout(Duration.ofMillis(Long.parseLong(options.get("file-timeout"))));
+        }
+        if (options.containsKey("include")) {
+            builder.includeGlob(options.get("include"));
+        }
+        if (options.containsKey("exclude")) {
+            builder.excludeGlob(options.get("exclude"));
+        }
+        if (options.containsKey("max-depth")) {
+            builder.maxDepth(Integer.parseInt(options.get("max-depth")));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Extracts the {@code --name=value} options from the command-line arguments.
+     *
+     * @param args Command-line arguments
+     * @return a map containing option names as keys and option values as values
+     * @throws IllegalArgumentException if an option has no value
+     */
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith(OPTION_PREFIX)) {
+                int separator = arg.indexOf('=');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("Option " + arg + " has no value");
+                }
+                options.put(arg.substring(OPTION_PREFIX.length(), separator), arg.substring(separator + 1));
+            }
+        }
+        return options;
     }
 
     /**
@@ -61,6 +239,190 @@ public class StatisticsProgram {
         System.out.println("Statistics collected in " + fileName);
     }
 
+    /**
+     * Starts the statistics collection for several attributes at once
+     * and generates an XML report per attribute. All JSON files are parsed in a single pass.
+     *
+     * @param folderName the name of the folder containing JSON files
+     * @param attributes the attributes for which statistics are to be collected
+     * @throws InvalidFolderException    if the specified folder does not exist or is not a directory
+     * @throws InvalidAttributeException if any of the specified attributes is not supported
+     */
+    public void start(String folderName, List<String> attributes) {
+        Path dir = Paths.get(folderName);
+
+        folderValidation(dir);
+        attributes.forEach(this::attributeValidation);
+
+        System.out.println("Collecting stats...");
+        Map<String, Map<String, Integer>> stats =
+                getJsonFileStatistics().collectStats(dir, new LinkedHashSet<>(attributes));
+        stats.forEach((attribute, attributeStats) -> {
+            String fileName = getXmlParser().parseStatsToXmlFile(attributeStats, attribute);
+            System.out.println("Statistics collected in " + fileName);
+        });
+    }
+
+    /**
+     * Prints the files the last statistics collection skipped because they failed to parse.
+     */
+    public void reportSkippedFiles() {
+        List<SkippedFile> skippedFiles = getJsonFileStatistics().getSkippedFiles();
+        if (!skippedFiles.isEmpty()) {
+            System.out.println("Skipped " + skippedFiles.size() + " files that failed to parse:");
+            skippedFiles.forEach(skipped -> System.out.println("  " + skipped.file() + " - " + skipped.reason()));
+        }
+    }
+
+    /**
+     * Converts the JSON files of the folder into a columnar store, which later statistics
+     * collections answer from as long as the JSON files do not change.
+     *
+     * @param folderName the name of the folder containing JSON files
+     * @throws InvalidFolderException if the specified folder does not exist or is not a directory
+     */
+    public void convert(String folderName) {
+        Path dir = Paths.get(folderName);
+
+        folderValidation(dir);
+
+        System.out.println("Converting files...");
+        Path storeFile = getJsonFileStatistics().writeColumnarStore(dir);
+        System.out.println("Columnar store written to " + storeFile);
+    }
+
+    /**
+     * Starts the collection of the most frequent values and generates a ranked XML report per attribute.
+     * Memory used for counting is bounded by the limit, no matter how many distinct values the attributes have.
+     *
+     * @param folderName the name of the folder containing JSON files
+     * @param attributes the attributes for which the most frequent values are to be collected
+     * @param limit      the number of values to report per attribute
+     * @throws InvalidFolderException    if the specified folder does not exist or is not a directory
+     * @throws InvalidAttributeException if any of the specified attributes is not supported
+     * @throws IllegalArgumentException  if the limit is not positive
+     */
+    public void startTop(String folderName, List<String> attributes, int limit) {
+        Path dir = Paths.get(folderName);
+
+        folderValidation(dir);
+        attributes.forEach(this::attributeValidation);
+
+        System.out.println("Collecting stats...");
+        Map<String, List<RankedValue>> stats =
+                getJsonFileStatistics().collectTopStats(dir, new LinkedHashSet<>(attributes), limit);
+        stats.forEach((attribute, ranked) -> {
+            String fileName = getXmlParser().parseTopStatsToXmlFile(ranked, attribute);
+            System.out.println("Statistics collected in " + fileName);
+        });
+    }
+
+    /**
+     * Starts the estimation of the number of distinct values and generates an XML report per attribute.
+     * Memory used for the estimation depends only on the precision, not on the number of records.
+     *
+     * @param folderName the name of the folder containing JSON files
+     * @param attributes the attributes for which the distinct values are to be estimated
+     * @param precision  the HyperLogLog precision, between 4 and 18
+     * @throws InvalidFolderException    if the specified folder does not exist or is not a directory
+     * @throws InvalidAttributeException if any of the specified attributes is not supported
+     * @throws IllegalArgumentException  if the precision is out of range
+     */
+    public void startDistinct(String folderName, List<String> attributes, int precision) {
+        Path dir = Paths.get(folderName);
+
+        folderValidation(dir);
+        attributes.forEach(this::attributeValidation);
+
+        System.out.println("Collecting stats...");
+        Map<String, CardinalityEstimate> estimates =
+                getJsonFileStatistics().collectDistinctStats(dir, new LinkedHashSet<>(attributes), precision);
+        estimates.forEach((attribute, estimate) -> {
+            String fileName = getXmlParser().parseDistinctStatsToXmlFile(estimate, attribute);
+            System.out.println("Statistics collected in " + fileName);
+        });
+    }
+
+    /**
+     * Starts the aggregation of numeric attributes and generates an XML report per attribute
+     * with min, max, mean, percentiles and a bucketed histogram, overall and per group.
+     *
+     * @param folderName  the name of the folder containing JSON files
+     * @param attributes  the numeric attributes to aggregate
+     * @param groupBy     the attribute to group the values by, or null for no grouping
+     * @param bucketWidth the width of the histogram buckets, e.g. 10 for decades
+     * @throws InvalidFolderException    if the specified folder does not exist or is not a directory
+     * @throws InvalidAttributeException if any of the specified attributes is not supported
+     * @throws IllegalArgumentException  if the bucket width is not positive
+     */
+    public void startNumeric(String folderName, List<String> attributes, String groupBy, int bucketWidth) {
+        Path dir = Paths.get(folderName);
+
+        folderValidation(dir);
+        attributes.forEach(this::attributeValidation);
+        if (groupBy != null) {
+            attributeValidation(groupBy);
+        }
+
+        System.out.println("Collecting stats...");
+        Map<String, NumericStatistics> statistics =
+                getJsonFileStatistics().collectNumericStats(dir, attributes, groupBy, bucketWidth);
+        statistics.forEach((attribute, attributeStatistics) -> {
+            String fileName = getXmlParser().parseNumericStatsToXmlFile(attributeStatistics, attribute);
+            System.out.println("Statistics collected in " + fileName);
+        });
+    }
+
+    /**
+     * Starts the collection of two-dimensional statistics and generates an XML report per attribute,
+     * holding the counts of the attribute's values per value of the grouping attribute.
+     *
+     * @param folderName the name of the folder containing JSON files
+     * @param attributes the attributes to count within every group
+     * @param groupBy    the attribute to group by
+     * @throws InvalidFolderException    if the specified folder does not exist or is not a directory
+     * @throws InvalidAttributeException if any of the specified attributes is not supported
+     */
+    public void startCrossTab(String folderName, List<String> attributes, String groupBy) {
+        Path dir = Paths.get(folderName);
+
+        folderValidation(dir);
+        attributes.forEach(this::attributeValidation);
+        attributeValidation(groupBy);
+
+        System.out.println("Collecting stats...");
+        Map<String, Map<String, Map<String, Long>>> stats =
+                getJsonFileStatistics().collectCrossTabStats(dir, groupBy, attributes);
+        stats.forEach((attribute, attributeStats) -> {
+            String fileName = getXmlParser().parseCrossTabStatsToXmlFile(attributeStats, groupBy, attribute);
+            System.out.println("Statistics collected in " + fileName);
+        });
+    }
+
+    /**
+     * Collects statistics and keeps the XML reports up to date as JSON files are created,
+     * modified or deleted. Only changed files are parsed again. This method blocks until interrupted.
+     *
+     * @param folderName the name of the folder containing JSON files
+     * @param attributes the attributes for which statistics are to be collected
+     * @param debounce   the time without changes after which the reports are rewritten
+     * @throws InvalidFolderException    if the specified folder does not exist or is not a directory
+     * @throws InvalidAttributeException if any of the specified attributes is not supported
+     * @throws FolderWatchException      if the folder cannot be watched
+     */
+    public void watch(String folderName, List<String> attributes, Duration debounce) {
+        Path dir = Paths.get(folderName);
+
+        folderValidation(dir);
+        attributes.forEach(this::attributeValidation);
+
+        System.out.println("Collecting stats...");
+        try (StatisticsWatcher watcher = new StatisticsWatcher(getJsonFileStatistics(), getXmlParser(),
+                dir, new LinkedHashSet<>(attributes), debounce)) {
+            watcher.run(fileName -> System.out.println("Statistics collected in " + fileName));
+        }
+    }
+
     /**
      * Validates if the specified directory path is a valid existing folder.
      *
@@ -80,12 +442,9 @@ public class StatisticsProgram {
      * Validates if the specified attribute is supported for statistics collection.
      *
      * @param attribute the attribute to validate
-     * @throws InvalidAttributeException if the attribute is not one of the supported fields
+     * @throws InvalidAttributeException if the attribute does not refer to a field of a game record
      */
     public void attributeValidation(String attribute) {
-        if (!FIELDS.contains(attribute)) {
-            throw new InvalidAttributeException("Attribute " + attribute + " does not exist. \n" +
-                    "Available fields are: developer, yearReleased, genre");
-        }
+        FieldPath.of(attribute);
     }
 }
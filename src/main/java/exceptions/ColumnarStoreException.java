@@ -0,0 +1,11 @@
+package exceptions;
+
+/**
+ * Exception indicating an error occurred while writing or reading the columnar store.
+ */
+public class ColumnarStoreException extends RuntimeException {
+
+    public ColumnarStoreException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package exceptions;
+
+/**
+ * Exception indicating an error occurred while watching a folder for changes.
+ */
+public class FolderWatchException extends RuntimeException {
+
+    public FolderWatchException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
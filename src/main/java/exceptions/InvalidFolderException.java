@@ -8,4 +8,8 @@ public class InvalidFolderException extends RuntimeException {
     public InvalidFolderException(String message) {
         super(message);
     }
+
+    public InvalidFolderException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
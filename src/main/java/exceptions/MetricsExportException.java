@@ -0,0 +1,11 @@
+package exceptions;
+
+/**
+ * Exception indicating an error occurred while exporting pipeline metrics.
+ */
+public class MetricsExportException extends RuntimeException {
+
+    public MetricsExportException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,11 @@
+package exceptions;
+
+/**
+ * Exception indicating that parsing a JSON file, or a chunk of a large one, took longer than the configured timeout.
+ */
+public class ParsingTimeoutException extends RuntimeException {
+
+    public ParsingTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,11 @@
+package exceptions;
+
+/**
+ * Exception indicating an error occurred while persisting the statistics cache.
+ */
+public class StatsCacheException extends RuntimeException {
+
+    public StatsCacheException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
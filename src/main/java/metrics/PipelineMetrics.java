@@ -0,0 +1,384 @@
+package metrics;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import exceptions.MetricsExportException;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe metrics of the statistics pipeline: directory listing, parsing, merging and XML writing.
+ * Values accumulate over all runs the metrics are recorded for, and can be exported
+ * as a JSON summary or observed live through JMX.
+ */
+public class PipelineMetrics implements PipelineMetricsMBean {
+
+    private static final String OBJECT_NAME = "GameStatistics:type=PipelineMetrics";
+    private static final int LATENCY_BUCKETS = 40;
+
+    private final LongAdder listedFiles = new LongAdder();
+    private final LongAdder listingNanos = new LongAdder();
+
+    private final LongAdder parsedFiles = new LongAdder();
+    private final LongAdder parsedBytes = new LongAdder();
+    private final LongAdder parsingNanos = new LongAdder();
+    private final LongAdder busyNanos = new LongAdder();
+    private final AtomicLongArray latencyHistogram = new AtomicLongArray(LATENCY_BUCKETS);
+
+    private final LongAdder submittedTasks = new LongAdder();
+    private final LongAdder startedTasks = new LongAdder();
+    private final LongAdder droppedTasks = new LongAdder();
+    private final AtomicLong maxQueueDepth = new AtomicLong();
+    private volatile int parallelism = Runtime.getRuntime().availableProcessors();
+
+    private final LongAdder skippedFiles = new LongAdder();
+    private final LongAdder cancelledTasks = new LongAdder();
+
+    private final LongAdder mergingNanos = new LongAdder();
+
+    private final LongAdder writtenReports = new LongAdder();
+    private final LongAdder writtenItems = new LongAdder();
+    private final LongAdder writingNanos = new LongAdder();
+
+    private final Map<String, Long> distinctKeys = new ConcurrentHashMap<>();
+
+    /**
+     * Records the listing of a folder.
+     *
+     * @param files the number of listed JSON files
+     * @param nanos the time the listing took
+     */
+    public void recordListing(long files, long nanos) {
+        listedFiles.add(files);
+        listingNanos.add(nanos);
+    }
+
+    /**
+     * Sets the number of threads parsing tasks run on, used to compute the thread utilization.
+     *
+     * @param parallelism the number of parsing threads
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Records the submission of a parsing task to the executor.
+     */
+    public void taskSubmitted() {
+        submittedTasks.increment();
+        maxQueueDepth.accumulateAndGet(getQueueDepth(), Math::max);
+    }
+
+    /**
+     * Records the start of a parsing task on an executor thread.
+     */
+    public void taskStarted() {
+        startedTasks.increment();
+    }
+
+    /**
+     * Records a queued parsing task that was cancelled before it started, taking it off the queue depth.
+     */
+    public void taskDropped() {
+        droppedTasks.increment();
+    }
+
+    /**
+     * Records a completed parsing task, i.e. a parsed file or a chunk of a large file.
+     *
+     * @param bytes the number of parsed bytes
+     * @param nanos the time the parsing took
+     */
+    public void recordParsedFile(long bytes, long nanos) {
+        parsedFiles.increment();
+        parsedBytes.add(bytes);
+        busyNanos.add(nanos);
+        long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+        int bucket = Math.min(LATENCY_BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros));
+        latencyHistogram.incrementAndGet(bucket);
+    }
+
+    /**
+     * Records the wall-clock time of a parsing stage, from the first submitted task to the last completed one.
+     *
+     * @param nanos the time the stage took
+     */
+    public void recordParsingStage(long nanos) {
+        parsingNanos.add(nanos);
+    }
+
+    /**
+     * Records a file skipped because it could not be parsed.
+     */
+    public void recordSkippedFile() {
+        skippedFiles.increment();
+    }
+
+    /**
+     * Records parsing tasks cancelled because another task failed.
+     *
+     * @param tasks the number of cancelled tasks
+     */
+    public void recordCancelledTasks(long tasks) {
+        cancelledTasks.add(tasks);
+    }
+
+    /**
+     * Records merging of partial counts into the shared statistics.
+     *
+     * @param nanos the time the merging took
+     */
+    public void recordMerge(long nanos) {
+        mergingNanos.add(nanos);
+    }
+
+    /**
+     * Records the number of distinct values collected for an attribute.
+     *
+     * @param attribute the attribute
+     * @param keys      the number of distinct values
+     */
+    public void recordDistinctKeys(String attribute, long keys) {
+        distinctKeys.put(attribute, keys);
+    }
+
+    /**
+     * Records a written XML report.
+     *
+     * @param items the number of items in the report
+     * @param nanos the time the writing took
+     */
+    public void recordReport(long items, long nanos) {
+        writtenReports.increment();
+        writtenItems.add(items);
+        writingNanos.add(nanos);
+    }
+
+    @Override
+    public long getListedFiles() {
+        return listedFiles.sum();
+    }
+
+    @Override
+    public long getListingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(listingNanos.sum());
+    }
+
+    @Override
+    public long getParsedFiles() {
+        return parsedFiles.sum();
+    }
+
+    @Override
+    public long getParsedBytes() {
+        return parsedBytes.sum();
+    }
+
+    @Override
+    public long getParsingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(parsingNanos.sum());
+    }
+
+    @Override
+    public double getFilesPerSecond() {
+        return perSecond(parsedFiles.sum(), parsingNanos.sum());
+    }
+
+    @Override
+    public double getBytesPerSecond() {
+        return perSecond(parsedBytes.sum(), parsingNanos.sum());
+    }
+
+    @Override
+    public long getQueueDepth() {
+        return Math.max(0, submittedTasks.sum() - startedTasks.sum() - droppedTasks.sum());
+    }
+
+    @Override
+    public long getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    @Override
+    public double getThreadUtilization() {
+        long available = parsingNanos.sum() * parallelism;
+        return available == 0 ? 0 : Math.min(1.0, (double) busyNanos.sum() / available);
+    }
+
+    @Override
+    public long getParseLatencyP50Micros() {
+        return latencyPercentile(0.5);
+    }
+
+    @Override
+    public long getParseLatencyP99Micros() {
+        return latencyPercentile(0.99);
+    }
+
+    @Override
+    public long getSkippedFiles() {
+        return skippedFiles.sum();
+    }
+
+    @Override
+    public long getCancelledTasks() {
+        return cancelledTasks.sum();
+    }
+
+    @Override
+    public long getMergingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(mergingNanos.sum());
+    }
+
+    @Override
+    public long getWrittenReports() {
+        return writtenReports.sum();
+    }
+
+    @Override
+    public long getWritingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(writingNanos.sum());
+    }
+
+    @Override
+    public String getDistinctKeys() {
+        return new TreeMap<>(distinctKeys).toString();
+    }
+
+    /**
+     * Returns the upper bound of the latency histogram bucket holding the given percentile.
+     * Buckets grow in powers of two, so the result overestimates the latency by at most a factor of two.
+     *
+     * @param percentile the percentile between 0 and 1
+     * @return the upper bound of the parse latency in microseconds, or 0 if nothing was parsed
+     */
+    public long latencyPercentile(double percentile) {
+        long total = 0;
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            total += latencyHistogram.get(i);
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile));
+        long seen = 0;
+        for (int i = 0; i < LATENCY_BUCKETS && total > 0; i++) {
+            seen += latencyHistogram.get(i);
+            if (seen >= rank) {
+                return bucketUpperBound(i);
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Writes a JSON summary of all metrics.
+     *
+     * @param out the stream to write the summary to, it is left open
+     * @throws MetricsExportException if an error occurs while writing
+     */
+    public void writeJson(OutputStream out) {
+        try (JsonGenerator generator = new JsonFactory()
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .createGenerator(out, JsonEncoding.UTF8)) {
+            generator.useDefaultPrettyPrinter();
+            generator.writeStartObject();
+
+            generator.writeObjectFieldStart("listing");
+            generator.writeNumberField("files", getListedFiles());
+            generator.writeNumberField("millis", getListingMillis());
+            generator.writeEndObject();
+
+            generator.writeObjectFieldStart("parsing");
+            generator.writeNumberField("files", getParsedFiles());
+            generator.writeNumberField("bytes", getParsedBytes());
+            generator.writeNumberField("millis", getParsingMillis());
+            generator.writeNumberField("filesPerSecond", getFilesPerSecond());
+            generator.writeNumberField("bytesPerSecond", getBytesPerSecond());
+            generator.writeNumberField("parallelism", parallelism);
+            generator.writeNumberField("threadUtilization", getThreadUtilization());
+            generator.writeNumberField("maxQueueDepth", getMaxQueueDepth());
+            writeLatency(generator);
+            generator.writeEndObject();
+
+            generator.writeObjectFieldStart("errors");
+            generator.writeNumberField("skippedFiles", getSkippedFiles());
+            generator.writeNumberField("cancelledTasks", getCancelledTasks());
+            generator.writeEndObject();
+
+            generator.writeObjectFieldStart("merging");
+            generator.writeNumberField("millis", getMergingMillis());
+            generator.writeEndObject();
+
+            generator.writeObjectFieldStart("writing");
+            generator.writeNumberField("reports", getWrittenReports());
+            generator.writeNumberField("items", writtenItems.sum());
+            generator.writeNumberField("millis", getWritingMillis());
+            generator.writeEndObject();
+
+            generator.writeObjectFieldStart("distinctKeys");
+            for (Map.Entry<String, Long> entry : new TreeMap<>(distinctKeys).entrySet()) {
+                generator.writeNumberField(entry.getKey(), entry.getValue());
+            }
+            generator.writeEndObject();
+
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new MetricsExportException("Could not write metrics", e);
+        }
+    }
+
+    /**
+     * Registers the metrics in the platform MBean server, so they can be observed while the program runs.
+     *
+     * @throws MetricsExportException if the MBean cannot be registered
+     */
+    public void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (JMException e) {
+            throw new MetricsExportException("Could not register metrics MBean", e);
+        }
+    }
+
+    /**
+     * Writes the parse latency percentiles and the non-empty histogram buckets.
+     *
+     * @param generator the generator to write to
+     * @throws IOException if an error occurs while writing
+     */
+    private void writeLatency(JsonGenerator generator) throws IOException {
+        generator.writeObjectFieldStart("latencyMicros");
+        generator.writeNumberField("p50", latencyPercentile(0.5));
+        generator.writeNumberField("p90", latencyPercentile(0.9));
+        generator.writeNumberField("p99", latencyPercentile(0.99));
+        generator.writeNumberField("max", latencyPercentile(1.0));
+        generator.writeObjectFieldStart("histogram");
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            long count = latencyHistogram.get(i);
+            if (count > 0) {
+                generator.writeNumberField("<=" + bucketUpperBound(i), count);
+            }
+        }
+        generator.writeEndObject();
+        generator.writeEndObject();
+    }
+
+    private static long bucketUpperBound(int bucket) {
+        return bucket == 0 ? 0 : (1L << bucket) - 1;
+    }
+
+    private static double perSecond(long amount, long nanos) {
+        return nanos == 0 ? 0 : amount * 1e9 / nanos;
+    }
+}
@@ -0,0 +1,139 @@
+package metrics;
+
+/**
+ * JMX view of the statistics pipeline metrics.
+ * Counters and times are cumulative over all runs since the metrics were created, unless stated otherwise.
+ */
+public interface PipelineMetricsMBean {
+
+    /**
+     * Returns the number of JSON files found by directory listings.
+     *
+     * @return the cumulative number of listed files
+     */
+    long getListedFiles();
+
+    /**
+     * Returns the time spent listing folders.
+     *
+     * @return the cumulative listing time in milliseconds
+     */
+    long getListingMillis();
+
+    /**
+     * Returns the number of completed parsing tasks, each a whole file or a chunk of a large file.
+     *
+     * @return the cumulative number of parsed files and chunks
+     */
+    long getParsedFiles();
+
+    /**
+     * Returns the number of bytes parsed, counted on disk, i.e. compressed for compressed files.
+     *
+     * @return the cumulative number of parsed bytes
+     */
+    long getParsedBytes();
+
+    /**
+     * Returns the wall-clock time of the parsing stages, from the first submitted task to the last completed one.
+     *
+     * @return the cumulative parsing stage time in milliseconds
+     */
+    long getParsingMillis();
+
+    /**
+     * Returns the parsing throughput in files, parsed files and chunks divided by the parsing stage time.
+     *
+     * @return the number of parsed files and chunks per second
+     */
+    double getFilesPerSecond();
+
+    /**
+     * Returns the parsing throughput in bytes, parsed bytes divided by the parsing stage time.
+     *
+     * @return the number of parsed bytes per second
+     */
+    double getBytesPerSecond();
+
+    /**
+     * Returns the number of parsing tasks submitted but not started yet. This is a gauge of the current moment,
+     * not a cumulative counter; tasks cancelled before they started are not counted.
+     *
+     * @return the current number of queued parsing tasks
+     */
+    long getQueueDepth();
+
+    /**
+     * Returns the highest number of queued parsing tasks observed at a submission.
+     *
+     * @return the maximal queue depth since the metrics were created
+     */
+    long getMaxQueueDepth();
+
+    /**
+     * Returns the share of the parsing threads' time spent parsing during the parsing stages:
+     * the time of all parsing tasks divided by the parsing stage time multiplied by the number of threads.
+     *
+     * @return the thread utilization between 0 and 1
+     */
+    double getThreadUtilization();
+
+    /**
+     * Returns the median latency of a parsing task, rounded up to the power-of-two bucket it falls in.
+     *
+     * @return the median parse latency in microseconds, or 0 if nothing was parsed
+     */
+    long getParseLatencyP50Micros();
+
+    /**
+     * Returns the 99th percentile latency of a parsing task, rounded up to the power-of-two bucket it falls in.
+     *
+     * @return the 99th percentile parse latency in microseconds, or 0 if nothing was parsed
+     */
+    long getParseLatencyP99Micros();
+
+    /**
+     * Returns the number of files skipped because they failed to parse under the skip error policy.
+     *
+     * @return the cumulative number of skipped files
+     */
+    long getSkippedFiles();
+
+    /**
+     * Returns the number of queued or running parsing tasks cancelled because another task failed under the fail-fast
+     * error policy.
+     *
+     * @return the cumulative number of cancelled tasks
+     */
+    long getCancelledTasks();
+
+    /**
+     * Returns the time spent merging parsed results into the shared statistics, summed over all merging threads.
+     *
+     * @return the cumulative merging time in milliseconds
+     */
+    long getMergingMillis();
+
+    /**
+     * Returns the number of XML reports written.
+     *
+     * @return the cumulative number of written reports
+     */
+    long getWrittenReports();
+
+    /**
+     * Returns the time spent writing XML reports.
+     *
+     * @return the cumulative writing time in milliseconds
+     */
+    long getWritingMillis();
+
+    /**
+     * Returns the number of distinct values of every attribute, as recorded by the latest collection of the attribute.
+     * The counts are estimates for the approximate distinct statistics; grouped statistics are keyed by the grouping
+     * field, or by the grouping field and the attribute separated by a slash for cross-tabulations.
+     *
+     * @return the distinct value counts per attribute, formatted like {@code {developer=300, genre=12}}
+     */
+    String getDistinctKeys();
+}
@@ -0,0 +1,19 @@
+package parsing;
+
+/**
+ * Estimated number of distinct values of an attribute.
+ *
+ * @param estimate      the estimated number of distinct values
+ * @param relativeError the relative standard error of the estimate
+ */
+public record CardinalityEstimate(long estimate, double relativeError) {
+
+    /**
+     * Returns the standard error of the estimate in number of values.
+     *
+     * @return the estimate multiplied by its relative standard error
+     */
+    public long absoluteError() {
+        return Math.round(estimate * relativeError);
+    }
+}
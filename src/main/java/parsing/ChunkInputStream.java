@@ -0,0 +1,78 @@
+package parsing;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Input stream exposing a range of top-level array elements of a JSON file as a standalone JSON array.
+ * The bytes of the range are surrounded with an opening and a closing bracket, so the range
+ * can be processed by the same parsing code as a whole file. Ranges of lines of a JSON Lines file
+ * are already a sequence of standalone records and are exposed as they are.
+ */
+class ChunkInputStream extends InputStream {
+
+    private final InputStream in;
+    private final boolean bracketed;
+    private long remaining;
+    private int state;
+
+    /**
+     * Creates a stream reading the given number of bytes of the underlying stream as a JSON array.
+     *
+     * @param in     the stream positioned at the start of the range
+     * @param length the number of bytes in the range
+     */
+    ChunkInputStream(InputStream in, long length) {
+        this(in, length, true);
+    }
+
+    /**
+     * Creates a stream reading the given number of bytes of the underlying stream.
+     *
+     * @param in        the stream positioned at the start of the range
+     * @param length    the number of bytes in the range
+     * @param bracketed true to surround the range with brackets, false to expose it as it is
+     */
+    ChunkInputStream(InputStream in, long length, boolean bracketed) {
+        this.in = in;
+        this.remaining = length;
+        this.bracketed = bracketed;
+        this.state = bracketed ? 0 : 1;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (state == 0) {
+            state = 1;
+            buffer[offset] = '[';
+            return 1;
+        }
+        if (state == 1 && remaining > 0) {
+            int read = in.read(buffer, offset, (int) Math.min(length, remaining));
+            if (read > 0) {
+                remaining -= read;
+                return read;
+            }
+        }
+        if (state == 1 && bracketed) {
+            state = 2;
+            buffer[offset] = ']';
+            return 1;
+        }
+        return -1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+}
@@ -0,0 +1,73 @@
+package parsing;
+
+import java.util.Arrays;
+
+/**
+ * Single-threaded builder of one column of a {@link ColumnarStore}.
+ * Values are dictionary-encoded as they are added, so the column holds one int id per value
+ * in the order the values were parsed, and every distinct value is kept as a String only once.
+ */
+final class ColumnBuilder implements ValueSink {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ValueDictionary dictionary = new ValueDictionary();
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int size;
+
+    @Override
+    public void add(char[] chars, int offset, int length) {
+        append(dictionary.idOf(chars, offset, length));
+    }
+
+    /**
+     * Appends the values of another column to this one. Ids of the other column are translated
+     * through this column's dictionary once per distinct value.
+     *
+     * @param other the column to merge
+     */
+    void merge(ColumnBuilder other) {
+        int[] translation = new int[other.dictionary.size()];
+        for (int id = 0; id < translation.length; id++) {
+            translation[id] = dictionary.idOf(other.dictionary.value(id));
+        }
+        for (int i = 0; i < other.size; i++) {
+            append(translation[other.ids[i]]);
+        }
+    }
+
+    /**
+     * Returns the dictionary the values are encoded with.
+     *
+     * @return the dictionary of the column
+     */
+    ValueDictionary dictionary() {
+        return dictionary;
+    }
+
+    /**
+     * Returns the id of the value at the given position of the column.
+     *
+     * @param index the position of the value
+     * @return the dictionary id of the value
+     */
+    int id(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Returns the number of values in the column.
+     *
+     * @return the number of values
+     */
+    int size() {
+        return size;
+    }
+
+    private void append(int id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, Math.multiplyExact(ids.length, 2));
+        }
+        ids[size++] = id;
+    }
+}
@@ -0,0 +1,414 @@
+package parsing;
+
+import exceptions.ColumnarStoreException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Binary columnar store of the game records of a folder, answering count queries without parsing JSON.
+ * Every attribute is kept as a column holding the values of all records: text columns are dictionary-encoded
+ * into one int id per value, and columns holding only integers, like yearReleased, store the integers themselves.
+ * A query memory-maps a single column, counts it in a {@code long[]} indexed by the encoded values,
+ * and decodes every distinct value once.
+ * <p>
+ * The store remembers the size and modification time of every JSON file it was built from,
+ * and is only valid as long as the folder holds exactly these files unchanged.
+ * <p>
+ * The file starts with the file fingerprints, followed by the sections of the columns,
+ * a directory of the columns with the offsets of their sections, and the offset of the directory.
+ */
+final class ColumnarStore {
+
+    /**
+     * The name of the store file within the folder of the JSON files it was built from.
+     */
+    static final String FILE_NAME = "games.columns";
+
+    private static final int MAGIC = 0x47534343;
+    private static final int VERSION = 1;
+    private static final byte DICTIONARY_COLUMN = 0;
+    private static final byte INT_COLUMN = 1;
+    private static final int MAX_INT_SPAN = 1 << 24;
+    private static final int VALUES_PER_MAPPING = 1 << 26;
+    private static final int DIRECTORY_ENTRY_BYTES = 1 + 3 * Integer.BYTES + 2 * Long.BYTES;
+
+    private final Path storeFile;
+    private final BasicFileAttributes storeAttributes;
+    private final Map<String, Fingerprint> files;
+    private final Map<String, Column> columns;
+
+    private ColumnarStore(Path storeFile, BasicFileAttributes storeAttributes, Map<String, Fingerprint> files,
+                          Map<String, Column> columns) {
+        this.storeFile = storeFile;
+        this.storeAttributes = storeAttributes;
+        this.files = files;
+        this.columns = columns;
+    }
+
+    /**
+     * Captures the size and modification time of the given files, before they are parsed into a store.
+     *
+     * @param folder the folder the store is placed in
+     * @param files  the JSON files within the folder or its subfolders
+     * @return a map containing the path of each file relative to the folder as key and its fingerprint as value
+     */
+    static Map<String, Fingerprint> fingerprint(Path folder, List<File> files) {
+        Map<String, Fingerprint> fingerprints = new HashMap<>();
+        for (File file : files) {
+            String path = folder.relativize(file.toPath()).toString().replace(File.separatorChar, '/');
+            fingerprints.put(path, new Fingerprint(file.length(), file.lastModified()));
+        }
+        return fingerprints;
+    }
+
+    /**
+     * Writes a store of the given columns. Columns whose values are all integers within a span of
+     * {@value #MAX_INT_SPAN} are stored as integers, all other columns as dictionary ids.
+     *
+     * @param storeFile the path to the store file
+     * @param files     the fingerprints of the JSON files the columns were parsed from
+     * @param columns   a map containing the field path of each column as key and the column as value
+     * @throws ColumnarStoreException if an error occurs while writing the store
+     */
+    static void write(Path storeFile, Map<String, Fingerprint> files, Map<String, ColumnBuilder> columns) {
+        Path tempFile = storeFile.resolveSibling(storeFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            long position = 3L * Integer.BYTES;
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(files.size());
+            for (Map.Entry<String, Fingerprint> file : files.entrySet()) {
+                position += writeString(out, file.getKey()) + 2L * Long.BYTES;
+                out.writeLong(file.getValue().size());
+                out.writeLong(file.getValue().lastModified());
+            }
+
+            Map<String, Column> directory = new LinkedHashMap<>();
+            for (Map.Entry<String, ColumnBuilder> entry : columns.entrySet()) {
+                ColumnBuilder builder = entry.getValue();
+                int[] integers = integerValues(builder.dictionary());
+                Column column;
+                if (integers != null) {
+                    int base = integers.length == 0 ? 0 : min(integers);
+                    column = new Column(INT_COLUMN, base, integers.length == 0 ? 0 : max(integers) - base + 1,
+                            -1, position, builder.size());
+                    for (int i = 0; i < builder.size(); i++) {
+                        out.writeInt(integers[builder.id(i)]);
+                    }
+                } else {
+                    ValueDictionary dictionary = builder.dictionary();
+                    long dictionaryOffset = position;
+                    for (int id = 0; id < dictionary.size(); id++) {
+                        position += writeString(out, dictionary.value(id));
+                    }
+                    column = new Column(DICTIONARY_COLUMN, 0, dictionary.size(), dictionaryOffset, position, builder.size());
+                    for (int i = 0; i < builder.size(); i++) {
+                        out.writeInt(builder.id(i));
+                    }
+                }
+                position += (long) builder.size() * Integer.BYTES;
+                directory.put(entry.getKey(), column);
+            }
+
+            out.writeInt(directory.size());
+            for (Map.Entry<String, Column> entry : directory.entrySet()) {
+                Column column = entry.getValue();
+                writeString(out, entry.getKey());
+                out.writeByte(column.type());
+                out.writeInt(column.base());
+                out.writeInt(column.span());
+                out.writeLong(column.dictionaryOffset());
+                out.writeLong(column.valuesOffset());
+                out.writeInt(column.valueCount());
+            }
+            out.writeLong(position);
+        } catch (IOException e) {
+            throw new ColumnarStoreException("Could not write columnar store", e);
+        }
+
+        try {
+            Files.move(tempFile, storeFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new ColumnarStoreException("Could not write columnar store", e);
+        }
+    }
+
+    /**
+     * Opens the store in the given file, reading only the file fingerprints and the column directory.
+     * A missing, outdated or corrupted store is ignored, since it can be rebuilt from the JSON files.
+     * Every length, count and offset read from the file is checked against the file size,
+     * and the directory has to end right before the trailing directory offset,
+     * so a truncated store is ignored as well instead of failing when a column is counted.
+     *
+     * @param storeFile the path to the store file
+     * @return the opened store, or null if there is no valid store
+     */
+    static ColumnarStore open(Path storeFile) {
+        if (!Files.isRegularFile(storeFile)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(storeFile, StandardOpenOption.READ)) {
+            BasicFileAttributes attributes = Files.readAttributes(storeFile, BasicFileAttributes.class);
+            long size = channel.size();
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            int fileCount = readLength(in, size);
+            long headerEnd = 3L * Integer.BYTES;
+            Map<String, Fingerprint> files = new HashMap<>();
+            for (int i = 0; i < fileCount; i++) {
+                String path = readString(in, size);
+                files.put(path, new Fingerprint(in.readLong(), in.readLong()));
+                headerEnd += Integer.BYTES + path.getBytes(StandardCharsets.UTF_8).length + 2L * Long.BYTES;
+            }
+
+            ByteBuffer trailer = ByteBuffer.allocate(Long.BYTES);
+            while (trailer.hasRemaining()) {
+                if (channel.read(trailer, size - trailer.remaining()) < 0) {
+                    return null;
+                }
+            }
+            long directoryOffset = trailer.flip().getLong();
+            if (directoryOffset < headerEnd || directoryOffset > size - Integer.BYTES - Long.BYTES) {
+                return null;
+            }
+            in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel.position(directoryOffset))));
+            int columnCount = readLength(in, size);
+            long directoryEnd = directoryOffset + Integer.BYTES;
+            Map<String, Column> columns = new HashMap<>();
+            for (int i = 0; i < columnCount; i++) {
+                String name = readString(in, size);
+                Column column = new Column(in.readByte(), in.readInt(), in.readInt(),
+                        in.readLong(), in.readLong(), in.readInt());
+                if (!column.isWithin(headerEnd, directoryOffset)) {
+                    return null;
+                }
+                columns.put(name, column);
+                directoryEnd += Integer.BYTES + name.getBytes(StandardCharsets.UTF_8).length + DIRECTORY_ENTRY_BYTES;
+            }
+            if (directoryEnd != size - Long.BYTES) {
+                return null;
+            }
+            return new ColumnarStore(storeFile, attributes, files, columns);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether the store file is still the one this store was opened from,
+     * i.e. it was neither replaced nor changed since, so the opened store can be reused.
+     *
+     * @return true if the store file has the same identity, size and modification time as when it was opened
+     */
+    boolean isUnchanged() {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(storeFile, BasicFileAttributes.class);
+            return Objects.equals(attributes.fileKey(), storeAttributes.fileKey())
+                    && attributes.size() == storeAttributes.size()
+                    && attributes.lastModifiedTime().equals(storeAttributes.lastModifiedTime());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether the store was built from exactly the given files in their current state.
+     *
+     * @param files the JSON files within the folder or its subfolders
+     * @return true if no file was added, removed or changed since the store was written
+     */
+    boolean isCurrent(List<File> files) {
+        return this.files.equals(fingerprint(storeFile.getParent(), files));
+    }
+
+    /**
+     * Checks whether the store holds a column of the given field path.
+     *
+     * @param column the field path of the column, e.g. "developer.name"
+     * @return true if the column is present
+     */
+    boolean hasColumn(String column) {
+        return columns.containsKey(column);
+    }
+
+    /**
+     * Counts the occurrences of every value of a column.
+     *
+     * @param name the field path of the column, e.g. "developer.name"
+     * @return a map containing the values as keys and their occurrence counts as values
+     * @throws ColumnarStoreException if an error occurs while reading the store
+     * @throws ArithmeticException    if a count does not fit into an int
+     */
+    Map<String, Integer> count(String name) {
+        Column column = columns.get(name);
+        long[] counts = new long[column.span()];
+        try (FileChannel channel = FileChannel.open(storeFile, StandardOpenOption.READ)) {
+            for (int first = 0; first < column.valueCount(); first += VALUES_PER_MAPPING) {
+                int length = Math.min(VALUES_PER_MAPPING, column.valueCount() - first);
+                IntBuffer values = channel.map(FileChannel.MapMode.READ_ONLY,
+                        column.valuesOffset() + (long) first * Integer.BYTES,
+                        (long) length * Integer.BYTES).asIntBuffer();
+                int base = column.base();
+                for (int i = 0; i < length; i++) {
+                    counts[values.get(i) - base]++;
+                }
+            }
+
+            Map<String, Integer> stats = new HashMap<>();
+            if (column.type() == INT_COLUMN) {
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] > 0) {
+                        stats.put(Integer.toString(column.base() + i), Math.toIntExact(counts[i]));
+                    }
+                }
+            } else {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(
+                        Channels.newInputStream(channel.position(column.dictionaryOffset()))));
+                for (int id = 0; id < counts.length; id++) {
+                    String value = readString(in, channel.size());
+                    if (counts[id] > 0) {
+                        stats.put(value, Math.toIntExact(counts[id]));
+                    }
+                }
+            }
+            return stats;
+        } catch (IOException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new ColumnarStoreException("Could not read columnar store " + storeFile, e);
+        }
+    }
+
+    /**
+     * Parses the values of a dictionary as integers, if all of them are written exactly
+     * like {@link Integer#toString(int)} writes them and fit into the span of an int column.
+     *
+     * @param dictionary the dictionary of a column
+     * @return the integer value of every id, or null if the column has to be stored as dictionary ids
+     */
+    private static int[] integerValues(ValueDictionary dictionary) {
+        int[] integers = new int[dictionary.size()];
+        for (int id = 0; id < integers.length; id++) {
+            String value = dictionary.value(id);
+            try {
+                integers[id] = Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                return null;
+            }
+            if (!Integer.toString(integers[id]).equals(value)) {
+                return null;
+            }
+        }
+        if (integers.length > 0 && (long) max(integers) - min(integers) >= MAX_INT_SPAN) {
+            return null;
+        }
+        return integers;
+    }
+
+    private static int min(int[] values) {
+        int min = Integer.MAX_VALUE;
+        for (int value : values) {
+            min = Math.min(min, value);
+        }
+        return min;
+    }
+
+    private static int max(int[] values) {
+        int max = Integer.MIN_VALUE;
+        for (int value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    /**
+     * Reads a length or count and checks it against the size of the store file.
+     *
+     * @param in    the input to read from
+     * @param limit the size of the store file
+     * @return the length
+     * @throws IOException if the length is negative or larger than the file, i.e. the store is corrupted
+     */
+    private static int readLength(DataInputStream in, long limit) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > limit) {
+            throw new IOException("Invalid length " + length + " in columnar store");
+        }
+        return length;
+    }
+
+    private static String readString(DataInputStream in, long limit) throws IOException {
+        byte[] bytes = new byte[readLength(in, limit)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        return Integer.BYTES + bytes.length;
+    }
+
+    /**
+     * Size and modification time of a JSON file the store was built from.
+     *
+     * @param size         the size of the file
+     * @param lastModified the modification time of the file
+     */
+    record Fingerprint(long size, long lastModified) {
+    }
+
+    /**
+     * Directory entry of a column.
+     *
+     * @param type             the encoding of the values, dictionary ids or integers
+     * @param base             the smallest stored value, 0 for dictionary ids
+     * @param span             the number of distinct stored values from the base, i.e. the dictionary size for ids
+     * @param dictionaryOffset the offset of the dictionary section, or -1 for integer columns
+     * @param valuesOffset     the offset of the values section
+     * @param valueCount       the number of values
+     */
+    private record Column(byte type, int base, int span, long dictionaryOffset, long valuesOffset, int valueCount) {
+
+        /**
+         * Checks whether the entry is consistent and its sections lie between the file fingerprints and the directory.
+         *
+         * @param sectionsStart the offset of the first column section
+         * @param sectionsEnd   the offset of the directory
+         * @return true if the encoding is known, the values fit into their section and, for dictionary columns,
+         * the dictionary precedes the values with room for every entry
+         */
+        boolean isWithin(long sectionsStart, long sectionsEnd) {
+            if (span < 0 || valueCount < 0 || valuesOffset < sectionsStart
+                    || valuesOffset + (long) valueCount * Integer.BYTES > sectionsEnd) {
+                return false;
+            }
+            if (type == INT_COLUMN) {
+                return span <= MAX_INT_SPAN && (long) base + span - 1 <= Integer.MAX_VALUE && dictionaryOffset == -1;
+            }
+            return type == DICTIONARY_COLUMN && base == 0 && dictionaryOffset >= sectionsStart
+                    && dictionaryOffset + (long) span * Integer.BYTES <= valuesOffset;
+        }
+    }
+}
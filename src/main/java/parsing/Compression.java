@@ -0,0 +1,94 @@
+package parsing;
+
+import io.airlift.compress.zstd.ZstdInputStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Compression formats of JSON files, recognized by the file name extension following the {@link JsonFormat} one.
+ */
+enum Compression {
+
+    /**
+     * Plain JSON files.
+     */
+    NONE(""),
+
+    /**
+     * Gzip-compressed JSON files, decompressed with the JDK inflater.
+     */
+    GZIP(".gz"),
+
+    /**
+     * Zstandard-compressed JSON files, decompressed with the pure-Java aircompressor codec.
+     */
+    ZSTD(".zst");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final String extension;
+
+    Compression(String extension) {
+        this.extension = extension;
+    }
+
+    /**
+     * Determines the compression of a JSON file from its name.
+     *
+     * @param fileName the name of the file, e.g. "games.json.gz"
+     * @return the compression of the file, or null if the file is not a (compressed) JSON file
+     */
+    static Compression forFileName(String fileName) {
+        if (JsonFormat.forFileName(fileName) == null) {
+            return null;
+        }
+        for (Compression compression : values()) {
+            if (compression != NONE && fileName.endsWith(compression.extension)) {
+                return compression;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Checks whether the file holds JSON content, compressed or not.
+     *
+     * @param fileName the name of the file
+     * @return true for files with a JSON or JSON Lines extension, optionally followed by a compression extension
+     */
+    static boolean isJsonFile(String fileName) {
+        return forFileName(fileName) != null;
+    }
+
+    /**
+     * Removes the compression extension from a file name.
+     *
+     * @param fileName the name of the file, e.g. "games.json.gz"
+     * @return the name without the compression extension, e.g. "games.json"
+     */
+    static String stripExtension(String fileName) {
+        for (Compression compression : values()) {
+            if (compression != NONE && fileName.endsWith(compression.extension)) {
+                return fileName.substring(0, fileName.length() - compression.extension.length());
+            }
+        }
+        return fileName;
+    }
+
+    /**
+     * Wraps a stream of compressed bytes into a stream of decompressed ones.
+     *
+     * @param in the stream of the file content
+     * @return the stream of the decompressed content, or the given stream for plain files
+     * @throws IOException if the compressed stream header cannot be read
+     */
+    InputStream decompress(InputStream in) throws IOException {
+        return switch (this) {
+            case NONE -> in;
+            case GZIP -> new GZIPInputStream(in, BUFFER_SIZE);
+            case ZSTD -> new ZstdInputStream(in);
+        };
+    }
+}
@@ -0,0 +1,152 @@
+package parsing;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-threaded aggregator counting how often values of two attributes occur together in a record,
+ * e.g. releases per year and genre. Values of both attributes are mapped to dense ids, and every
+ * combination of the ids seen in a record is counted once the record ends, so the fields may appear
+ * in any order. Aggregators of different parsing tasks are merged with {@link #merge(CrossTabAggregator)}.
+ */
+class CrossTabAggregator {
+
+    private final ValueDictionary groupIds = new ValueDictionary();
+    private final ValueDictionary valueIds = new ValueDictionary();
+    private final PairCounter pairs = new PairCounter();
+
+    private int[] recordGroups = new int[4];
+    private int recordGroupCount;
+    private int[] recordValues = new int[4];
+    private int recordValueCount;
+
+    private final ValueSink groupSink = (chars, offset, length) -> {
+        if (recordGroupCount == recordGroups.length) {
+            recordGroups = Arrays.copyOf(recordGroups, recordGroupCount * 2);
+        }
+        recordGroups[recordGroupCount++] = groupIds.idOf(chars, offset, length);
+    };
+
+    private final ValueSink valueSink = new ValueSink() {
+        @Override
+        public void add(char[] chars, int offset, int length) {
+            if (recordValueCount == recordValues.length) {
+                recordValues = Arrays.copyOf(recordValues, recordValueCount * 2);
+            }
+            recordValues[recordValueCount++] = valueIds.idOf(chars, offset, length);
+        }
+
+        @Override
+        public void endRecord() {
+            completeRecord();
+        }
+    };
+
+    /**
+     * Returns the sinks the parser feeds.
+     *
+     * @return the sink of the grouping attribute followed by the sink of the counted attribute
+     */
+    ValueSink[] sinks() {
+        return new ValueSink[]{groupSink, valueSink};
+    }
+
+    /**
+     * Merges the counts of another aggregator into this one. Ids of the other aggregator
+     * are translated once per distinct value, not once per pair.
+     *
+     * @param other the aggregator to merge
+     */
+    void merge(CrossTabAggregator other) {
+        int[] groupMapping = translate(other.groupIds, groupIds);
+        int[] valueMapping = translate(other.valueIds, valueIds);
+        other.pairs.forEach((group, value, count) -> pairs.add(groupMapping[group], valueMapping[value], count));
+    }
+
+    /**
+     * Decodes the counted pairs into nested statistics. Groups, and the values within every group, are ordered
+     * numerically if all of them are numbers, like release years, and by name otherwise.
+     *
+     * @return a map containing each value of the grouping attribute as key
+     * and the occurrence counts of the counted attribute's values within the group as value
+     */
+    Map<String, Map<String, Long>> statistics() {
+        Map<String, Map<String, Long>> grouped = new HashMap<>();
+        pairs.forEach((group, value, count) -> grouped
+                .computeIfAbsent(groupIds.value(group), key -> new HashMap<>())
+                .put(valueIds.value(value), count));
+        Map<String, Map<String, Long>> statistics = new LinkedHashMap<>();
+        for (String group : ordered(grouped.keySet())) {
+            Map<String, Long> counts = grouped.get(group);
+            Map<String, Long> orderedCounts = new LinkedHashMap<>();
+            for (String value : ordered(counts.keySet())) {
+                orderedCounts.put(value, counts.get(value));
+            }
+            statistics.put(group, orderedCounts);
+        }
+        return statistics;
+    }
+
+    /**
+     * Returns the number of distinct combinations counted so far.
+     *
+     * @return the number of counted pairs
+     */
+    int size() {
+        return pairs.size();
+    }
+
+    /**
+     * Counts every combination of the group and value ids of the completed record.
+     */
+    private void completeRecord() {
+        for (int i = 0; i < recordGroupCount; i++) {
+            for (int j = 0; j < recordValueCount; j++) {
+                pairs.add(recordGroups[i], recordValues[j], 1);
+            }
+        }
+        recordGroupCount = 0;
+        recordValueCount = 0;
+    }
+
+    /**
+     * Orders keys numerically if every key is a number, and by name otherwise,
+     * so numbers like years are not ordered digit by digit ("10" before "9").
+     *
+     * @param keys the keys to order
+     * @return the ordered keys
+     */
+    private static List<String> ordered(Collection<String> keys) {
+        List<String> ordered = new ArrayList<>(keys);
+        if (keys.stream().allMatch(CrossTabAggregator::isNumber)) {
+            ordered.sort(Comparator.<String, BigDecimal>comparing(BigDecimal::new).thenComparing(Comparator.naturalOrder()));
+        } else {
+            ordered.sort(Comparator.naturalOrder());
+        }
+        return ordered;
+    }
+
+    private static boolean isNumber(String key) {
+        try {
+            new BigDecimal(key);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static int[] translate(ValueDictionary from, ValueDictionary to) {
+        int[] mapping = new int[from.size()];
+        for (int id = 0; id < mapping.length; id++) {
+            mapping[id] = to.idOf(from.value(id));
+        }
+        return mapping;
+    }
+}
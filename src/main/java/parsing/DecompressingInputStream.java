@@ -0,0 +1,174 @@
+package parsing;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Input stream decompressing a compressed file on a separate thread. The decompressed content is handed over
+ * in blocks through a bounded queue, so CPU-heavy inflating overlaps with the consumer tokenizing the previous
+ * blocks, while at most {@value #QUEUED_BLOCKS} blocks are buffered. Blocks the consumer is done with are handed back
+ * and refilled, so at most {@value #MAX_BLOCKS} full blocks are ever allocated per stream, whatever the size of the file.
+ * <p>
+ * Any failure of the decompressing thread, including errors such as {@link OutOfMemoryError}, is handed over
+ * in place of the next block and rethrown to the consumer as an {@link IOException}, so the consumer never waits
+ * for a block that will not come.
+ * <p>
+ * The compressed stream is owned by the decompressing thread and closed by it once it is fully read,
+ * or when this stream is closed.
+ */
+final class DecompressingInputStream extends InputStream {
+
+    private static final int BLOCK_SIZE = 64 * 1024;
+    private static final int QUEUED_BLOCKS = 4;
+    private static final int MAX_BLOCKS = QUEUED_BLOCKS + 2;
+    private static final byte[] END = new byte[0];
+
+    private final InputStream source;
+    private final Compression compression;
+    private final BlockingQueue<Object> blocks = new ArrayBlockingQueue<>(QUEUED_BLOCKS);
+    private final BlockingQueue<byte[]> freeBlocks = new ArrayBlockingQueue<>(MAX_BLOCKS);
+    private final AtomicBoolean started = new AtomicBoolean();
+    private final Future<?> decompressor;
+
+    private byte[] block = new byte[0];
+    private int position;
+    private boolean ended;
+
+    /**
+     * Starts decompressing the source on the given executor.
+     *
+     * @param source      the stream of compressed bytes
+     * @param compression the compression of the source
+     * @param executor    the executor the source is decompressed on
+     */
+    DecompressingInputStream(InputStream source, Compression compression, ExecutorService executor) {
+        this.source = source;
+        this.compression = compression;
+        this.decompressor = executor.submit(this::decompress);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!nextBlock()) {
+            return -1;
+        }
+        return block[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        if (!nextBlock()) {
+            return -1;
+        }
+        int count = Math.min(length, block.length - position);
+        System.arraycopy(block, position, buffer, offset, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        ended = true;
+        decompressor.cancel(true);
+        blocks.clear();
+        if (!started.getAndSet(true)) {
+            source.close();
+        }
+    }
+
+    /**
+     * Makes sure the current block has bytes left, waiting for the next block if needed.
+     *
+     * @return false once the source is fully decompressed
+     * @throws IOException if decompressing failed or the thread was interrupted while waiting
+     */
+    private boolean nextBlock() throws IOException {
+        while (position == block.length) {
+            if (ended) {
+                return false;
+            }
+            if (block.length == BLOCK_SIZE) {
+                freeBlocks.offer(block);
+            }
+            Object next;
+            try {
+                next = blocks.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for decompressed input");
+            }
+            if (next instanceof IOException error) {
+                ended = true;
+                throw new IOException(error.getMessage(), error);
+            }
+            if (next instanceof Throwable error) {
+                ended = true;
+                throw new IOException("Failed to decompress: " + error.getMessage(), error);
+            }
+            block = (byte[]) next;
+            position = 0;
+            ended = block == END;
+        }
+        return true;
+    }
+
+    /**
+     * Decompresses the source into the queue, ending it with an end marker or the error decompressing failed with.
+     * Stops when this stream is closed.
+     */
+    private void decompress() {
+        if (started.getAndSet(true)) {
+            return;
+        }
+        try {
+            blocks.put(decompressBlocks());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Decompresses the source block by block. Full blocks are queued as they are and refilled once the consumer
+     * hands them back, only the last, partial block is copied.
+     *
+     * @return the end marker, or the failure decompressing stopped with
+     * @throws InterruptedException if the thread was interrupted because this stream was closed
+     */
+    private Object decompressBlocks() throws InterruptedException {
+        int allocatedBlocks = 0;
+        try (InputStream compressed = source; InputStream in = compression.decompress(compressed)) {
+            while (true) {
+                byte[] buffer = freeBlocks.poll();
+                if (buffer == null && allocatedBlocks < MAX_BLOCKS) {
+                    buffer = new byte[BLOCK_SIZE];
+                    allocatedBlocks++;
+                } else if (buffer == null) {
+                    buffer = freeBlocks.take();
+                }
+                int read = in.readNBytes(buffer, 0, BLOCK_SIZE);
+                if (read == BLOCK_SIZE) {
+                    blocks.put(buffer);
+                } else {
+                    if (read > 0) {
+                        blocks.put(Arrays.copyOf(buffer, read));
+                    }
+                    return END;
+                }
+            }
+        } catch (InterruptedException e) {
+            throw e;
+        } catch (Throwable e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package parsing;
+
+import java.util.Arrays;
+
+/**
+ * Ways of handling JSON files that fail to parse.
+ */
+public enum ErrorPolicy {
+
+    /**
+     * The first failing file aborts the collection, and all tasks still queued or running are cancelled at once.
+     */
+    FAIL_FAST("fail-fast"),
+
+    /**
+     * Failing files are skipped and reported, and the statistics of all other files are still returned.
+     */
+    SKIP("skip");
+
+    private final String name;
+
+    ErrorPolicy(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the error policy with the given command-line name.
+     *
+     * @param name the error policy name (e.g., "fail-fast", "skip")
+     * @return the matching error policy
+     * @throws IllegalArgumentException if there is no error policy with the given name
+     */
+    public static ErrorPolicy fromName(String name) {
+        return Arrays.stream(values())
+                .filter(policy -> policy.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown error policy " + name +
+                        ". Available error policies are: fail-fast, skip"));
+    }
+}
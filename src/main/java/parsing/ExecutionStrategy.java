@@ -0,0 +1,116 @@
+package parsing;
+
+import com.fasterxml.jackson.core.util.BufferRecycler;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.core.util.RecyclerPool;
+import exceptions.TaskExecutionException;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Strategies for executing file parsing tasks.
+ */
+public enum ExecutionStrategy {
+
+    /**
+     * Fixed thread pool sized to the number of available processors.
+     * Best suited for CPU-bound parsing of files on local disks.
+     */
+    FIXED("fixed") {
+        @Override
+        public ExecutorService createExecutor() {
+            return Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                    daemonThreadFactory("stats-parse-"));
+        }
+    },
+
+    /**
+     * Work-stealing fork/join pool sized to the number of available processors.
+     * Keeps all cores busy when files differ a lot in size.
+     */
+    FORK_JOIN("fork-join") {
+        @Override
+        public ExecutorService createExecutor() {
+            return Executors.newWorkStealingPool();
+        }
+    },
+
+    /**
+     * One virtual thread per file. Suited for folders on slow or network-mounted disks,
+     * where most of the time is spent waiting for I/O. Requires Java 21 or newer.
+     */
+    VIRTUAL("virtual") {
+        @Override
+        public ExecutorService createExecutor() {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                throw new TaskExecutionException("Virtual threads require Java 21 or newer", e);
+            }
+        }
+
+        @Override
+        public RecyclerPool<BufferRecycler> recyclerPool() {
+            return JsonRecyclerPools.sharedLockFreePool();
+        }
+    };
+
+    private final String name;
+
+    ExecutionStrategy(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Creates a new executor service according to this strategy.
+     *
+     * @return the created executor service
+     * @throws TaskExecutionException if the executor is not supported by the running JVM
+     */
+    public abstract ExecutorService createExecutor();
+
+    /**
+     * Returns the pool suitable for recycling parser buffers on the threads of this strategy.
+     *
+     * @return the recycler pool of parser buffers
+     */
+    public RecyclerPool<BufferRecycler> recyclerPool() {
+        return JsonRecyclerPools.threadLocalPool();
+    }
+
+    /**
+     * Returns the strategy with the given command-line name.
+     *
+     * @param name the strategy name (e.g., "fixed", "fork-join", "virtual")
+     * @return the matching execution strategy
+     * @throws IllegalArgumentException if there is no strategy with the given name
+     */
+    public static ExecutionStrategy fromName(String name) {
+        return Arrays.stream(values())
+                .filter(strategy -> strategy.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown executor " + name +
+                        ". Available executors are: fixed, fork-join, virtual"));
+    }
+
+    /**
+     * Creates a thread factory producing numbered daemon threads,
+     * so an executor that was not closed does not prevent the JVM from exiting.
+     * Used for every executor the statistics collector creates itself.
+     *
+     * @param namePrefix the prefix of the thread names, followed by the thread number
+     * @return the thread factory
+     */
+    static ThreadFactory daemonThreadFactory(String namePrefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,159 @@
+package parsing;
+
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * State machine matching the field names of a record against a set of compiled field paths.
+ * Paths are merged into a tree of states, one per field name, and each parsed field moves the matcher
+ * from the state of the enclosing object to the state of the field. Field names are compared by identity,
+ * relying on the parser interning them, so matching a field costs a few reference comparisons
+ * instead of String comparisons against every requested attribute. Each state also keeps its field names
+ * pre-encoded, so the parser can check the next field name against the expected one on raw bytes.
+ */
+final class FieldMatcher {
+
+    private final List<String> attributes;
+    private final State root = new State();
+
+    private FieldMatcher(List<FieldPath> paths) {
+        this.attributes = paths.stream().map(FieldPath::getAttribute).toList();
+        for (int i = 0; i < paths.size(); i++) {
+            State state = root;
+            for (String segment : paths.get(i).segments()) {
+                state = state.childOrCreate(segment);
+            }
+            state.targets = Arrays.copyOf(state.targets, state.targets.length + 1);
+            state.targets[state.targets.length - 1] = i;
+        }
+    }
+
+    /**
+     * Resolves the attributes and compiles their paths into a matcher.
+     *
+     * @param attributes the attributes to match
+     * @return the compiled matcher
+     * @throws exceptions.InvalidAttributeException if an attribute does not refer to a field of a game record
+     */
+    static FieldMatcher compile(Collection<String> attributes) {
+        return new FieldMatcher(attributes.stream().map(FieldPath::of).toList());
+    }
+
+    /**
+     * Returns the matched attributes. The index of an attribute is the target reported by the matching states.
+     *
+     * @return the attributes in the order of their targets
+     */
+    List<String> attributes() {
+        return attributes;
+    }
+
+    /**
+     * Returns the state of a record, the object all paths start at.
+     *
+     * @return the initial state
+     */
+    State root() {
+        return root;
+    }
+
+    /**
+     * State of the matcher inside an object on the way to one or more field paths.
+     */
+    static final class State {
+
+        private static final State[] NO_STATES = new State[0];
+        private static final String[] NO_NAMES = new String[0];
+        private static final SerializedString[] NO_SERIALIZED_NAMES = new SerializedString[0];
+
+        private String[] names = NO_NAMES;
+        private SerializedString[] serializedNames = NO_SERIALIZED_NAMES;
+        private State[] children = NO_STATES;
+        private int[] targets = new int[0];
+
+        /**
+         * Finds the index of the given field among the fields paths continue with.
+         *
+         * @param name the interned field name
+         * @return the index of the field, or -1 if no path continues with it
+         */
+        int indexOf(String name) {
+            for (int i = 0; i < names.length; i++) {
+                if (names[i] == name) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Returns the state of the field at the given index.
+         *
+         * @param index the index of the field, as returned by {@link #indexOf(String)}
+         * @return the state of the field
+         */
+        State childAt(int index) {
+            return children[index];
+        }
+
+        /**
+         * Returns the pre-encoded name of the field at the given index, for
+         * {@link com.fasterxml.jackson.core.JsonParser#nextFieldName(SerializableString)}.
+         *
+         * @param index the index of the field
+         * @return the field name with its quoted UTF-8 form computed once
+         */
+        SerializableString nameAt(int index) {
+            return serializedNames[index];
+        }
+
+        /**
+         * Returns the index of the field expected after the field at the given index.
+         * Records of a file usually share their field order, so after a wanted field the next wanted one
+         * is expected, wrapping around to the first one; the guess only affects speed, not matching.
+         *
+         * @param index the index of the field just seen
+         * @return the index of the field expected next
+         */
+        int nextIndex(int index) {
+            return index + 1 < names.length ? index + 1 : 0;
+        }
+
+        /**
+         * Returns the indexes of the attributes whose paths end at this state.
+         *
+         * @return the indexes of the matched attributes, empty for intermediate states
+         */
+        int[] targets() {
+            return targets;
+        }
+
+        /**
+         * Checks whether any path continues into the fields of this state's object.
+         *
+         * @return true if the state has child states
+         */
+        boolean hasChildren() {
+            return names.length > 0;
+        }
+
+        private State childOrCreate(String name) {
+            int index = indexOf(name);
+            if (index >= 0) {
+                return children[index];
+            }
+            State child = new State();
+            names = Arrays.copyOf(names, names.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            serializedNames = Arrays.copyOf(serializedNames, serializedNames.length + 1);
+            names[names.length - 1] = name;
+            children[children.length - 1] = child;
+            serializedNames[serializedNames.length - 1] = new SerializedString(name);
+            return child;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package parsing;
+
+import entities.Game;
+import exceptions.InvalidAttributeException;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Dot-separated path to a field of a game record, e.g. {@code title}, {@code yearReleased} or {@code developer.name}.
+ * Paths are validated against the fields of {@link Game}, so every field added to the entity
+ * can be aggregated without further changes. A path ending at a nested object,
+ * like {@code developer}, refers to the {@value #DEFAULT_FIELD} field of that object.
+ */
+public final class FieldPath {
+
+    private static final Class<?> RECORD_TYPE = Game.class;
+    private static final String DEFAULT_FIELD = "name";
+    private static final String SEPARATOR = ".";
+    private static final int MAX_DEPTH = 8;
+
+    private final String attribute;
+    private final String[] segments;
+
+    private FieldPath(String attribute, String[] segments) {
+        this.attribute = attribute;
+        this.segments = segments;
+    }
+
+    /**
+     * Resolves an attribute into the path of the field it refers to.
+     * Segments are interned, so they can be matched by identity against field names read by the parser.
+     *
+     * @param attribute the attribute, e.g. "developer", "developer.name" or "genre"
+     * @return the resolved field path
+     * @throws InvalidAttributeException if the attribute does not refer to a field of a game record
+     */
+    public static FieldPath of(String attribute) {
+        List<String> segments = new ArrayList<>();
+        Class<?> type = RECORD_TYPE;
+        for (String name : attribute.split("\\.", -1)) {
+            Field field = isScalar(type) ? null : findField(type, name);
+            if (field == null) {
+                throw invalidAttribute(attribute);
+            }
+            segments.add(name.intern());
+            type = field.getType();
+        }
+
+        if (!isScalar(type)) {
+            Field field = findField(type, DEFAULT_FIELD);
+            if (field == null || !isScalar(field.getType())) {
+                throw invalidAttribute(attribute);
+            }
+            segments.add(DEFAULT_FIELD);
+        }
+        return new FieldPath(attribute, segments.toArray(String[]::new));
+    }
+
+    /**
+     * Lists all attributes that can be aggregated, in the declaration order of the entity fields.
+     *
+     * @return the available attributes
+     */
+    public static List<String> availableFields() {
+        List<String> fields = new ArrayList<>();
+        collectFields(RECORD_TYPE, "", fields, 0);
+        return fields;
+    }
+
+    /**
+     * Returns the attribute the path was resolved from.
+     *
+     * @return the attribute
+     */
+    public String getAttribute() {
+        return attribute;
+    }
+
+    /**
+     * Returns the resolved path of the field, e.g. "developer.name" for the attribute "developer".
+     *
+     * @return the dot-separated field names from the record down to the value
+     */
+    String path() {
+        return String.join(SEPARATOR, segments);
+    }
+
+    /**
+     * Returns the interned field names from the record down to the value.
+     *
+     * @return the segments of the path
+     */
+    String[] segments() {
+        return segments;
+    }
+
+    /**
+     * Adds the attributes of the given type and of its nested objects to the list.
+     *
+     * @param type   the type to list the fields of
+     * @param prefix the path of the type followed by a separator, or an empty string for the record
+     * @param fields the list the attributes are added to
+     * @param depth  the nesting depth of the type
+     */
+    private static void collectFields(Class<?> type, String prefix, List<String> fields, int depth) {
+        for (Field field : type.getDeclaredFields()) {
+            if (Modifier.isStatic(field.getModifiers())) {
+                continue;
+            }
+            String path = prefix + field.getName();
+            if (isScalar(field.getType())) {
+                fields.add(path);
+            } else if (depth < MAX_DEPTH) {
+                if (findField(field.getType(), DEFAULT_FIELD) != null) {
+                    fields.add(path);
+                }
+                collectFields(field.getType(), path + SEPARATOR, fields, depth + 1);
+            }
+        }
+    }
+
+    /**
+     * Looks up a non-static field declared by the given type.
+     *
+     * @param type the type declaring the field
+     * @param name the name of the field
+     * @return the field, or null if the type has no such field
+     */
+    private static Field findField(Class<?> type, String name) {
+        for (Field field : type.getDeclaredFields()) {
+            if (field.getName().equals(name) && !Modifier.isStatic(field.getModifiers())) {
+                return field;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks whether values of the type are written as JSON scalars rather than nested objects.
+     *
+     * @param type the type to check
+     * @return true for strings, primitives, numbers, booleans and enums
+     */
+    private static boolean isScalar(Class<?> type) {
+        return type.isPrimitive() || type == String.class || Number.class.isAssignableFrom(type)
+                || type == Boolean.class || type == Character.class || type.isEnum();
+    }
+
+    private static InvalidAttributeException invalidAttribute(String attribute) {
+        return new InvalidAttributeException("Attribute " + attribute + " does not exist. \n" +
+                "Available fields are: " + String.join(", ", availableFields()));
+    }
+}
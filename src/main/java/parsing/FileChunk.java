@@ -0,0 +1,46 @@
+package parsing;
+
+import java.io.File;
+
+/**
+ * A part of a JSON file that can be parsed independently of the rest of the file.
+ *
+ * @param file   the JSON file
+ * @param start  the offset of the first byte of the chunk
+ * @param length the number of bytes in the chunk, or -1 if the chunk is the whole file
+ * @param lines  true if the chunk is a range of complete root values, like whole lines of a JSON Lines file
+ *               or the values following the top-level arrays of a file,
+ *               false if it is a range of top-level array elements or the whole file
+ */
+record FileChunk(File file, long start, long length, boolean lines) {
+
+    /**
+     * Creates a chunk of a file, either the whole file or a range of top-level array elements.
+     *
+     * @param file   the JSON file
+     * @param start  the offset of the first byte of the chunk
+     * @param length the number of bytes in the chunk, or -1 if the chunk is the whole file
+     */
+    FileChunk(File file, long start, long length) {
+        this(file, start, length, false);
+    }
+
+    /**
+     * Creates a chunk covering the whole file.
+     *
+     * @param file the JSON file
+     * @return the chunk covering the whole file
+     */
+    static FileChunk wholeFile(File file) {
+        return new FileChunk(file, 0, -1);
+    }
+
+    /**
+     * Checks whether the chunk covers the whole file.
+     *
+     * @return true if the chunk is the whole file, false if it is a range of top-level array elements or lines
+     */
+    boolean isWholeFile() {
+        return length < 0;
+    }
+}
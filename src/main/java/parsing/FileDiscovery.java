@@ -0,0 +1,179 @@
+package parsing;
+
+import exceptions.InvalidFolderException;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Discovery of the JSON files within a folder and its subfolders.
+ * The folder tree is walked directory by directory, so a listing is never held in memory as a whole,
+ * and every matching file is handed to the consumer as soon as it is found, letting parsing start
+ * while the rest of the tree is still being listed. Include and exclude globs are matched against
+ * the path of a file relative to the folder, e.g. {@code 2024/**.json}.
+ */
+final class FileDiscovery {
+
+    private final PathMatcher include;
+    private final PathMatcher exclude;
+    private final int maxDepth;
+
+    /**
+     * Creates a discovery of the files matching the given globs.
+     *
+     * @param includeGlob the glob files have to match, e.g. {@code **.json}
+     * @param excludeGlob the glob of files and folders to skip, or null to skip nothing
+     * @param maxDepth    the maximal depth of the files below the folder, 1 for its direct children only
+     * @throws IllegalArgumentException if a glob is invalid or the depth is not positive
+     */
+    FileDiscovery(String includeGlob, String excludeGlob, int maxDepth) {
+        if (maxDepth < 1) {
+            throw new IllegalArgumentException("Depth must be positive");
+        }
+        this.include = FileSystems.getDefault().getPathMatcher("glob:" + includeGlob);
+        this.exclude = excludeGlob == null ? null : FileSystems.getDefault().getPathMatcher("glob:" + excludeGlob);
+        this.maxDepth = maxDepth;
+    }
+
+    /**
+     * Walks the folder and hands every matching file to the consumer as soon as it is found.
+     * Excluded folders are not descended into.
+     *
+     * @param folder   the folder to walk
+     * @param consumer the consumer of the matching files, called on the calling thread
+     * @return the matching files in the order they were found
+     * @throws InvalidFolderException if the folder is not a directory, contains no files or cannot be listed
+     */
+    List<File> discover(Path folder, Consumer<File> consumer) {
+        if (!Files.isDirectory(folder)) {
+            throw new InvalidFolderException("Folder " + folder + " is not a directory");
+        }
+        List<File> files = new ArrayList<>();
+        int entries;
+        try {
+            entries = walk(folder, folder, directory -> {
+            }, file -> {
+                files.add(file.toFile());
+                consumer.accept(file.toFile());
+            });
+        } catch (IOException e) {
+            throw new InvalidFolderException("Could not list folder " + folder, e);
+        }
+
+        if (entries == 0) {
+            throw new InvalidFolderException("Folder " + folder + " does not contain any files");
+        }
+        return files;
+    }
+
+    /**
+     * Walks a directory of the folder tree down to the maximal depth below the folder.
+     * Every directory that may hold matching files, including the start directory, and every matching file
+     * are handed to the consumers. Excluded folders are not descended into.
+     *
+     * @param folder      the folder the globs and the depth are relative to
+     * @param start       the directory to walk, the folder itself or one of its subfolders
+     * @param directories the consumer of the directories that may hold matching files
+     * @param files       the consumer of the matching files
+     * @return the number of files and subfolders found, matching or not
+     * @throws IOException if a directory cannot be listed
+     */
+    int walk(Path folder, Path start, Consumer<Path> directories, Consumer<Path> files) throws IOException {
+        int[] entries = new int[1];
+        int walkDepth = maxDepth - (start.equals(folder) ? 0 : folder.relativize(start).getNameCount());
+        Files.walkFileTree(start, EnumSet.noneOf(FileVisitOption.class), walkDepth, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(start)) {
+                    entries[0]++;
+                    if (isExcluded(folder.relativize(dir))) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                }
+                directories.accept(dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                entries[0]++;
+                Path relative = folder.relativize(file);
+                if (isRegularFile(file, attrs) && include.matches(relative) && !isExcluded(relative)) {
+                    files.accept(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return entries[0];
+    }
+
+    /**
+     * Checks whether a visited file is a regular file. The tree is walked without following links,
+     * so the attributes of a symbolic link describe the link itself, and the link is resolved
+     * to be found like a regular file when it points to one.
+     *
+     * @param file  the visited file
+     * @param attrs the attributes of the file, read without following links
+     * @return true if the file is a regular file or a symbolic link to one
+     */
+    private static boolean isRegularFile(Path file, BasicFileAttributes attrs) {
+        return attrs.isRegularFile() || attrs.isSymbolicLink() && Files.isRegularFile(file);
+    }
+
+    /**
+     * Checks whether a file of the folder tree is one that discovery would find,
+     * e.g. when it is reported by a watch service.
+     *
+     * @param folder the folder the globs and the depth are relative to
+     * @param file   the file within the folder tree
+     * @return true if the file is within the maximal depth, matches the include glob,
+     * and neither the file nor any of its parent folders is excluded
+     */
+    boolean matches(Path folder, Path file) {
+        Path relative = folder.relativize(file);
+        return relative.getNameCount() <= maxDepth && include.matches(relative) && !isExcludedPath(relative);
+    }
+
+    /**
+     * Checks whether a subfolder of the folder tree may hold files that discovery would find.
+     *
+     * @param folder    the folder the globs and the depth are relative to
+     * @param directory the subfolder within the folder tree
+     * @return true if the subfolder is above the maximal depth and neither it nor any of its parent folders is excluded
+     */
+    boolean isSearched(Path folder, Path directory) {
+        Path relative = folder.relativize(directory);
+        return relative.getNameCount() < maxDepth && !isExcludedPath(relative);
+    }
+
+    /**
+     * Checks whether the path or any of its parent folders is excluded.
+     *
+     * @param relative the path relative to the folder
+     * @return true if the path is excluded itself or lies within an excluded folder
+     */
+    private boolean isExcludedPath(Path relative) {
+        for (int count = 1; count <= relative.getNameCount(); count++) {
+            if (isExcluded(relative.subpath(0, count))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isExcluded(Path relative) {
+        return exclude != null && exclude.matches(relative);
+    }
+}
@@ -0,0 +1,132 @@
+package parsing;
+
+/**
+ * HyperLogLog sketch estimating the number of distinct attribute values.
+ * Each value is hashed to 64 bits; the first {@code precision} bits select one of {@code 2^precision}
+ * registers, which keeps the longest run of leading zeros seen in the remaining bits.
+ * Memory is one byte per register no matter how many values are added, and sketches
+ * of different parsing tasks are merged by taking the maximum of every register.
+ */
+class HyperLogLog implements ValueSink {
+
+    static final int MIN_PRECISION = 4;
+    static final int MAX_PRECISION = 18;
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final int precision;
+    private final byte[] registers;
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param precision the number of hash bits selecting a register, between 4 and 18
+     * @throws IllegalArgumentException if the precision is out of range
+     */
+    HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Adds the given value.
+     *
+     * @param value the value to add
+     */
+    void add(String value) {
+        char[] chars = value.toCharArray();
+        add(chars, 0, chars.length);
+    }
+
+    @Override
+    public void add(char[] chars, int offset, int length) {
+        long hash = hash(chars, offset, length);
+        int register = (int) (hash >>> (Long.SIZE - precision));
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[register]) {
+            registers[register] = (byte) rank;
+        }
+    }
+
+    /**
+     * Merges another sketch of the same precision into this one.
+     *
+     * @param other the sketch to merge
+     * @throws IllegalArgumentException if the sketches have different precisions
+     */
+    void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge sketches of different precisions");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    /**
+     * Estimates the number of distinct values added so far.
+     * Small cardinalities are estimated by linear counting of the empty registers.
+     *
+     * @return the estimate together with its relative standard error
+     */
+    CardinalityEstimate estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int emptyRegisters = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                emptyRegisters++;
+            }
+        }
+
+        double estimate = alpha(m) * m * m / sum;
+        if (estimate <= 2.5 * m && emptyRegisters > 0) {
+            estimate = m * Math.log((double) m / emptyRegisters);
+        }
+        return new CardinalityEstimate(Math.round(estimate), 1.04 / Math.sqrt(m));
+    }
+
+    /**
+     * Returns the bias correction constant for the given number of registers.
+     *
+     * @param m the number of registers
+     * @return the bias correction constant
+     */
+    private static double alpha(int m) {
+        return switch (m) {
+            case 16 -> 0.673;
+            case 32 -> 0.697;
+            case 64 -> 0.709;
+            default -> 0.7213 / (1 + 1.079 / m);
+        };
+    }
+
+    /**
+     * Computes a well-mixed 64-bit hash of a character range: FNV-1a over the characters
+     * followed by the MurmurHash3 finalizer, so every bit depends on every character.
+     *
+     * @param chars  the buffer holding the value
+     * @param offset the offset of the first character of the value
+     * @param length the number of characters in the value
+     * @return the hash of the value
+     */
+    private static long hash(char[] chars, int offset, int length) {
+        long hash = FNV_OFFSET_BASIS;
+        for (int i = offset; i < offset + length; i++) {
+            hash = (hash ^ chars[i]) * FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,41 @@
+package parsing;
+
+import java.util.Arrays;
+
+/**
+ * Ways of reading JSON files from disk.
+ */
+public enum InputMode {
+
+    /**
+     * Files are read through a regular file input stream.
+     */
+    STREAM("stream"),
+
+    /**
+     * Files larger than the mapping threshold are memory-mapped,
+     * so their bytes are read straight from the page cache without read system calls.
+     */
+    MAPPED("mapped");
+
+    private final String name;
+
+    InputMode(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Returns the input mode with the given command-line name.
+     *
+     * @param name the input mode name (e.g., "stream", "mapped")
+     * @return the matching input mode
+     * @throws IllegalArgumentException if there is no input mode with the given name
+     */
+    public static InputMode fromName(String name) {
+        return Arrays.stream(values())
+                .filter(mode -> mode.name.equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown input mode " + name +
+                        ". Available input modes are: stream, mapped"));
+    }
+}
@@ -0,0 +1,159 @@
+package parsing;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Single-threaded histogram of int values.
+ * Counts are kept in an int-indexed array covering the range between the lowest and the highest value,
+ * so adding a value is an array increment without hashing or boxing. The array grows on both ends
+ * as values outside of the range arrive, which suits attributes like years with a narrow value range.
+ * Once the values span more than 2^24 integers the counts move to a sorted map holding only the values seen,
+ * so a few outliers slow adding down instead of failing the statistics.
+ */
+class IntHistogram {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MAX_RANGE = 1 << 24;
+
+    private long[] counts = new long[0];
+    private TreeMap<Integer, Long> sparse;
+    private int base;
+    private long count;
+    private long sum;
+    private int min = Integer.MAX_VALUE;
+    private int max = Integer.MIN_VALUE;
+
+    /**
+     * Adds a single occurrence of the value.
+     *
+     * @param value the value to add
+     */
+    void add(int value) {
+        add(value, 1);
+    }
+
+    /**
+     * Adds several occurrences of the value.
+     *
+     * @param value       the value to add
+     * @param occurrences the number of occurrences
+     */
+    void add(int value, long occurrences) {
+        if (sparse == null && (value < min || value > max)) {
+            ensureRange(Math.min(value, min), Math.max(value, max));
+        }
+        min = Math.min(value, min);
+        max = Math.max(value, max);
+        if (sparse != null) {
+            sparse.merge(value, occurrences, Long::sum);
+        } else {
+            counts[value - base] += occurrences;
+        }
+        count += occurrences;
+        sum += value * occurrences;
+    }
+
+    /**
+     * Adds all values of another histogram to this one.
+     *
+     * @param other the histogram to merge
+     */
+    void merge(IntHistogram other) {
+        if (other.sparse != null) {
+            other.sparse.forEach(this::add);
+            return;
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            if (other.counts[i] > 0) {
+                add(other.base + i, other.counts[i]);
+            }
+        }
+    }
+
+    /**
+     * Summarizes the histogram.
+     *
+     * @param bucketWidth the width of the buckets the values are grouped into, e.g. 10 for decades
+     * @return the summary, or null if no values were added
+     */
+    NumericSummary summary(int bucketWidth) {
+        if (count == 0) {
+            return null;
+        }
+        Map<Integer, Long> buckets = new TreeMap<>();
+        if (sparse != null) {
+            sparse.forEach((value, occurrences) ->
+                    buckets.merge(Math.floorDiv(value, bucketWidth) * bucketWidth, occurrences, Long::sum));
+        } else {
+            for (int i = min - base; i <= max - base; i++) {
+                if (counts[i] > 0) {
+                    buckets.merge(Math.floorDiv(base + i, bucketWidth) * bucketWidth, counts[i], Long::sum);
+                }
+            }
+        }
+        return new NumericSummary(count, min, max, (double) sum / count,
+                percentile(0.5), percentile(0.9), percentile(0.99), bucketWidth, buckets);
+    }
+
+    /**
+     * Returns the lowest value that at least the given fraction of all values is lower than or equal to.
+     *
+     * @param percentile the percentile between 0 and 1
+     * @return the value at the percentile
+     */
+    int percentile(double percentile) {
+        long rank = Math.max(1, (long) Math.ceil(count * percentile));
+        long seen = 0;
+        if (sparse != null) {
+            for (Map.Entry<Integer, Long> entry : sparse.entrySet()) {
+                seen += entry.getValue();
+                if (seen >= rank) {
+                    return entry.getKey();
+                }
+            }
+            return max;
+        }
+        for (int i = min - base; i < max - base; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return base + i;
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Grows the array so it covers the given range, leaving headroom on the side it grows at,
+     * or moves the counts to the sorted map if the range spans more than 2^24 integers.
+     * Called before the new value is recorded, so min and max still describe the values already counted.
+     *
+     * @param low  the lowest value to cover
+     * @param high the highest value to cover
+     */
+    private void ensureRange(int low, int high) {
+        long required = (long) high - low + 1;
+        if (required > MAX_RANGE) {
+            sparse = new TreeMap<>();
+            for (int i = min - base; count > 0 && i <= max - base; i++) {
+                if (counts[i] > 0) {
+                    sparse.put(base + i, counts[i]);
+                }
+            }
+            counts = new long[0];
+            return;
+        }
+        if (counts.length > 0 && low >= base && (long) high - base < counts.length) {
+            return;
+        }
+
+        int capacity = (int) Math.min(MAX_RANGE, Math.max(required, Math.max(INITIAL_CAPACITY, 2L * counts.length)));
+        int newBase = counts.length > 0 && low < base ? (int) Math.max(Integer.MIN_VALUE, (long) high - capacity + 1) : low;
+        long[] grown = new long[capacity];
+        if (count > 0) {
+            System.arraycopy(counts, min - base, grown, min - newBase, max - min + 1);
+        }
+        counts = grown;
+        base = newBase;
+    }
+}
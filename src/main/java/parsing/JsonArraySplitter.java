@@ -0,0 +1,116 @@
+package parsing;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Splits a JSON file holding top-level arrays into chunks aligned on array element boundaries.
+ * The file is scanned once byte by byte, tracking only nesting depth and string literals,
+ * which is far cheaper than tokenizing it, and chunks are handed over while the scan goes on.
+ */
+class JsonArraySplitter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final long chunkSize;
+
+    /**
+     * Creates a splitter producing chunks of at least the given size.
+     *
+     * @param chunkSize the minimal number of bytes in a chunk
+     */
+    JsonArraySplitter(long chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Splits the file into chunks and hands every chunk to the consumer as soon as its end is found,
+     * so the first chunks are parsed while the rest of the file is still being scanned.
+     * Each chunk starts right after a top-level comma (or the opening bracket) and ends right before the next
+     * top-level comma (or the closing bracket) that follows at least {@code chunkSize} bytes.
+     * Files holding several top-level arrays one after another are split array by array.
+     * Once anything but a top-level array or whitespace is found, the rest of the file becomes a last chunk
+     * of root values, and an array left open by a truncated file ends in a last chunk reaching the end of the file,
+     * so parsing the chunks finds the same records and fails on the same errors as parsing the whole file.
+     * Files that are not larger than the chunk size, are compressed, or do not start with a top-level array
+     * are handed over as a single whole-file chunk.
+     *
+     * @param file     the JSON file to split
+     * @param consumer the consumer of the chunks, called on the calling thread in file order
+     * @throws IOException if there is an error reading the file
+     */
+    void split(File file, Consumer<FileChunk> consumer) throws IOException {
+        if (file.length() <= chunkSize || Compression.forFileName(file.getName()) != Compression.NONE) {
+            consumer.accept(FileChunk.wholeFile(file));
+            return;
+        }
+
+        try (InputStream in = new FileInputStream(file)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long bufferStart = 0;
+            long chunkStart = -1;
+            int chunks = 0;
+            int depth = 0;
+            boolean inString = false;
+            boolean escaped = false;
+            int read;
+
+            while ((read = in.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    byte b = buffer[i];
+                    long position = bufferStart + i;
+                    if (inString) {
+                        if (escaped) {
+                            escaped = false;
+                        } else if (b == '\\') {
+                            escaped = true;
+                        } else if (b == '"') {
+                            inString = false;
+                        }
+                    } else if (depth == 0 && b != '[' && !isWhitespace(b)) {
+                        consumer.accept(chunks == 0
+                                ? FileChunk.wholeFile(file)
+                                : new FileChunk(file, position, file.length() - position, true));
+                        return;
+                    } else if (b == '"') {
+                        inString = true;
+                    } else if (b == '[' || b == '{') {
+                        if (depth == 0) {
+                            chunkStart = position + 1;
+                        }
+                        depth++;
+                    } else if (b == ']' || b == '}') {
+                        depth--;
+                        if (depth == 0) {
+                            consumer.accept(new FileChunk(file, chunkStart, position - chunkStart));
+                            chunks++;
+                        }
+                    } else if (b == ',' && depth == 1 && position - chunkStart >= chunkSize) {
+                        consumer.accept(new FileChunk(file, chunkStart, position - chunkStart));
+                        chunks++;
+                        chunkStart = position + 1;
+                    }
+                }
+                bufferStart += read;
+            }
+            if (depth > 0) {
+                consumer.accept(new FileChunk(file, chunkStart, bufferStart - chunkStart));
+            } else if (chunks == 0) {
+                consumer.accept(FileChunk.wholeFile(file));
+            }
+        }
+    }
+
+    /**
+     * Checks whether the byte is JSON whitespace.
+     *
+     * @param b the byte to check
+     * @return true for spaces, tabs and line breaks
+     */
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+}
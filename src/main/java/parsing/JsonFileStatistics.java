@@ -3,25 +3,154 @@ package parsing;
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
+import exceptions.ColumnarStoreException;
+import exceptions.InvalidAttributeException;
 import exceptions.InvalidFolderException;
 import exceptions.JsonParsingException;
+import exceptions.ParsingTimeoutException;
 import exceptions.TaskExecutionException;
+import metrics.PipelineMetrics;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Utility class to collect statistics from JSON files within a specified folder.
+ * The executor used for parsing is owned by the instance and reused across runs,
+ * so it has to be closed once the instance is no longer needed.
  */
-public class JsonFileStatistics {
+public class JsonFileStatistics implements AutoCloseable {
+
+    private static final int TOP_CAPACITY_FACTOR = 10;
+    private static final int MAX_TOP_CAPACITY = 1 << 24;
+
+    private final ExecutorService executor;
+    private final ExecutorService mergeExecutor;
+    private final ExecutorService decompressionExecutor;
+    private final JsonFactory jsonFactory;
+    private final JsonArraySplitter splitter;
+    private final JsonLinesSplitter linesSplitter;
+    private final JsonInputOpener inputOpener;
+    private final FileDiscovery discovery;
+    private final Path cacheFile;
+    private final int parseQueueCapacity;
+    private final ErrorPolicy errorPolicy;
+    private final Duration fileTimeout;
+    private final PipelineMetrics metrics;
+    private StatsCache cache;
+    private final Map<Path, ColumnarStore> columnarStores = new ConcurrentHashMap<>();
+    private volatile List<SkippedFile> skippedFiles = List.of();
+
+    /**
+     * Creates an instance parsing files on a fixed thread pool sized to the available processors.
+     */
+    public JsonFileStatistics() {
+        this(ExecutionStrategy.FIXED);
+    }
+
+    /**
+     * Creates an instance parsing files on an executor created by the given strategy.
+     *
+     * @param strategy the strategy used to create the executor
+     */
+    public JsonFileStatistics(ExecutionStrategy strategy) {
+        this(strategy.createExecutor(), ParsingConfig.builder().recyclerPool(strategy.recyclerPool()).build());
+    }
+
+    /**
+     * Creates an instance parsing files on the given executor.
+     * The instance takes ownership of the executor and shuts it down on {@link #close()}.
+     *
+     * @param executor the executor used to run parsing tasks
+     */
+    public JsonFileStatistics(ExecutorService executor) {
+        this(executor, ParsingConfig.defaults());
+    }
+
+    /**
+     * Creates an instance parsing files on the given executor with the given tuning parameters.
+     * A single JSON factory is shared by all parsing tasks, so field name symbol tables
+     * and parser buffers are reused across files instead of being rebuilt for each of them.
+     * Parsed results are merged on separate threads, sized by the configured merge parallelism,
+     * and compressed files are decompressed on threads of their own, one per file being parsed.
+     * The instance takes ownership of the executor and shuts it down on {@link #close()}.
+     *
+     * @param executor the executor used to run parsing tasks
+     * @param config   the parsing configuration
+     */
+    public JsonFileStatistics(ExecutorService executor, ParsingConfig config) {
+        this.executor = executor;
+        this.jsonFactory = JsonFactory.builder()
+                .enable(JsonFactory.Feature.CANONICALIZE_FIELD_NAMES)
+                .enable(JsonFactory.Feature.INTERN_FIELD_NAMES)
+                .recyclerPool(config.getRecyclerPool())
+                .build();
+        this.splitter = new JsonArraySplitter(config.getChunkSize());
+        this.linesSplitter = new JsonLinesSplitter(config.getChunkSize());
+        this.decompressionExecutor = createDecompressionExecutor();
+        this.inputOpener = new JsonInputOpener(config, decompressionExecutor);
+        this.discovery = new FileDiscovery(config.getIncludeGlob(), config.getExcludeGlob(), config.getMaxDepth());
+        this.cacheFile = config.getCacheFile();
+        this.mergeExecutor = createMergeExecutor(config.getMergeParallelism(), config.getMergeQueueCapacity());
+        this.parseQueueCapacity = config.getParseQueueCapacity();
+        this.errorPolicy = config.getErrorPolicy();
+        this.fileTimeout = config.getFileTimeout();
+        this.metrics = config.getMetrics();
+        this.metrics.setParallelism(parallelismOf(executor));
+    }
+
+    /**
+     * Returns the metrics the parsing stages of this instance are recorded to.
+     *
+     * @return the pipeline metrics
+     */
+    public PipelineMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the discovery selecting the JSON files of a folder, so that watchers pick the same files.
+     *
+     * @return the file discovery
+     */
+    FileDiscovery getDiscovery() {
+        return discovery;
+    }
+
+    /**
+     * Returns the files skipped by the last collection because they failed to parse.
+     * Files are only skipped with the {@link ErrorPolicy#SKIP} policy.
+     *
+     * @return the skipped files with the reason they failed, empty if all files were parsed
+     */
+    public List<SkippedFile> getSkippedFiles() {
+        return skippedFiles;
+    }
 
     /**
      * Collects statistics based on a specified attribute
@@ -36,95 +165,1006 @@ public class JsonFileStatistics {
      *                                or does not contain any JSON files
      */
     public Map<String, Integer> collectStats(Path folderPath, String attribute) {
-        List<File> files = getJsonFiles(folderPath);
-        Map<String, Integer> stats = new ConcurrentHashMap<>();
+        return collectStats(folderPath, Set.of(attribute)).get(attribute);
+    }
+
+    /**
+     * Collects statistics for several attributes at once
+     * from JSON files within a given folder path.
+     * Every file is tokenized only once, no matter how many attributes are requested.
+     * If the folder holds an up-to-date columnar store written by {@link #writeColumnarStore(Path)},
+     * the statistics are counted from its columns instead of parsing the JSON files.
+     *
+     * @param folderPath the path to the folder containing JSON files
+     * @param attributes the attributes to collect statistics for
+     *                   (e.g., "developer", "yearReleased", "genre")
+     * @return a map containing each attribute as key and its statistics map as value
+     * @throws JsonParsingException   if there is an error parsing a JSON file
+     * @throws InvalidFolderException if the specified folder is empty
+     *                                or does not contain any JSON files
+     * @throws ColumnarStoreException if an error occurs while reading the columnar store
+     */
+    public Map<String, Map<String, Integer>> collectStats(Path folderPath, Set<String> attributes) {
+        FieldMatcher matcher = FieldMatcher.compile(attributes);
+        Map<String, Map<String, Integer>> stats;
+        if (cacheFile == null && !Files.exists(folderPath.resolve(ColumnarStore.FILE_NAME))) {
+            stats = collectParsedStats(folderPath, null, matcher);
+        } else {
+            List<File> files = getJsonFiles(folderPath);
+            stats = collectColumnarStats(folderPath, files, matcher);
+            if (stats == null && cacheFile != null) {
+                stats = collectCachedStats(folderPath, files, matcher);
+            } else if (stats == null) {
+                stats = collectParsedStats(folderPath, files, matcher);
+            }
+        }
 
-        ExecutorService executor = Executors.newFixedThreadPool(8);
-        List<Future<?>> futures = new ArrayList<>();
+        stats.forEach((attribute, values) -> metrics.recordDistinctKeys(attribute, values.size()));
+        return stats;
+    }
 
-        for (File file : files) {
-            futures.add(executor.submit(() -> {
-                try (JsonParser parser = new JsonFactory().createParser(file)) {
-                    processFields(attribute, parser, stats);
-                } catch (IOException e) {
-                    throw new JsonParsingException("Failed to parse json file", e);
+    /**
+     * Converts the JSON files within a folder into a binary columnar store placed in the same folder.
+     * Every attribute of the game records becomes a dictionary-encoded column, or an int column
+     * if it holds only integers like yearReleased. Later calls of {@link #collectStats(Path, Set)}
+     * answer from the store as long as none of the JSON files is added, removed or changed.
+     * Files skipped by the {@link ErrorPolicy#SKIP} policy are left out, so the store is only used
+     * once they are fixed and the store is written again, or once they are removed.
+     *
+     * @param folderPath the path to the folder containing JSON files
+     * @return the path to the written store
+     * @throws JsonParsingException   if there is an error parsing a JSON file
+     * @throws InvalidFolderException if the specified folder is empty
+     * @throws ColumnarStoreException if an error occurs while writing the store
+     */
+    public Path writeColumnarStore(Path folderPath) {
+        Map<String, ColumnarStore.Fingerprint> fingerprints = new HashMap<>();
+        FieldMatcher matcher = FieldMatcher.compile(FieldPath.availableFields().stream()
+                .map(field -> FieldPath.of(field).path())
+                .distinct()
+                .toList());
+        Map<String, ColumnBuilder> columns = new LinkedHashMap<>();
+        for (String column : matcher.attributes()) {
+            columns.put(column, new ColumnBuilder());
+        }
+        ParsingRun run = newRun();
+
+        discoverJsonFiles(folderPath, file -> {
+            fingerprints.putAll(ColumnarStore.fingerprint(folderPath, List.of(file)));
+            submitFile(file, matcher, ColumnBuilder::new, partial -> partial.forEach((column, builder) -> {
+                ColumnBuilder shared = columns.get(column);
+                synchronized (shared) {
+                    shared.merge(builder);
                 }
-            }));
+            }), run);
+        });
+
+        for (SkippedFile skipped : awaitRun(run)) {
+            fingerprints.keySet().removeAll(ColumnarStore.fingerprint(folderPath, List.of(skipped.file().toFile())).keySet());
         }
+        Path storeFile = folderPath.resolve(ColumnarStore.FILE_NAME);
+        ColumnarStore.write(storeFile, fingerprints, columns);
+        columnarStores.remove(storeFile);
+        return storeFile;
+    }
 
-        waitForCompletion(futures);
-        executor.shutdown();
+    /**
+     * Collects the most frequent values of several attributes from JSON files within a given folder path.
+     * Every running parsing task borrows Space-Saving sketches monitoring {@value #TOP_CAPACITY_FACTOR} times
+     * more values than requested, so memory stays bounded regardless of the number of distinct values.
+     * The pooled sketches are merged once the run is complete, see {@link #submitToPooledSinks}.
+     * Counts are exact as long as no sketch overflows, otherwise they are upper bounds
+     * and the error of every value is reported along with it.
+     *
+     * @param folderPath the path to the folder containing JSON files
+     * @param attributes the attributes to collect the most frequent values of
+     * @param limit      the number of values to collect per attribute
+     * @return a map containing each attribute as key and its values ranked by count as value
+     * @throws IllegalArgumentException if the limit is not positive
+     * @throws JsonParsingException     if there is an error parsing a JSON file
+     * @throws InvalidFolderException   if the specified folder is empty
+     *                                  or does not contain any JSON files
+     */
+    public Map<String, List<RankedValue>> collectTopStats(Path folderPath, Set<String> attributes, int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        FieldMatcher matcher = FieldMatcher.compile(attributes);
+        int capacity = (int) Math.min(MAX_TOP_CAPACITY, (long) limit * TOP_CAPACITY_FACTOR);
+        Map<String, SpaceSaving> sketches = new LinkedHashMap<>();
+        for (String attribute : attributes) {
+            sketches.put(attribute, new SpaceSaving(capacity));
+        }
+        Consumer<Map<String, SpaceSaving>> merger = partial -> partial.forEach((attribute, sketch) -> {
+            SpaceSaving shared = sketches.get(attribute);
+            synchronized (shared) {
+                shared.merge(sketch);
+            }
+        });
+        Supplier<SpaceSaving> sketchFactory = () -> new SpaceSaving(capacity);
+        StatePool<Map<String, SpaceSaving>> pool = new StatePool<>(() -> createSinks(matcher, sketchFactory));
+        ParsingRun run = newRun();
+
+        discoverJsonFiles(folderPath, file -> submitToPooledSinks(file, matcher, sketchFactory, pool, merger, run));
+
+        awaitRun(run);
+        pool.states().forEach(merger);
+
+        Map<String, List<RankedValue>> topStats = new LinkedHashMap<>();
+        sketches.forEach((attribute, sketch) -> {
+            metrics.recordDistinctKeys(attribute, sketch.size());
+            topStats.put(attribute, sketch.top(limit));
+        });
+        return topStats;
+    }
+
+    /**
+     * Estimates the number of distinct values of several attributes in JSON files within a given folder path.
+     * Every running parsing task borrows a HyperLogLog sketch of {@code 2^precision} one-byte registers
+     * per attribute, so memory stays constant no matter how many records and distinct values the files hold.
+     * The pooled sketches are merged once the run is complete, see {@link #submitToPooledSinks}.
+     * The relative standard error of the estimates is {@code 1.04 / sqrt(2^precision)}.
+     *
+     * @param folderPath the path to the folder containing JSON files
+     * @param attributes the attributes to estimate the distinct values of
+     * @param precision  the number of hash bits selecting a register, between 4 and 18
+     * @return a map containing each attribute as key and its estimate as value
+     * @throws IllegalArgumentException if the precision is out of range
+     * @throws JsonParsingException     if there is an error parsing a JSON file
+     * @throws InvalidFolderException   if the specified folder is empty
+     *                                  or does not contain any JSON files
+     */
+    public Map<String, CardinalityEstimate> collectDistinctStats(Path folderPath, Set<String> attributes, int precision) {
+        FieldMatcher matcher = FieldMatcher.compile(attributes);
+        Map<String, HyperLogLog> sketches = new LinkedHashMap<>();
+        for (String attribute : attributes) {
+            sketches.put(attribute, new HyperLogLog(precision));
+        }
+        Consumer<Map<String, HyperLogLog>> merger = partial -> partial.forEach((attribute, sketch) -> {
+            HyperLogLog shared = sketches.get(attribute);
+            synchronized (shared) {
+                shared.merge(sketch);
+            }
+        });
+        Supplier<HyperLogLog> sketchFactory = () -> new HyperLogLog(precision);
+        StatePool<Map<String, HyperLogLog>> pool = new StatePool<>(() -> createSinks(matcher, sketchFactory));
+        ParsingRun run = newRun();
+
+        discoverJsonFiles(folderPath, file -> submitToPooledSinks(file, matcher, sketchFactory, pool, merger, run));
+
+        awaitRun(run);
+        pool.states().forEach(merger);
+
+        Map<String, CardinalityEstimate> estimates = new LinkedHashMap<>();
+        sketches.forEach((attribute, sketch) -> {
+            CardinalityEstimate estimate = sketch.estimate();
+            metrics.recordDistinctKeys(attribute, estimate.estimate());
+            estimates.put(attribute, estimate);
+        });
+        return estimates;
+    }
+
+    /**
+     * Aggregates a numeric attribute, e.g. "yearReleased", from JSON files within a given folder path:
+     * count, min, max, mean, percentiles and a bucketed histogram, optionally per value of another attribute.
+     * JSON numbers are read as primitives into int-indexed histograms, so values are never boxed,
+     * and everything is computed in the same single pass over the files.
+     *
+     * @param folderPath  the path to the folder containing JSON files
+     * @param attribute   the numeric attribute to aggregate
+     * @param groupBy     the attribute to group the values by (e.g. "genre"), or null for no grouping
+     * @param bucketWidth the width of the histogram buckets, e.g. 10 for decades
+     * @return the statistics of all values and of every group
+     * @throws IllegalArgumentException  if the bucket width is not positive
+     * @throws InvalidAttributeException if an attribute does not refer to a field of a game record
+     * @throws JsonParsingException      if there is an error parsing a JSON file
+     * @throws InvalidFolderException    if the specified folder is empty
+     *                                   or does not contain any JSON files
+     */
+    public NumericStatistics collectNumericStats(Path folderPath, String attribute, String groupBy, int bucketWidth) {
+        return collectNumericStats(folderPath, List.of(attribute), groupBy, bucketWidth).get(attribute);
+    }
+
+    /**
+     * Aggregates several numeric attributes from JSON files within a given folder path, all in the same single pass,
+     * like {@link #collectNumericStats(Path, String, String, int)} does for one attribute.
+     * Every attribute has its own aggregator, and the values of the grouping attribute are fed to all of them.
+     *
+     * @param folderPath  the path to the folder containing JSON files
+     * @param attributes  the numeric attributes to aggregate
+     * @param groupBy     the attribute to group the values by (e.g. "genre"), or null for no grouping
+     * @param bucketWidth the width of the histogram buckets, e.g. 10 for decades
+     * @return a map containing each attribute as key and the statistics of all its values and of every group as value
+     * @throws IllegalArgumentException  if the bucket width is not positive
+     * @throws InvalidAttributeException if an attribute does not refer to a field of a game record
+     * @throws JsonParsingException      if there is an error parsing a JSON file
+     * @throws InvalidFolderException    if the specified folder is empty
+     *                                   or does not contain any JSON files
+     */
+    public Map<String, NumericStatistics> collectNumericStats(Path folderPath, List<String> attributes, String groupBy,
+                                                              int bucketWidth) {
+        if (bucketWidth <= 0) {
+            throw new IllegalArgumentException("Bucket width must be positive");
+        }
+        boolean grouped = groupBy != null;
+        List<String> paths = new ArrayList<>(attributes);
+        if (grouped) {
+            paths.addAll(Collections.nCopies(attributes.size(), groupBy));
+        }
+        FieldMatcher matcher = FieldMatcher.compile(paths);
+        List<NumericAggregator> results = attributes.stream().map(attribute -> new NumericAggregator()).toList();
+        ParsingRun run = newRun();
+
+        discoverJsonFiles(folderPath, file -> {
+            submitChunks(file, matcher, () -> attributes.stream().map(attribute -> new NumericAggregator()).toList(),
+                    aggregators -> numericSinks(aggregators, grouped), aggregators -> {
+                        for (int i = 0; i < aggregators.size(); i++) {
+                            NumericAggregator result = results.get(i);
+                            synchronized (result) {
+                                result.merge(aggregators.get(i));
+                            }
+                        }
+                    }, run);
+        });
+
+        awaitRun(run);
+
+        Map<String, NumericStatistics> statistics = new LinkedHashMap<>();
+        int groups = 0;
+        for (int i = 0; i < attributes.size(); i++) {
+            NumericStatistics attributeStatistics = results.get(i).statistics(bucketWidth);
+            groups = Math.max(groups, attributeStatistics.groups().size());
+            statistics.put(attributes.get(i), attributeStatistics);
+        }
+        if (grouped) {
+            metrics.recordDistinctKeys(groupBy, groups);
+        }
+        return statistics;
+    }
+
+    /**
+     * Collects two-dimensional statistics from JSON files within a given folder path:
+     * how often every value of an attribute occurs together with every value of a grouping attribute
+     * in the same record, e.g. genres per release year. Both fields are extracted in the same pass,
+     * and every combination is counted under a key packing the dictionary ids of both values into a long.
+     *
+     * @param folderPath the path to the folder containing JSON files
+     * @param groupBy    the attribute to group by (e.g. "yearReleased")
+     * @param attribute  the attribute to count within every group (e.g. "genre")
+     * @return a map containing each value of the grouping attribute as key and the occurrence
+     * counts of the attribute's values within the group as value, both ordered numerically if all of them
+     * are numbers, like release years, and by name otherwise
+     * @throws InvalidAttributeException if an attribute does not refer to a field of a game record
+     * @throws JsonParsingException      if there is an error parsing a JSON file
+     * @throws InvalidFolderException    if the specified folder is empty
+     *                                   or does not contain any JSON files
+     */
+    public Map<String, Map<String, Long>> collectCrossTabStats(Path folderPath, String groupBy, String attribute) {
+        return collectCrossTabStats(folderPath, groupBy, List.of(attribute)).get(attribute);
+    }
+
+    /**
+     * Collects two-dimensional statistics of several attributes against the same grouping attribute
+     * from JSON files within a given folder path, all in the same single pass,
+     * like {@link #collectCrossTabStats(Path, String, String)} does for one attribute.
+     * Every attribute has its own aggregator, and the values of the grouping attribute are fed to all of them.
+     *
+     * @param folderPath the path to the folder containing JSON files
+     * @param groupBy    the attribute to group by (e.g. "yearReleased")
+     * @param attributes the attributes to count within every group (e.g. "genre")
+     * @return a map containing each attribute as key and its counts per value of the grouping attribute as value
+     * @throws InvalidAttributeException if an attribute does not refer to a field of a game record
+     * @throws JsonParsingException      if there is an error parsing a JSON file
+     * @throws InvalidFolderException    if the specified folder is empty
+     *                                   or does not contain any JSON files
+     */
+    public Map<String, Map<String, Map<String, Long>>> collectCrossTabStats(Path folderPath, String groupBy,
+                                                                            List<String> attributes) {
+        List<String> paths = new ArrayList<>(Collections.nCopies(attributes.size(), groupBy));
+        paths.addAll(attributes);
+        FieldMatcher matcher = FieldMatcher.compile(paths);
+        List<CrossTabAggregator> results = attributes.stream().map(attribute -> new CrossTabAggregator()).toList();
+        ParsingRun run = newRun();
+
+        discoverJsonFiles(folderPath, file -> {
+            submitChunks(file, matcher, () -> attributes.stream().map(attribute -> new CrossTabAggregator()).toList(),
+                    JsonFileStatistics::crossTabSinks, aggregators -> {
+                        for (int i = 0; i < aggregators.size(); i++) {
+                            CrossTabAggregator result = results.get(i);
+                            synchronized (result) {
+                                result.merge(aggregators.get(i));
+                            }
+                        }
+                    }, run);
+        });
+
+        awaitRun(run);
+
+        Map<String, Map<String, Map<String, Long>>> statistics = new LinkedHashMap<>();
+        for (int i = 0; i < attributes.size(); i++) {
+            metrics.recordDistinctKeys(groupBy + "/" + attributes.get(i), results.get(i).size());
+            statistics.put(attributes.get(i), results.get(i).statistics());
+        }
+        return statistics;
+    }
+
+    /**
+     * Collects statistics for several attributes separately for every JSON file within a given folder path.
+     * Files are parsed concurrently, and the result can be used to apply per-file deltas later on.
+     *
+     * @param folderPath the path to the folder containing JSON files
+     * @param attributes the attributes to collect statistics for
+     * @return a map containing each file path as key and its statistics per attribute as value
+     * @throws JsonParsingException   if there is an error parsing a JSON file
+     * @throws InvalidFolderException if the specified folder is empty
+     *                                or does not contain any JSON files
+     */
+    public Map<Path, Map<String, Map<String, Integer>>> collectStatsPerFile(Path folderPath, Set<String> attributes) {
+        FieldMatcher matcher = FieldMatcher.compile(attributes);
+        Map<Path, Map<String, ValueCounter>> counters = new LinkedHashMap<>();
+        ParsingRun run = newRun();
+
+        discoverJsonFiles(folderPath, file -> {
+            Map<String, ValueCounter> fileCounters = createCounters(attributes);
+            counters.put(file.toPath(), fileCounters);
+            submitFile(file, matcher, fileCounters, run);
+        });
+
+        skippedPaths(awaitRun(run)).forEach(file -> counters.remove(file.toPath()));
 
+        Map<Path, Map<String, Map<String, Integer>>> stats = new LinkedHashMap<>();
+        counters.forEach((file, fileCounters) -> stats.put(file, decode(fileCounters)));
         return stats;
     }
 
     /**
-     * Processes JSON fields within a JSON file's content to extract attribute values.
+     * Collects statistics for several attributes separately for each of the given JSON files, all in a single run,
+     * e.g. for a batch of changed files. The files are parsed concurrently and large ones are split into chunks.
+     * A file that fails to parse is skipped whatever the configured error policy, so it does not hold back
+     * the other files: it is missing from the result and returned by {@link #getSkippedFiles()}.
      *
-     * @param attribute the attribute to extract values for
-     * @param parser    the JSON parser for the file being processed
-     * @param stats     the map to store the extracted attribute values and their counts
-     * @throws IOException if there is an error reading the JSON content
+     * @param filePaths  the paths to the JSON files
+     * @param attributes the attributes to collect statistics for
+     * @return a map containing the path of each parsed file as key and its statistics per attribute as value
+     * @throws TaskExecutionException if merging failed or the calling thread was interrupted
+     */
+    public Map<Path, Map<String, Map<String, Integer>>> collectStatsPerFile(List<Path> filePaths,
+                                                                            Set<String> attributes) {
+        FieldMatcher matcher = FieldMatcher.compile(attributes);
+        Map<Path, Map<String, ValueCounter>> counters = new LinkedHashMap<>();
+        ParsingRun run = newRun(ErrorPolicy.SKIP);
+
+        for (Path filePath : filePaths) {
+            Map<String, ValueCounter> fileCounters = createCounters(attributes);
+            counters.put(filePath, fileCounters);
+            submitFile(filePath.toFile(), matcher, fileCounters, run);
+        }
+
+        skippedPaths(awaitRun(run)).forEach(file -> counters.remove(file.toPath()));
+
+        Map<Path, Map<String, Map<String, Integer>>> stats = new LinkedHashMap<>();
+        counters.forEach((file, fileCounters) -> stats.put(file, decode(fileCounters)));
+        return stats;
+    }
+
+    /**
+     * Collects statistics for several attributes from a single JSON file.
+     * Large files are still split into chunks that are parsed concurrently.
+     *
+     * @param filePath   the path to the JSON file
+     * @param attributes the attributes to collect statistics for
+     * @return a map containing each attribute as key and its statistics map as value
+     * @throws JsonParsingException if there is an error parsing the JSON file
+     */
+    public Map<String, Map<String, Integer>> collectFileStats(Path filePath, Set<String> attributes) {
+        FieldMatcher matcher = FieldMatcher.compile(attributes);
+        Map<String, ValueCounter> counters = createCounters(attributes);
+        ParsingRun run = newRun();
+
+        submitFile(filePath.toFile(), matcher, counters, run);
+        awaitRun(run);
+
+        return decode(counters);
+    }
+
+    /**
+     * Collects statistics by parsing the JSON files of the folder.
+     *
+     * @param folderPath the path to the folder containing JSON files
+     * @param files      the JSON files within the folder if it was listed already,
+     *                   or null to submit the files while the folder is listed
+     * @param matcher    the compiled paths of the attributes to collect statistics for
+     * @return a map containing each attribute as key and its statistics map as value
+     * @throws JsonParsingException   if there is an error parsing a JSON file
+     * @throws InvalidFolderException if the specified folder is empty
+     *                                or does not contain any JSON files
+     */
+    private Map<String, Map<String, Integer>> collectParsedStats(Path folderPath, List<File> files,
+                                                                 FieldMatcher matcher) {
+        Map<String, ValueCounter> counters = createCounters(new LinkedHashSet<>(matcher.attributes()));
+        ParsingRun run = newRun();
+
+        if (files == null) {
+            discoverJsonFiles(folderPath, file -> submitFile(file, matcher, counters, run));
+        } else {
+            files.forEach(file -> submitFile(file, matcher, counters, run));
+        }
+
+        awaitRun(run);
+        return decode(counters);
+    }
+
+    /**
+     * Collects statistics using the persisted per-file cache. Only files that are new or have changed
+     * since the previous run are parsed, entries of deleted files are dropped, and the result
+     * is merged from the cached statistics of all files.
+     *
+     * @param folderPath the path to the folder containing JSON files
+     * @param files      the JSON files within the folder
+     * @param matcher    the compiled paths of the attributes to collect statistics for
+     * @return a map containing each attribute as key and its statistics map as value
+     * @throws JsonParsingException if there is an error parsing a JSON file
+     */
+    private synchronized Map<String, Map<String, Integer>> collectCachedStats(Path folderPath, List<File> files,
+                                                                              FieldMatcher matcher) {
+        Set<String> attributes = new LinkedHashSet<>(matcher.attributes());
+        if (cache == null) {
+            cache = StatsCache.load(cacheFile);
+        }
+        cache.retainAll(folderPath, files);
+
+        List<ParsedFile> parsedFiles = new ArrayList<>();
+        ParsingRun run = newRun();
+
+        for (File file : files) {
+            if (cache.get(file, attributes) == null) {
+                ParsedFile parsedFile = new ParsedFile(file, file.length(), file.lastModified(), createCounters(attributes));
+                parsedFiles.add(parsedFile);
+                submitFile(file, matcher, parsedFile.counters(), run);
+            }
+        }
+
+        Set<File> skipped = skippedPaths(awaitRun(run));
+        List<File> validFiles = files.stream().filter(file -> !skipped.contains(file)).toList();
+        cache.retainAll(folderPath, validFiles);
+
+        for (ParsedFile parsedFile : parsedFiles) {
+            if (!skipped.contains(parsedFile.file())) {
+                cache.put(parsedFile.file(), parsedFile.size(), parsedFile.lastModified(), decode(parsedFile.counters()));
+            }
+        }
+        cache.save();
+
+        return cache.merge(validFiles, attributes);
+    }
+
+    /**
+     * Counts the attributes from the columnar store of the folder, scanning one column per attribute.
+     *
+     * @param folderPath the path to the folder containing JSON files
+     * @param files      the JSON files within the folder
+     * @param matcher    the compiled paths of the attributes to collect statistics for
+     * @return a map containing each attribute as key and its statistics map as value,
+     * or null if the folder has no up-to-date store holding all requested attributes
+     * @throws ColumnarStoreException if an error occurs while reading the store
      */
-    private void processFields(String attribute, JsonParser parser, Map<String, Integer> stats) throws IOException {
-        while (parser.nextToken() != JsonToken.END_ARRAY) {
-            if (parser.currentToken() == JsonToken.FIELD_NAME && attribute.equals(parser.currentName())) {
-                handleAttribute(attribute, parser, stats);
+    private Map<String, Map<String, Integer>> collectColumnarStats(Path folderPath, List<File> files,
+                                                                   FieldMatcher matcher) {
+        ColumnarStore store = openColumnarStore(folderPath.resolve(ColumnarStore.FILE_NAME));
+        if (store == null || !store.isCurrent(files)) {
+            return null;
+        }
+        Map<String, String> columns = new LinkedHashMap<>();
+        for (String attribute : matcher.attributes()) {
+            String column = FieldPath.of(attribute).path();
+            if (!store.hasColumn(column)) {
+                return null;
             }
+            columns.put(attribute, column);
         }
+        Map<String, Map<String, Integer>> stats = new LinkedHashMap<>();
+        columns.forEach((attribute, column) -> stats.put(attribute, store.count(column)));
+        return stats;
     }
 
     /**
-     * Handles processing of a specific attribute found within the JSON content.
+     * Returns the opened store in the given file, opening it only on first use and whenever the file was replaced
+     * or changed since, so repeated collections do not read the fingerprints and the directory again.
      *
-     * @param attribute the attribute to process
-     * @param parser    the JSON parser for the file being processed
-     * @param stats     the map to store the extracted attribute values and their counts
-     * @throws IOException if there is an error reading the JSON content
+     * @param storeFile the path to the store file
+     * @return the opened store, or null if there is no valid store
      */
-    private void handleAttribute(String attribute, JsonParser parser, Map<String, Integer> stats) throws IOException {
-        if (attribute.equals("developer")) {
-            processDeveloperField(parser, stats);
+    private ColumnarStore openColumnarStore(Path storeFile) {
+        ColumnarStore store = columnarStores.get(storeFile);
+        if (store != null && store.isUnchanged()) {
+            return store;
+        }
+        store = ColumnarStore.open(storeFile);
+        if (store == null) {
+            columnarStores.remove(storeFile);
         } else {
-            processField(parser, stats);
+            columnarStores.put(storeFile, store);
+        }
+        return store;
+    }
+
+    /**
+     * Creates empty shared counters for the given attributes.
+     *
+     * @param attributes the attributes to collect statistics for
+     * @return a map containing each attribute as key and an empty counter as value
+     */
+    private Map<String, ValueCounter> createCounters(Set<String> attributes) {
+        Map<String, ValueCounter> counters = new LinkedHashMap<>();
+        for (String attribute : attributes) {
+            counters.put(attribute, new ValueCounter());
+        }
+        return counters;
+    }
+
+    /**
+     * Decodes the value ids of the counters back into statistics maps.
+     *
+     * @param counters the map of attributes to their counters
+     * @return a map containing each attribute as key and its statistics map as value
+     */
+    private Map<String, Map<String, Integer>> decode(Map<String, ValueCounter> counters) {
+        Map<String, Map<String, Integer>> stats = new LinkedHashMap<>();
+        counters.forEach((attribute, counter) -> stats.put(attribute, counter.toMap()));
+        return stats;
+    }
+
+    /**
+     * Submits parsing tasks for every chunk of the file. Each task merges
+     * its counts into the given shared counters once the chunk is parsed.
+     *
+     * @param file     the JSON file to parse
+     * @param matcher  the compiled paths of the attributes to collect statistics for
+     * @param counters the map of attributes to the shared counters the counts are merged into
+     * @param run      the run the tasks are submitted to
+     * @throws JsonParsingException   if there is an error reading the JSON file and the policy is fail-fast
+     * @throws TaskExecutionException if an earlier task failed and the policy is fail-fast
+     */
+    private void submitFile(File file, FieldMatcher matcher,
+                            Map<String, ValueCounter> counters, ParsingRun run) {
+        submitFile(file, matcher, ValueCounter::new, partial -> partial.forEach((attribute, counter) -> {
+            ValueCounter shared = counters.get(attribute);
+            synchronized (shared) {
+                shared.merge(counter);
+            }
+        }), run);
+    }
+
+    /**
+     * Submits parsing tasks for every chunk of the file. Each task adds the values
+     * to its own sinks and hands them over to the merging stage as soon as the chunk is parsed.
+     *
+     * @param file        the JSON file to parse
+     * @param matcher     the compiled paths of the attributes to collect values of
+     * @param sinkFactory the factory of the sinks of a single task
+     * @param merger      the consumer merging the sinks of a task into the shared result, called concurrently
+     * @param run         the run the tasks are submitted to
+     * @param <S>         the type of the sinks
+     * @throws JsonParsingException   if there is an error reading the JSON file and the policy is fail-fast
+     * @throws TaskExecutionException if an earlier task failed and the policy is fail-fast
+     */
+    private <S extends ValueSink> void submitFile(File file, FieldMatcher matcher, Supplier<S> sinkFactory,
+                                                  Consumer<Map<String, S>> merger, ParsingRun run) {
+        submitChunks(file, matcher, () -> createSinks(matcher, sinkFactory),
+                sinks -> matcher.attributes().stream().map(sinks::get).toArray(ValueSink[]::new), merger, run);
+    }
+
+    /**
+     * Submits parsing tasks for every chunk of the file. Each task borrows sinks from the pool while it parses
+     * and hands them back once it is done, so sketches that are costly to create and merge exist once per task
+     * running at the same time instead of once per file or chunk. The number of pooled sinks is thereby bounded
+     * by the parsing threads of pooled executors and by the parse queue capacity of thread-per-task executors,
+     * rather than growing with the number of threads the tasks happened to run on.
+     * The caller merges the pooled sinks once the run is complete.
+     * With the {@link ErrorPolicy#SKIP} policy pooled sinks could hold part of a skipped file,
+     * so every task keeps its own sinks, merged as they are parsed like with {@link #submitFile}.
+     *
+     * @param file        the JSON file to parse
+     * @param matcher     the compiled paths of the attributes to collect values of
+     * @param sinkFactory the factory of the sinks of a single task with the skip policy
+     * @param pool        the pool of sinks the tasks borrow
+     * @param merger      the consumer merging the sinks of a task into the shared result with the skip policy
+     * @param run         the run the tasks are submitted to
+     * @param <S>         the type of the sinks
+     * @throws JsonParsingException   if there is an error reading the JSON file and the policy is fail-fast
+     * @throws TaskExecutionException if an earlier task failed and the policy is fail-fast
+     */
+    private <S extends ValueSink> void submitToPooledSinks(File file, FieldMatcher matcher, Supplier<S> sinkFactory,
+                                                           StatePool<Map<String, S>> pool,
+                                                           Consumer<Map<String, S>> merger, ParsingRun run) {
+        if (run.errorPolicy() == ErrorPolicy.SKIP) {
+            submitFile(file, matcher, sinkFactory, merger, run);
+            return;
+        }
+        splitFile(file, run, chunk -> run.submit(file, () -> {
+            Map<String, S> sinks = pool.borrow();
+            try {
+                parseChunk(file, chunk, matcher, matcher.attributes().stream().map(sinks::get)
+                        .toArray(ValueSink[]::new));
+            } finally {
+                pool.release(sinks);
+            }
+        }));
+    }
+
+    /**
+     * Submits parsing tasks for every chunk of the file. Each task creates its own state,
+     * adds the values of the matched attributes to the sinks the state exposes,
+     * and hands the state over to the merging stage as soon as the chunk is parsed.
+     * With the {@link ErrorPolicy#SKIP} policy the states of a file are held back until the file is split completely
+     * and its last chunk is parsed, and are merged together, so a file skipped because of a failing chunk
+     * or a failure while splitting it adds nothing to the result.
+     *
+     * @param file         the JSON file to parse
+     * @param matcher      the compiled paths of the attributes to collect values of
+     * @param stateFactory the factory of the state of a single task
+     * @param targets      the function returning the sinks of a state, indexed like the matcher attributes
+     * @param merger       the consumer merging the state of a task into the shared result, called concurrently
+     * @param run          the run the tasks are submitted to
+     * @param <T>          the type of the task state
+     * @throws JsonParsingException   if there is an error reading the JSON file and the policy is fail-fast
+     * @throws TaskExecutionException if an earlier task failed and the policy is fail-fast
+     */
+    private <T> void submitChunks(File file, FieldMatcher matcher, Supplier<T> stateFactory,
+                                  Function<T, ValueSink[]> targets, Consumer<T> merger, ParsingRun run) {
+        PendingChunks<T> pendingChunks = run.errorPolicy() == ErrorPolicy.SKIP ? new PendingChunks<>() : null;
+        boolean split = splitFile(file, run, chunk -> {
+            if (pendingChunks != null) {
+                pendingChunks.add();
+            }
+            run.submit(file, () -> {
+                T state = stateFactory.get();
+                parseChunk(file, chunk, matcher, targets.apply(state));
+                List<T> states = pendingChunks == null ? List.of(state) : pendingChunks.complete(state);
+                if (states != null) {
+                    merge(file, states, merger, run);
+                }
+            });
+        });
+        if (split && pendingChunks != null) {
+            List<T> states = pendingChunks.seal();
+            if (states != null) {
+                merge(file, states, merger, run);
+            }
+        }
+    }
+
+    /**
+     * Hands the parsed states of a file over to the merging stage.
+     *
+     * @param file   the JSON file the states were parsed from
+     * @param states the states to merge
+     * @param merger the consumer merging a state into the shared result
+     * @param run    the run the file belongs to
+     * @param <T>    the type of the task state
+     */
+    private <T> void merge(File file, List<T> states, Consumer<T> merger, ParsingRun run) {
+        run.merge(file, () -> {
+            long mergeStart = System.nanoTime();
+            states.forEach(merger);
+            metrics.recordMerge(System.nanoTime() - mergeStart);
+        });
+    }
+
+    /**
+     * Splits a JSON file into chunks that can be parsed concurrently, at top-level array elements
+     * or, for JSON Lines files, at line breaks, and hands every chunk to the consumer as soon as it is found.
+     * Files smaller than the configured chunk size are kept whole. A failure to read the file is handed to the run,
+     * chunks handed over before it are parsed nevertheless.
+     *
+     * @param file     the JSON file to split
+     * @param run      the run the file belongs to
+     * @param consumer the consumer of the chunks, called on the calling thread
+     * @return true if the file was split completely, false if reading it failed and the policy is skip
+     * @throws JsonParsingException   if there is an error reading the JSON file and the policy is fail-fast
+     * @throws TaskExecutionException if an earlier task failed and the policy is fail-fast
+     */
+    private boolean splitFile(File file, ParsingRun run, Consumer<FileChunk> consumer) {
+        try {
+            if (JsonFormat.forFileName(file.getName()) == JsonFormat.LINES) {
+                linesSplitter.split(file).forEach(consumer);
+            } else {
+                splitter.split(file, consumer);
+            }
+            return true;
+        } catch (IOException e) {
+            run.fail(file, new JsonParsingException("Failed to parse json file", e));
+            return false;
+        }
+    }
+
+    /**
+     * Creates a new sink for every matched attribute.
+     *
+     * @param matcher     the compiled paths of the attributes
+     * @param sinkFactory the factory of the sinks
+     * @param <S>         the type of the sinks
+     * @return a map containing each attribute as key and the sink of its values as value
+     */
+    private static <S extends ValueSink> Map<String, S> createSinks(FieldMatcher matcher, Supplier<S> sinkFactory) {
+        Map<String, S> sinks = new HashMap<>();
+        for (String attribute : matcher.attributes()) {
+            sinks.put(attribute, sinkFactory.get());
+        }
+        return sinks;
+    }
+
+    /**
+     * Returns the sinks of several numeric aggregators, indexed like the paths of a multi-attribute matcher:
+     * the numeric attributes first, followed by one copy of the grouping attribute per aggregator if grouped.
+     *
+     * @param aggregators the aggregators of the numeric attributes
+     * @param grouped     true if the statistics are grouped by another attribute
+     * @return the sinks of the matched attributes
+     */
+    private static ValueSink[] numericSinks(List<NumericAggregator> aggregators, boolean grouped) {
+        int count = aggregators.size();
+        ValueSink[] sinks = new ValueSink[grouped ? count * 2 : count];
+        for (int i = 0; i < count; i++) {
+            ValueSink[] aggregatorSinks = aggregators.get(i).sinks(grouped);
+            sinks[i] = aggregatorSinks[0];
+            if (grouped) {
+                sinks[count + i] = aggregatorSinks[1];
+            }
+        }
+        return sinks;
+    }
+
+    /**
+     * Returns the sinks of several cross-tab aggregators, indexed like the paths of a multi-attribute matcher:
+     * one copy of the grouping attribute per aggregator first, followed by the counted attributes.
+     *
+     * @param aggregators the aggregators of the counted attributes
+     * @return the sinks of the matched attributes
+     */
+    private static ValueSink[] crossTabSinks(List<CrossTabAggregator> aggregators) {
+        int count = aggregators.size();
+        ValueSink[] sinks = new ValueSink[count * 2];
+        for (int i = 0; i < count; i++) {
+            ValueSink[] aggregatorSinks = aggregators.get(i).sinks();
+            sinks[i] = aggregatorSinks[0];
+            sinks[count + i] = aggregatorSinks[1];
+        }
+        return sinks;
+    }
+
+    /**
+     * Parses a chunk of a JSON file within the configured timeout and records it to the metrics.
+     *
+     * @param file    the JSON file the chunk belongs to
+     * @param chunk   the chunk of the JSON file to parse
+     * @param matcher the compiled paths of the attributes to collect values of
+     * @param targets the sinks of the matched attributes, indexed by their targets
+     * @throws JsonParsingException    if there is an error parsing the JSON file
+     * @throws ParsingTimeoutException if parsing is not finished within the timeout
+     * @throws CancellationException   if the task was cancelled
+     */
+    private void parseChunk(File file, FileChunk chunk, FieldMatcher matcher, ValueSink[] targets) {
+        long parseStart = System.nanoTime();
+        long deadline = fileTimeout == null ? Long.MAX_VALUE : parseStart + fileTimeout.toNanos();
+        parseChunk(chunk, matcher.root(), targets, deadline);
+        metrics.recordParsedFile(chunk.isWholeFile() ? file.length() : chunk.length(), System.nanoTime() - parseStart);
+    }
+
+    /**
+     * Parses a chunk of a JSON file and adds the values of the requested attributes to the given sinks.
+     *
+     * @param chunk    the chunk of the JSON file to parse
+     * @param record   the matcher state of a record
+     * @param targets  the sinks of the matched attributes, indexed by their targets
+     * @param deadline the time parsing has to be finished by, as returned by {@link System#nanoTime()}
+     * @throws JsonParsingException    if there is an error parsing the JSON file
+     * @throws ParsingTimeoutException if parsing is not finished by the deadline
+     * @throws CancellationException   if the task was cancelled
+     */
+    private void parseChunk(FileChunk chunk, FieldMatcher.State record, ValueSink[] targets, long deadline) {
+        try (JsonParser parser = createParser(chunk)) {
+            processRecords(parser, record, targets, deadline);
+        } catch (IOException e) {
+            throw new JsonParsingException("Failed to parse json file", e);
+        }
+    }
+
+    /**
+     * Creates a JSON parser reading the given chunk.
+     *
+     * @param chunk the chunk of the JSON file to read
+     * @return the JSON parser
+     * @throws IOException if there is an error opening the JSON file
+     */
+    private JsonParser createParser(FileChunk chunk) throws IOException {
+        return jsonFactory.createParser(inputOpener.open(chunk));
+    }
+
+    /**
+     * Processes the records of a JSON file's content. The content is a sequence of root values, like the lines
+     * of a JSON Lines file, and usually a single one: root objects are records, and so are the objects of root arrays.
+     *
+     * @param parser   the JSON parser for the file being processed
+     * @param record   the matcher state of a record
+     * @param targets  the sinks of the matched attributes, indexed by their targets
+     * @param deadline the time parsing has to be finished by, as returned by {@link System#nanoTime()}
+     * @throws IOException             if there is an error reading the JSON content
+     * @throws ParsingTimeoutException if parsing is not finished by the deadline
+     * @throws CancellationException   if the task was cancelled
+     */
+    private void processRecords(JsonParser parser, FieldMatcher.State record, ValueSink[] targets, long deadline)
+            throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null) {
+            if (token == JsonToken.START_OBJECT) {
+                checkProgress(deadline);
+                processRecord(parser, record, targets);
+            } else if (token == JsonToken.START_ARRAY) {
+                processArray(parser, record, targets, deadline);
+            }
+        }
+    }
+
+    /**
+     * Processes the objects of a root array as records, skipping nested arrays and scalar elements.
+     *
+     * @param parser   the JSON parser positioned at the start of the array
+     * @param record   the matcher state of a record
+     * @param targets  the sinks of the matched attributes, indexed by their targets
+     * @param deadline the time parsing has to be finished by, as returned by {@link System#nanoTime()}
+     * @throws IOException             if there is an error reading the JSON content
+     * @throws ParsingTimeoutException if parsing is not finished by the deadline
+     * @throws CancellationException   if the task was cancelled
+     */
+    private void processArray(JsonParser parser, FieldMatcher.State record, ValueSink[] targets, long deadline)
+            throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.END_ARRAY) {
+            if (token == JsonToken.START_OBJECT) {
+                checkProgress(deadline);
+                processRecord(parser, record, targets);
+            } else if (token == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * Stops parsing once the task is cancelled or has run out of time. Checked once per record,
+     * so a pathological file stops within one record of its timeout instead of stalling the run.
+     *
+     * @param deadline the time parsing has to be finished by, as returned by {@link System#nanoTime()}
+     * @throws ParsingTimeoutException if the deadline has passed
+     * @throws CancellationException   if the task was cancelled
+     */
+    private void checkProgress(long deadline) {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Parsing was cancelled");
+        }
+        if (deadline != Long.MAX_VALUE && System.nanoTime() - deadline > 0) {
+            throw new ParsingTimeoutException("Parsing exceeded the timeout of " + fileTimeout.toMillis() + " ms");
+        }
+    }
+
+    /**
+     * Processes a single record and notifies the sinks of its end.
+     *
+     * @param parser  the JSON parser positioned at the start of the record
+     * @param record  the matcher state of a record
+     * @param targets the sinks of the matched attributes, indexed by their targets
+     * @throws IOException if there is an error reading the JSON content
+     */
+    private void processRecord(JsonParser parser, FieldMatcher.State record, ValueSink[] targets) throws IOException {
+        processObject(parser, record, targets);
+        for (ValueSink target : targets) {
+            target.endRecord();
         }
     }
 
     /**
-     * Processes the "developer" field within the JSON content to extract developer names.
+     * Processes the fields of a JSON object, moving the matcher to the state of every field.
+     * Values of fields no path continues with are skipped, and scalar values of fields
+     * a path ends at are added to the sinks of the matched attributes.
+     * The name of the next wanted field is guessed from the order fields were last seen in and checked
+     * by the parser on the raw bytes of the name, so wanted fields of records sharing their field order
+     * are matched without decoding their names; other names fall back to an identity lookup.
      *
-     * @param parser the JSON parser for the file being processed
-     * @param stats  the map to store the extracted developer names and their counts
+     * @param parser  the JSON parser positioned at the start of the object
+     * @param state   the matcher state of the object
+     * @param targets the sinks of the matched attributes, indexed by their targets
      * @throws IOException if there is an error reading the JSON content
      */
-    private void processDeveloperField(JsonParser parser, Map<String, Integer> stats) throws IOException {
-        parser.nextToken();
-        parser.nextToken();
-        processField(parser, stats);
+    private void processObject(JsonParser parser, FieldMatcher.State state, ValueSink[] targets) throws IOException {
+        int expected = 0;
+        while (true) {
+            int index;
+            if (parser.nextFieldName(state.nameAt(expected))) {
+                index = expected;
+            } else if (parser.currentToken() == JsonToken.FIELD_NAME) {
+                index = state.indexOf(parser.currentName());
+            } else {
+                return;
+            }
+            JsonToken value = parser.nextToken();
+            if (index < 0) {
+                parser.skipChildren();
+                continue;
+            }
+            expected = state.nextIndex(index);
+            FieldMatcher.State field = state.childAt(index);
+            if (value == JsonToken.START_OBJECT && field.hasChildren()) {
+                processObject(parser, field, targets);
+            } else if (value.isScalarValue()) {
+                processField(parser, value, field.targets(), targets);
+            } else {
+                parser.skipChildren();
+            }
+        }
     }
 
     /**
-     * Processes JSON field value and updates the statistics map with its occurrences.
+     * Processes JSON field value and adds its occurrences to the sinks of the matched attributes.
+     * Integers that fit an int are passed to numeric sinks as primitives, other numbers are counted as skipped
+     * rather than truncated, and other values are read straight
+     * from the parser's character buffer without materializing a String.
      *
-     * @param parser the JSON parser for the file being processed
-     * @param stats  the map to store the extracted field values and their counts
+     * @param parser  the JSON parser positioned at the field value
+     * @param value   the token of the field value
+     * @param matched the indexes of the attributes the field path ends at
+     * @param targets the sinks of the matched attributes, indexed by their targets
      * @throws IOException if there is an error reading the JSON content
      */
-    private void processField(JsonParser parser, Map<String, Integer> stats) throws IOException {
-        parser.nextToken();
-        countAttributes(parser.getText(), stats);
+    private void processField(JsonParser parser, JsonToken value, int[] matched, ValueSink[] targets)
+            throws IOException {
+        for (int target : matched) {
+            ValueSink sink = targets[target];
+            if (value.isNumeric() && sink instanceof NumericSink numericSink) {
+                if (value == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() == JsonParser.NumberType.INT) {
+                    numericSink.add(parser.getIntValue());
+                } else {
+                    numericSink.skip();
+                }
+            } else {
+                countAttributes(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength(), sink);
+            }
+        }
     }
 
     /**
-     * Splits the field value by comma and updates the statistics map with each value's occurrence.
+     * Splits the field value by comma in place and adds each value to the sink.
+     * Like {@link String#split(String)}, trailing empty values are dropped.
      *
-     * @param value the field value to split and count
-     * @param stats the map to store the extracted values and their counts
+     * @param chars   the buffer holding the field value
+     * @param offset  the offset of the first character of the field value
+     * @param length  the number of characters in the field value
+     * @param sink    the sink of the extracted values
      */
-    private void countAttributes(String value, Map<String, Integer> stats) {
-        String[] values = value.split(", ");
-        for (String val : values) {
-            stats.put(val, stats.getOrDefault(val, 0) + 1);
+    private void countAttributes(char[] chars, int offset, int length, ValueSink sink) {
+        int end = offset + length;
+        int start = offset;
+        int pendingEmpty = 0;
+
+        for (int i = offset; i < end - 1; i++) {
+            if (chars[i] == ',' && chars[i + 1] == ' ') {
+                if (i == start) {
+                    pendingEmpty++;
+                } else {
+                    for (; pendingEmpty > 0; pendingEmpty--) {
+                        sink.add(chars, start, 0);
+                    }
+                    sink.add(chars, start, i - start);
+                }
+                start = i + 2;
+                i++;
+            }
+        }
+
+        if (start == offset || start < end) {
+            for (; pendingEmpty > 0; pendingEmpty--) {
+                sink.add(chars, start, 0);
+            }
+            sink.add(chars, start, end - start);
         }
     }
 
@@ -133,38 +1173,232 @@ public class JsonFileStatistics {
      *
      * @param folderPath the path to the folder containing JSON files
      * @return a list of File objects representing the JSON files within the folder
-     * @throws InvalidFolderException if the specified folder is empty or does not contain any JSON files
+     * @throws InvalidFolderException if the specified folder is empty or cannot be listed
      */
     private List<File> getJsonFiles(Path folderPath) {
-        File folder = new File(String.valueOf(folderPath));
-        File[] files = folder.listFiles();
+        return discoverJsonFiles(folderPath, file -> {
+        });
+    }
+
+    /**
+     * Walks the folder and hands every JSON file to the consumer as soon as it is found,
+     * so files can be submitted for parsing while the folder is still being listed.
+     * The listing time recorded to the metrics leaves out the time spent in the consumer,
+     * which may block on a full parse queue.
+     *
+     * @param folderPath the path to the folder containing JSON files
+     * @param consumer   the consumer of the JSON files, called on the calling thread
+     * @return a list of File objects representing the JSON files within the folder
+     * @throws InvalidFolderException if the specified folder is empty or cannot be listed
+     */
+    private List<File> discoverJsonFiles(Path folderPath, Consumer<File> consumer) {
+        long[] consumerNanos = new long[1];
+        long listingStart = System.nanoTime();
+        List<File> jsonFiles = discovery.discover(folderPath, file -> {
+            long consumerStart = System.nanoTime();
+            consumer.accept(file);
+            consumerNanos[0] += System.nanoTime() - consumerStart;
+        });
+        metrics.recordListing(jsonFiles.size(), System.nanoTime() - listingStart - consumerNanos[0]);
+        return jsonFiles;
+    }
+
+    /**
+     * Starts a run of parsing tasks handling failures according to the configured error policy.
+     *
+     * @return the new run
+     */
+    private ParsingRun newRun() {
+        return newRun(errorPolicy);
+    }
 
-        if (files.length == 0) {
-            throw new InvalidFolderException("Folder " + folder + " does not contain any files");
+    /**
+     * Starts a run of parsing tasks handling failures according to the given error policy.
+     *
+     * @param policy the way failing files are handled
+     * @return the new run
+     */
+    private ParsingRun newRun(ErrorPolicy policy) {
+        return new ParsingRun(executor, mergeExecutor, policy, parseQueueCapacity, metrics);
+    }
+
+    /**
+     * Waits for all tasks of the run to complete and keeps the files it skipped.
+     *
+     * @param run the run to wait for
+     * @return the files skipped because they failed to parse
+     * @throws TaskExecutionException if any task failed and the policy is fail-fast
+     */
+    private List<SkippedFile> awaitRun(ParsingRun run) {
+        List<SkippedFile> skipped = run.await();
+        skippedFiles = skipped;
+        return skipped;
+    }
+
+    private static Set<File> skippedPaths(List<SkippedFile> skippedFiles) {
+        Set<File> files = new HashSet<>();
+        for (SkippedFile skipped : skippedFiles) {
+            files.add(skipped.file().toFile());
         }
+        return files;
+    }
 
-        List<File> jsonFiles = new ArrayList<>();
-        for (File file : files) {
-            if (file.getName().endsWith(".json")) {
-                jsonFiles.add(file);
-            }
+    /**
+     * Determines the number of threads the executor runs tasks on.
+     *
+     * @param executor the executor
+     * @return the pool size of thread pools, the parallelism of fork/join pools,
+     * or the number of available processors for other executors
+     */
+    private static int parallelismOf(ExecutorService executor) {
+        if (executor instanceof ThreadPoolExecutor threadPool) {
+            return threadPool.getMaximumPoolSize();
         }
-        return jsonFiles;
+        if (executor instanceof ForkJoinPool forkJoinPool) {
+            return forkJoinPool.getParallelism();
+        }
+        return Runtime.getRuntime().availableProcessors();
     }
 
     /**
-     * Waits for all submitted tasks to complete execution.
+     * Creates the executor parsed results are merged on. Its queue is bounded, and once it is full
+     * the parsing thread handing over a result merges it itself, so parsing slows down to the pace of merging
+     * instead of piling up results in memory. Results handed over after the executor is shut down are merged
+     * by the parsing thread as well, rather than discarded, so a run outliving {@link #close()} still completes.
      *
-     * @param futures a list of Future objects representing submitted tasks
-     * @throws TaskExecutionException if any task execution encounters an exception
+     * @param parallelism   the number of merging threads
+     * @param queueCapacity the maximal number of results waiting to be merged
+     * @return the merging executor
+     * @throws IllegalArgumentException if the parallelism or the queue capacity is not positive
      */
-    private void waitForCompletion(List<Future<?>> futures) {
-        for (Future<?> future : futures) {
-            try {
-                future.get();
-            } catch (Exception e) {
-                throw new TaskExecutionException("Failed to collect statistics", e);
-            }
+    static ExecutorService createMergeExecutor(int parallelism, int queueCapacity) {
+        return new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), ExecutionStrategy.daemonThreadFactory("stats-merge-"),
+                (merge, pool) -> merge.run());
+    }
+
+    /**
+     * Creates the executor compressed files are decompressed on. Every compressed file being parsed
+     * needs a decompressing thread of its own, so the pool grows with the number of parsing threads,
+     * and idle threads are released after a minute.
+     *
+     * @return the decompression executor
+     */
+    private static ExecutorService createDecompressionExecutor() {
+        return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60L, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), ExecutionStrategy.daemonThreadFactory("stats-decompress-"));
+    }
+
+    /**
+     * Shuts down the executors used for parsing, merging and decompressing.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        mergeExecutor.shutdown();
+        decompressionExecutor.shutdownNow();
+    }
+
+    /**
+     * A file parsed for the cache, with its size and modification time captured before parsing.
+     *
+     * @param file         the JSON file
+     * @param size         the size of the file
+     * @param lastModified the modification time of the file
+     * @param counters     the counters of the file per attribute
+     */
+    private record ParsedFile(File file, long size, long lastModified, Map<String, ValueCounter> counters) {
+    }
+
+    /**
+     * Idle task states that are handed from one task to the next. A state is only created when every existing one
+     * is borrowed, so the pool holds no more states than tasks ran at the same time.
+     *
+     * @param <T> the type of the task state
+     */
+    private static final class StatePool<T> {
+
+        private final Deque<T> idle = new ConcurrentLinkedDeque<>();
+        private final Supplier<T> factory;
+
+        /**
+         * Creates an empty pool.
+         *
+         * @param factory the factory of new states
+         */
+        StatePool(Supplier<T> factory) {
+            this.factory = factory;
+        }
+
+        /**
+         * Takes an idle state out of the pool, or creates one if none is idle.
+         *
+         * @return the state, owned by the caller until it is released
+         */
+        T borrow() {
+            T state = idle.pollFirst();
+            return state == null ? factory.get() : state;
+        }
+
+        /**
+         * Hands a borrowed state back to the pool. The most recently released state is borrowed first,
+         * so its memory is likely still cached.
+         *
+         * @param state the state
+         */
+        void release(T state) {
+            idle.offerFirst(state);
+        }
+
+        /**
+         * Returns the idle states, which are all states once every task is complete.
+         *
+         * @return the idle states
+         */
+        List<T> states() {
+            return List.copyOf(idle);
+        }
+    }
+
+    /**
+     * The parsed states of the chunks of a single file, held back until the file is split completely
+     * and every chunk of the file is parsed.
+     *
+     * @param <T> the type of the task state
+     */
+    private static final class PendingChunks<T> {
+
+        private final List<T> states = new ArrayList<>();
+        private int remaining;
+        private boolean sealed;
+
+        /**
+         * Registers a chunk that is about to be parsed.
+         */
+        synchronized void add() {
+            remaining++;
+        }
+
+        /**
+         * Adds the state of a parsed chunk.
+         *
+         * @param state the state of the chunk
+         * @return the states of all chunks once the file is split and the last chunk is parsed,
+         * or null while chunks are outstanding
+         */
+        synchronized List<T> complete(T state) {
+            states.add(state);
+            return --remaining == 0 && sealed ? states : null;
+        }
+
+        /**
+         * Marks the file as split completely, so no further chunks are registered.
+         *
+         * @return the states of all chunks if every chunk is parsed already, or null while chunks are outstanding
+         */
+        synchronized List<T> seal() {
+            sealed = true;
+            return remaining == 0 ? states : null;
         }
     }
 }
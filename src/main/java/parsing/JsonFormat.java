@@ -0,0 +1,41 @@
+package parsing;
+
+/**
+ * Layouts of JSON files, recognized by the file name extension before an optional compression extension.
+ */
+enum JsonFormat {
+
+    /**
+     * Regular JSON files, holding an array of records or a single record.
+     */
+    ARRAY(".json"),
+
+    /**
+     * Newline-delimited JSON (JSON Lines) files, holding one record per line.
+     */
+    LINES(".jsonl", ".ndjson");
+
+    private final String[] extensions;
+
+    JsonFormat(String... extensions) {
+        this.extensions = extensions;
+    }
+
+    /**
+     * Determines the layout of a JSON file from its name.
+     *
+     * @param fileName the name of the file, e.g. "games.json", "games.jsonl" or "games.ndjson.gz"
+     * @return the layout of the file, or null if the file is not a (compressed) JSON file
+     */
+    static JsonFormat forFileName(String fileName) {
+        String baseName = Compression.stripExtension(fileName);
+        for (JsonFormat format : values()) {
+            for (String extension : format.extensions) {
+                if (baseName.endsWith(extension)) {
+                    return format;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,128 @@
+package parsing;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Opens chunks of JSON files for reading according to the configured input mode.
+ * Compressed files are decompressed transparently, on a separate thread if a decompression executor is given.
+ */
+class JsonInputOpener {
+
+    private final InputMode inputMode;
+    private final long mappingThreshold;
+    private final ExecutorService decompressionExecutor;
+
+    /**
+     * Creates an opener using the input mode and mapping threshold of the given configuration.
+     * Compressed files are decompressed on the thread reading them.
+     *
+     * @param config the parsing configuration
+     */
+    JsonInputOpener(ParsingConfig config) {
+        this(config, null);
+    }
+
+    /**
+     * Creates an opener using the input mode and mapping threshold of the given configuration,
+     * decompressing compressed files on the given executor.
+     *
+     * @param config                the parsing configuration
+     * @param decompressionExecutor the executor compressed files are decompressed on,
+     *                              or null to decompress them on the thread reading them
+     */
+    JsonInputOpener(ParsingConfig config, ExecutorService decompressionExecutor) {
+        this.inputMode = config.getInputMode();
+        this.mappingThreshold = config.getMappingThreshold();
+        this.decompressionExecutor = decompressionExecutor;
+    }
+
+    /**
+     * Opens a stream over the bytes of the given chunk. Chunks that are ranges of a top-level array
+     * are exposed as a standalone JSON array, ranges of lines as they are, and compressed files,
+     * which are always read whole, are exposed decompressed.
+     *
+     * @param chunk the chunk to open
+     * @return the input stream over the chunk
+     * @throws IOException if there is an error opening the JSON file
+     */
+    InputStream open(FileChunk chunk) throws IOException {
+        long length = chunk.isWholeFile() ? chunk.file().length() : chunk.length();
+        InputStream in = shouldMap(length) ? map(chunk.file().toPath(), chunk.start(), length) : openFile(chunk);
+        Compression compression = Compression.forFileName(chunk.file().getName());
+        if (compression != null && compression != Compression.NONE) {
+            return decompress(in, compression);
+        }
+        return chunk.isWholeFile() ? in : new ChunkInputStream(in, length, !chunk.lines());
+    }
+
+    /**
+     * Wraps the stream of a compressed file into a stream of its decompressed content.
+     *
+     * @param in          the stream of the compressed file
+     * @param compression the compression of the file
+     * @return the stream of the decompressed content
+     * @throws IOException if the compressed stream header cannot be read
+     */
+    private InputStream decompress(InputStream in, Compression compression) throws IOException {
+        if (decompressionExecutor != null) {
+            return new DecompressingInputStream(in, compression, decompressionExecutor);
+        }
+        try {
+            return compression.decompress(in);
+        } catch (IOException | RuntimeException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether a region of the given size should be memory-mapped.
+     * A single mapping is limited to 2 GB, so larger regions are always streamed.
+     *
+     * @param length the number of bytes in the region
+     * @return true if the region should be memory-mapped
+     */
+    private boolean shouldMap(long length) {
+        return inputMode == InputMode.MAPPED && length >= mappingThreshold && length <= Integer.MAX_VALUE;
+    }
+
+    /**
+     * Memory-maps a region of a file. The mapping stays valid after the channel is closed
+     * and is released once the buffer becomes unreachable.
+     *
+     * @param path   the path of the file
+     * @param start  the offset of the first byte of the region
+     * @param length the number of bytes in the region
+     * @return an input stream reading the mapped bytes
+     * @throws IOException if there is an error mapping the file
+     */
+    private InputStream map(Path path, long start, long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new ByteBufferInputStream(channel.map(FileChannel.MapMode.READ_ONLY, start, length));
+        }
+    }
+
+    /**
+     * Opens a file input stream positioned at the start of the chunk.
+     *
+     * @param chunk the chunk to open
+     * @return the file input stream
+     * @throws IOException if there is an error opening or positioning the file
+     */
+    private InputStream openFile(FileChunk chunk) throws IOException {
+        FileInputStream in = new FileInputStream(chunk.file());
+        try {
+            in.getChannel().position(chunk.start());
+            return in;
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package parsing;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a JSON Lines file into chunks of whole lines. Every line holds a complete record, so a chunk boundary
+ * only has to be moved to the next line break: the file is not scanned, just a few bytes are read around every
+ * boundary, which makes splitting cost next to nothing regardless of the file size.
+ */
+class JsonLinesSplitter {
+
+    private static final int BUFFER_SIZE = 4 * 1024;
+
+    private final long chunkSize;
+
+    /**
+     * Creates a splitter producing chunks of at least the given size.
+     *
+     * @param chunkSize the minimal number of bytes in a chunk
+     */
+    JsonLinesSplitter(long chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Splits the file into chunks. Each chunk starts at the beginning of a line and ends right after the first
+     * line break that follows at least {@code chunkSize} bytes. Files that are not larger than the chunk size
+     * or are compressed are returned as a single whole-file chunk.
+     *
+     * @param file the JSON Lines file to split
+     * @return a list of chunks covering all lines of the file
+     * @throws IOException if there is an error reading the file
+     */
+    List<FileChunk> split(File file) throws IOException {
+        if (file.length() <= chunkSize || Compression.forFileName(file.getName()) != Compression.NONE) {
+            return List.of(FileChunk.wholeFile(file));
+        }
+
+        List<FileChunk> chunks = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            long chunkStart = 0;
+            while (chunkStart < size) {
+                long chunkEnd = chunkStart + chunkSize >= size ? size : lineEnd(channel, buffer, chunkStart + chunkSize);
+                chunks.add(new FileChunk(file, chunkStart, chunkEnd - chunkStart, true));
+                chunkStart = chunkEnd;
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Finds the end of the line the given position is in.
+     *
+     * @param channel  the channel of the file
+     * @param buffer   the buffer to read into
+     * @param position the position to search from
+     * @return the position right after the next line break, or the file size if there is none
+     * @throws IOException if there is an error reading the file
+     */
+    private static long lineEnd(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                return channel.size();
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package parsing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Single-threaded aggregator of a numeric attribute, optionally grouped by another attribute.
+ * Values are collected into primitive histograms; group values are mapped to dense ids,
+ * and the numeric values of a record are added to the histograms of its groups once the record ends,
+ * so the fields may appear in any order. Values that are not integers, such as 2017.5 or "unknown",
+ * are counted as skipped instead of being truncated. Aggregators of different parsing tasks are merged
+ * with {@link #merge(NumericAggregator)}.
+ */
+class NumericAggregator {
+
+    private final IntHistogram overall = new IntHistogram();
+    private final ValueDictionary groupIds = new ValueDictionary();
+    private final List<IntHistogram> groups = new ArrayList<>();
+
+    private int[] recordValues = new int[4];
+    private int recordValueCount;
+    private int[] recordGroups = new int[4];
+    private int recordGroupCount;
+    private long skipped;
+
+    private final NumericSink valueSink = new NumericSink() {
+        @Override
+        public void add(int value) {
+            addValue(value);
+        }
+
+        @Override
+        public void add(char[] chars, int offset, int length) {
+            parseInt(chars, offset, length);
+        }
+
+        @Override
+        public void skip() {
+            skipped++;
+        }
+
+        @Override
+        public void endRecord() {
+            completeRecord();
+        }
+    };
+
+    private final ValueSink groupSink = (chars, offset, length) -> addGroup(groupIds.idOf(chars, offset, length));
+
+    /**
+     * Returns the sinks the parser feeds.
+     *
+     * @param grouped true if the statistics are grouped by another attribute
+     * @return the sink of the numeric attribute, followed by the sink of the grouping attribute if grouped
+     */
+    ValueSink[] sinks(boolean grouped) {
+        return grouped ? new ValueSink[]{valueSink, groupSink} : new ValueSink[]{valueSink};
+    }
+
+    /**
+     * Merges the histograms of another aggregator into this one.
+     *
+     * @param other the aggregator to merge
+     */
+    void merge(NumericAggregator other) {
+        overall.merge(other.overall);
+        skipped += other.skipped;
+        for (int id = 0; id < other.groups.size(); id++) {
+            groupHistogram(groupIds.idOf(other.groupIds.value(id))).merge(other.groups.get(id));
+        }
+    }
+
+    /**
+     * Summarizes the collected values.
+     *
+     * @param bucketWidth the width of the histogram buckets
+     * @return the statistics of all values and of every group, and the number of skipped values
+     */
+    NumericStatistics statistics(int bucketWidth) {
+        Map<String, NumericSummary> summaries = new LinkedHashMap<>();
+        for (int id = 0; id < groups.size(); id++) {
+            NumericSummary summary = groups.get(id).summary(bucketWidth);
+            if (summary != null) {
+                summaries.put(groupIds.value(id), summary);
+            }
+        }
+        return new NumericStatistics(overall.summary(bucketWidth), summaries, skipped);
+    }
+
+    private void addValue(int value) {
+        overall.add(value);
+        if (recordValueCount == recordValues.length) {
+            recordValues = Arrays.copyOf(recordValues, recordValueCount * 2);
+        }
+        recordValues[recordValueCount++] = value;
+    }
+
+    private void addGroup(int id) {
+        if (recordGroupCount == recordGroups.length) {
+            recordGroups = Arrays.copyOf(recordGroups, recordGroupCount * 2);
+        }
+        recordGroups[recordGroupCount++] = id;
+    }
+
+    /**
+     * Adds the numeric values of the completed record to the histograms of its groups.
+     */
+    private void completeRecord() {
+        for (int i = 0; i < recordGroupCount; i++) {
+            IntHistogram histogram = groupHistogram(recordGroups[i]);
+            for (int j = 0; j < recordValueCount; j++) {
+                histogram.add(recordValues[j]);
+            }
+        }
+        recordValueCount = 0;
+        recordGroupCount = 0;
+    }
+
+    private IntHistogram groupHistogram(int id) {
+        while (groups.size() <= id) {
+            groups.add(new IntHistogram());
+        }
+        return groups.get(id);
+    }
+
+    /**
+     * Parses a number written as a string, e.g. "2017", without allocating. Values that are not integers are skipped.
+     *
+     * @param chars  the buffer holding the value
+     * @param offset the offset of the first character of the value
+     * @param length the number of characters in the value
+     */
+    private void parseInt(char[] chars, int offset, int length) {
+        int start = offset;
+        boolean negative = length > 1 && chars[offset] == '-';
+        if (negative) {
+            start++;
+        }
+        long value = 0;
+        for (int i = start; i < offset + length; i++) {
+            int digit = chars[i] - '0';
+            if (digit < 0 || digit > 9 || value > Integer.MAX_VALUE) {
+                skipped++;
+                return;
+            }
+            value = value * 10 + digit;
+        }
+        value = negative ? -value : value;
+        if (start < offset + length && value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            addValue((int) value);
+        } else {
+            skipped++;
+        }
+    }
+}
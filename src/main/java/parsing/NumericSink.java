@@ -0,0 +1,20 @@
+package parsing;
+
+/**
+ * Sink of numeric attribute values. JSON numbers are passed as primitives straight from the parser,
+ * while numbers written as strings still arrive as character ranges.
+ */
+interface NumericSink extends ValueSink {
+
+    /**
+     * Adds a numeric value.
+     *
+     * @param value the value to add
+     */
+    void add(int value);
+
+    /**
+     * Counts a numeric value that is not an integer or does not fit an int, and is left out of the statistics.
+     */
+    void skip();
+}
@@ -0,0 +1,13 @@
+package parsing;
+
+import java.util.Map;
+
+/**
+ * Statistics of a numeric attribute over all records, optionally grouped by the values of another attribute.
+ *
+ * @param overall the summary of all values, or null if no record had a numeric value
+ * @param groups  the summaries per value of the grouping attribute, empty if the statistics are not grouped
+ * @param skipped the number of values left out because they are not integers or do not fit an int
+ */
+public record NumericStatistics(NumericSummary overall, Map<String, NumericSummary> groups, long skipped) {
+}
@@ -0,0 +1,20 @@
+package parsing;
+
+import java.util.Map;
+
+/**
+ * Summary of the values of a numeric attribute.
+ *
+ * @param count       the number of values
+ * @param min         the lowest value
+ * @param max         the highest value
+ * @param mean        the arithmetic mean of the values
+ * @param median      the 50th percentile
+ * @param p90         the 90th percentile
+ * @param p99         the 99th percentile
+ * @param bucketWidth the width of the histogram buckets
+ * @param buckets     the histogram, mapping the lowest value of every non-empty bucket to its count, ordered by value
+ */
+public record NumericSummary(long count, int min, int max, double mean, int median, int p90, int p99,
+                             int bucketWidth, Map<Integer, Long> buckets) {
+}
@@ -0,0 +1,123 @@
+package parsing;
+
+import java.util.Arrays;
+
+/**
+ * Single-threaded counter of id pairs, e.g. a genre id together with a year id.
+ * Both ids are packed into one long key of an open-addressing table with primitive long counts,
+ * so counting a pair allocates nothing and takes a single probe in the common case.
+ */
+class PairCounter {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long EMPTY = -1;
+
+    private long[] keys = newKeys(INITIAL_CAPACITY);
+    private long[] counts = new long[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Consumer of the counted pairs.
+     */
+    @FunctionalInterface
+    interface PairConsumer {
+
+        /**
+         * Accepts a counted pair.
+         *
+         * @param first  the first id
+         * @param second the second id
+         * @param count  the number of occurrences of the pair
+         */
+        void accept(int first, int second, long count);
+    }
+
+    /**
+     * Adds occurrences of the pair.
+     *
+     * @param first       the first id, not negative
+     * @param second      the second id, not negative
+     * @param occurrences the number of occurrences to add
+     */
+    void add(int first, int second, long occurrences) {
+        long key = ((long) first << Integer.SIZE) | second;
+        int mask = keys.length - 1;
+        int slot = slot(key, mask);
+
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                counts[slot] += occurrences;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        keys[slot] = key;
+        counts[slot] = occurrences;
+        if (++size * 4 > keys.length * 3) {
+            resize();
+        }
+    }
+
+    /**
+     * Passes every counted pair to the consumer, in no particular order.
+     *
+     * @param consumer the consumer of the pairs
+     */
+    void forEach(PairConsumer consumer) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                consumer.accept((int) (keys[slot] >>> Integer.SIZE), (int) keys[slot], counts[slot]);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of distinct pairs.
+     *
+     * @return the number of pairs
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Spreads the bits of a key over the slot range.
+     *
+     * @param key  the packed pair
+     * @param mask the mask of the slot range
+     * @return the first slot to probe for the key
+     */
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static long[] newKeys(int capacity) {
+        long[] keys = new long[capacity];
+        Arrays.fill(keys, EMPTY);
+        return keys;
+    }
+
+    /**
+     * Doubles the capacity of the table and rehashes all keys.
+     */
+    private void resize() {
+        long[] oldKeys = keys;
+        long[] oldCounts = counts;
+        keys = newKeys(oldKeys.length * 2);
+        counts = new long[oldKeys.length * 2];
+        int mask = keys.length - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                int slot = slot(oldKeys[i], mask);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                counts[slot] = oldCounts[i];
+            }
+        }
+    }
+}
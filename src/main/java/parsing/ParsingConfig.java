@@ -0,0 +1,118 @@
+package parsing;
+
+import com.fasterxml.jackson.core.util.BufferRecycler;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.core.util.RecyclerPool;
+import lombok.Builder;
+import lombok.Getter;
+import metrics.PipelineMetrics;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Tuning parameters for parsing JSON files.
+ */
+@Getter
+@Builder
+public class ParsingConfig {
+
+    /**
+     * Files larger than this number of bytes are split into chunks
+     * of roughly this size that are parsed concurrently.
+     */
+    @Builder.Default
+    private final long chunkSize = 64L * 1024 * 1024;
+
+    /**
+     * The way JSON files are read from disk.
+     */
+    @Builder.Default
+    private final InputMode inputMode = InputMode.STREAM;
+
+    /**
+     * Files (or chunks of files) of at least this number of bytes are memory-mapped
+     * when the {@link InputMode#MAPPED} input mode is used. Smaller ones are streamed,
+     * since mapping them costs more than reading them.
+     */
+    @Builder.Default
+    private final long mappingThreshold = 1024L * 1024;
+
+    /**
+     * The pool the parser buffers are recycled through. Thread-local pooling is the cheapest option
+     * for platform threads, but virtual threads need a shared pool since they are never reused.
+     */
+    @Builder.Default
+    private final RecyclerPool<BufferRecycler> recyclerPool = JsonRecyclerPools.threadLocalPool();
+
+    /**
+     * The file the per-file statistics are persisted to between runs,
+     * or null if every run parses all files from scratch.
+     */
+    private final Path cacheFile;
+
+    /**
+     * The glob the paths of JSON files relative to the folder have to match.
+     * By default JSON and JSON Lines files are included, plain as well as gzip and zstd compressed.
+     */
+    @Builder.Default
+    private final String includeGlob = "**.{json,jsonl,ndjson}{,.gz,.zst}";
+
+    /**
+     * The glob of files and subfolders relative to the folder that are skipped, or null to skip nothing.
+     */
+    private final String excludeGlob;
+
+    /**
+     * The maximal depth of JSON files below the folder, 1 for the files directly within it.
+     */
+    @Builder.Default
+    private final int maxDepth = 1;
+
+    /**
+     * The maximal number of parsing tasks queued or running at a time. Files are discovered only as fast
+     * as tasks complete once the limit is reached, so memory stays flat regardless of the number of files.
+     */
+    @Builder.Default
+    private final int parseQueueCapacity = 4 * Runtime.getRuntime().availableProcessors();
+
+    /**
+     * The number of threads merging the results of parsing tasks into the shared statistics.
+     */
+    @Builder.Default
+    private final int mergeParallelism = 1;
+
+    /**
+     * The maximal number of parsed results waiting to be merged. Once the queue is full,
+     * parsing threads merge their results themselves, which slows parsing down to the pace of merging.
+     */
+    @Builder.Default
+    private final int mergeQueueCapacity = 64;
+
+    /**
+     * The way JSON files that fail to parse are handled.
+     */
+    @Builder.Default
+    private final ErrorPolicy errorPolicy = ErrorPolicy.FAIL_FAST;
+
+    /**
+     * The time parsing a file, or a chunk of a large file, may take before it is aborted,
+     * or null to let parsing take as long as it needs.
+     */
+    private final Duration fileTimeout;
+
+    /**
+     * The metrics the parsing stages are recorded to.
+     */
+    @Builder.Default
+    private final PipelineMetrics metrics = new PipelineMetrics();
+
+    /**
+     * Creates the configuration with default values.
+     *
+     * @return the default configuration
+     */
+    public static ParsingConfig defaults() {
+        return builder().build();
+    }
+}
@@ -0,0 +1,254 @@
+package parsing;
+
+import exceptions.TaskExecutionException;
+import metrics.PipelineMetrics;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The parsing tasks of a single statistics collection, run as a pipeline of three stages:
+ * the thread creating the run discovers files and submits parsing tasks, the parsing executor parses them,
+ * and the merging executor merges each parsed result into the shared statistics as soon as it is handed over.
+ * <p>
+ * The stages are connected by bounded queues. At most {@code maxPendingTasks} parsing tasks are queued or running,
+ * and submitting another one first waits for the oldest to complete, so discovery never runs ahead of parsing
+ * and memory stays flat no matter how many files there are. The merging executor has a bounded queue as well,
+ * and is expected to let the parsing thread merge its result itself once the queue is full.
+ * <p>
+ * Tasks are submitted through completion services, so failures are seen in the order tasks finish
+ * rather than the order they were submitted, and are handled according to the {@link ErrorPolicy}:
+ * with fail-fast the first failure cancels every task still queued or running, with skip the failing
+ * files are recorded and the collection goes on. Completed tasks are already checked while further
+ * tasks are submitted, so a failure stops the run even before the folder is fully listed.
+ * <p>
+ * Tasks are submitted and awaited from the thread that created the run, results are handed over
+ * to the merging stage from the parsing threads. The run records the start of every parsing task,
+ * and tasks cancelled before they started are taken off the queue depth of the metrics.
+ */
+final class ParsingRun {
+
+    private final CompletionService<File> completionService;
+    private final CompletionService<File> mergeCompletionService;
+    private final ErrorPolicy errorPolicy;
+    private final int maxPendingTasks;
+    private final PipelineMetrics metrics;
+    private final Map<Future<File>, PendingTask> pending = new HashMap<>();
+    private final AtomicInteger submittedMerges = new AtomicInteger();
+    private int completedMerges;
+    private final Map<File, String> skippedFiles = new LinkedHashMap<>();
+    private final long stageStart = System.nanoTime();
+
+    /**
+     * Creates a run of tasks on the given executors.
+     *
+     * @param executor        the executor the parsing tasks run on
+     * @param mergeExecutor   the executor the parsed results are merged on
+     * @param errorPolicy     the way failing files are handled
+     * @param maxPendingTasks the maximal number of parsing tasks queued or running at a time
+     * @param metrics         the metrics the parsing stage is recorded to
+     * @throws IllegalArgumentException if the maximal number of pending tasks is not positive
+     */
+    ParsingRun(ExecutorService executor, ExecutorService mergeExecutor, ErrorPolicy errorPolicy,
+               int maxPendingTasks, PipelineMetrics metrics) {
+        if (maxPendingTasks < 1) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        this.completionService = new ExecutorCompletionService<>(executor);
+        this.mergeCompletionService = new ExecutorCompletionService<>(mergeExecutor);
+        this.errorPolicy = errorPolicy;
+        this.maxPendingTasks = maxPendingTasks;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Returns the way failing files are handled by this run.
+     *
+     * @return the error policy
+     */
+    ErrorPolicy errorPolicy() {
+        return errorPolicy;
+    }
+
+    /**
+     * Submits a task parsing the given file, or a chunk of it. If the maximal number of tasks is pending,
+     * the call blocks until one of them completes.
+     *
+     * @param file the file the task parses
+     * @param task the task
+     * @throws TaskExecutionException if an earlier task failed and the policy is fail-fast,
+     *                                or the calling thread was interrupted while waiting
+     */
+    void submit(File file, Runnable task) {
+        try {
+            while (pending.size() >= maxPendingTasks) {
+                complete(completionService.take());
+            }
+        } catch (InterruptedException e) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new TaskExecutionException("Interrupted while collecting statistics", e);
+        }
+        metrics.taskSubmitted();
+        AtomicBoolean started = new AtomicBoolean();
+        Runnable trackedTask = () -> {
+            if (started.compareAndSet(false, true)) {
+                metrics.taskStarted();
+                task.run();
+            }
+        };
+        pending.put(completionService.submit(trackedTask, file), new PendingTask(file, started));
+        Future<File> done;
+        while ((done = completionService.poll()) != null) {
+            complete(done);
+        }
+        while ((done = mergeCompletionService.poll()) != null) {
+            completeMerge(done);
+        }
+    }
+
+    /**
+     * Hands the result of a parsing task over to the merging stage. Called from the parsing threads,
+     * or from the submitting thread if every task of a file completed before the file was split completely.
+     *
+     * @param file  the file the result was parsed from
+     * @param merge the task merging the result into the shared statistics
+     */
+    void merge(File file, Runnable merge) {
+        submittedMerges.incrementAndGet();
+        mergeCompletionService.submit(merge, file);
+    }
+
+    /**
+     * Handles a file that failed before any of its tasks was submitted, e.g. because it could not be read.
+     *
+     * @param file  the failing file
+     * @param error the error the file failed with
+     * @throws RuntimeException the given error if the policy is fail-fast, after cancelling all tasks
+     */
+    void fail(File file, RuntimeException error) {
+        if (errorPolicy == ErrorPolicy.FAIL_FAST) {
+            cancelAll();
+            throw error;
+        }
+        skip(file, error);
+    }
+
+    /**
+     * Waits for all submitted tasks to complete and records the duration of the parsing stage.
+     *
+     * @return the files skipped because they failed to parse, empty unless the policy is skip
+     * @throws TaskExecutionException if a task failed and the policy is fail-fast,
+     *                                or the calling thread was interrupted while waiting
+     */
+    List<SkippedFile> await() {
+        try {
+            while (!pending.isEmpty()) {
+                complete(completionService.take());
+            }
+            while (completedMerges < submittedMerges.get()) {
+                completeMerge(mergeCompletionService.take());
+            }
+        } catch (InterruptedException e) {
+            cancelAll();
+            Thread.currentThread().interrupt();
+            throw new TaskExecutionException("Interrupted while collecting statistics", e);
+        } finally {
+            metrics.recordParsingStage(System.nanoTime() - stageStart);
+        }
+
+        List<SkippedFile> skipped = new ArrayList<>();
+        skippedFiles.forEach((file, reason) -> skipped.add(new SkippedFile(file.toPath(), reason)));
+        return skipped;
+    }
+
+    /**
+     * Checks the outcome of a completed task.
+     *
+     * @param future the future of the completed task
+     * @throws TaskExecutionException if the task failed and the policy is fail-fast
+     */
+    private void complete(Future<File> future) {
+        File file = pending.remove(future).file();
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            if (errorPolicy == ErrorPolicy.FAIL_FAST) {
+                cancelAll();
+                throw new TaskExecutionException("Failed to collect statistics", e);
+            }
+            skip(file, e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelAll();
+            throw new TaskExecutionException("Interrupted while collecting statistics", e);
+        }
+    }
+
+    /**
+     * Checks the outcome of a completed merge. A failed merge leaves the shared statistics incomplete,
+     * so it aborts the run regardless of the error policy.
+     *
+     * @param future the future of the completed merge
+     * @throws TaskExecutionException if the merge failed
+     */
+    private void completeMerge(Future<File> future) {
+        completedMerges++;
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            cancelAll();
+            throw new TaskExecutionException("Failed to collect statistics", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelAll();
+            throw new TaskExecutionException("Interrupted while collecting statistics", e);
+        }
+    }
+
+    private void skip(File file, Throwable error) {
+        if (!skippedFiles.containsKey(file)) {
+            Throwable cause = error.getCause();
+            skippedFiles.put(file, cause == null ? error.getMessage() : error.getMessage() + ": " + cause.getMessage());
+            metrics.recordSkippedFile();
+        }
+    }
+
+    /**
+     * Cancels all tasks that are still queued or running. Running tasks are interrupted
+     * and stop at the next record they would parse, queued tasks are taken off the queue depth.
+     */
+    private void cancelAll() {
+        long cancelled = 0;
+        for (Map.Entry<Future<File>, PendingTask> entry : pending.entrySet()) {
+            if (entry.getKey().cancel(true)) {
+                cancelled++;
+            }
+            if (entry.getValue().started().compareAndSet(false, true)) {
+                metrics.taskDropped();
+            }
+        }
+        pending.clear();
+        metrics.recordCancelledTasks(cancelled);
+    }
+
+    /**
+     * A parsing task that is queued or running.
+     *
+     * @param file    the file the task parses
+     * @param started the flag set once the task starts, or once it is dropped before starting
+     */
+    private record PendingTask(File file, AtomicBoolean started) {
+    }
+}
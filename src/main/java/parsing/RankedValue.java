@@ -0,0 +1,20 @@
+package parsing;
+
+/**
+ * Attribute value estimated to be among the most frequent ones.
+ *
+ * @param value the attribute value
+ * @param count the estimated occurrence count, never lower than the real one
+ * @param error the maximum overestimation of the count
+ */
+public record RankedValue(String value, long count, long error) {
+
+    /**
+     * Returns the number of occurrences the value is guaranteed to have.
+     *
+     * @return the estimated count minus its maximum error
+     */
+    public long guaranteedCount() {
+        return count - error;
+    }
+}
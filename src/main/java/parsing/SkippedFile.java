@@ -0,0 +1,12 @@
+package parsing;
+
+import java.nio.file.Path;
+
+/**
+ * JSON file left out of the statistics because it could not be parsed.
+ *
+ * @param file   the path to the file
+ * @param reason the message of the error the parsing failed with
+ */
+public record SkippedFile(Path file, String reason) {
+}
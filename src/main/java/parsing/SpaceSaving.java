@@ -0,0 +1,324 @@
+package parsing;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Space-Saving sketch of the most frequent attribute values.
+ * It monitors at most a fixed number of values, no matter how many distinct values are added.
+ * When a new value arrives and the sketch is full, it replaces the value with the lowest count
+ * and inherits that count as its error, so counts are never underestimated and every value
+ * occurring more often than {@code total / capacity} times is guaranteed to be monitored.
+ * <p>
+ * Monitored values are kept in a min-heap by count next to an open-addressing index
+ * looked up by character ranges, so adding a value takes logarithmic time without boxing.
+ * The arrays start small and grow up to the capacity as values arrive, so sketches of small inputs stay cheap.
+ * Sketches of different parsing threads are merged with {@link #merge(SpaceSaving)}.
+ */
+class SpaceSaving implements ValueSink {
+
+    private static final int INITIAL_LENGTH = 16;
+
+    private final int capacity;
+    private String[] keys;
+    private int[] hashes;
+    private long[] counts;
+    private long[] errors;
+    private int[] heap;
+    private int[] heapPositions;
+    private int[] table;
+    private int size;
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param capacity the maximum number of monitored values
+     * @throws IllegalArgumentException if the capacity is not positive
+     */
+    SpaceSaving(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.capacity = capacity;
+        allocate(Math.min(capacity, INITIAL_LENGTH));
+    }
+
+    /**
+     * Adds a single occurrence of the given value.
+     *
+     * @param value the value to add
+     */
+    void add(String value) {
+        char[] chars = value.toCharArray();
+        add(chars, 0, chars.length);
+    }
+
+    @Override
+    public void add(char[] chars, int offset, int length) {
+        int hash = ValueDictionary.hash(chars, offset, length);
+        int entry = find(hash, chars, offset, length);
+        if (entry >= 0) {
+            counts[entry]++;
+            siftDown(heapPositions[entry]);
+        } else {
+            offer(new String(chars, offset, length), hash, 1, 0);
+        }
+    }
+
+    /**
+     * Merges another sketch into this one. Values missing from one of the sketches are assumed
+     * to occur as often as its lowest monitored count, which keeps the merged counts upper bounds.
+     * Only the values with the highest merged counts are kept, preferring the ones with lower errors on ties.
+     *
+     * @param other the sketch to merge
+     */
+    void merge(SpaceSaving other) {
+        long ownMinimum = minimumCount();
+        long otherMinimum = other.minimumCount();
+        Map<String, long[]> merged = new HashMap<>();
+
+        for (int entry = 0; entry < size; entry++) {
+            merged.put(keys[entry], new long[]{counts[entry] + otherMinimum, errors[entry] + otherMinimum});
+        }
+        for (int entry = 0; entry < other.size; entry++) {
+            long[] estimate = merged.get(other.keys[entry]);
+            if (estimate == null) {
+                merged.put(other.keys[entry],
+                        new long[]{other.counts[entry] + ownMinimum, other.errors[entry] + ownMinimum});
+            } else {
+                estimate[0] += other.counts[entry] - otherMinimum;
+                estimate[1] += other.errors[entry] - otherMinimum;
+            }
+        }
+
+        List<Map.Entry<String, long[]>> ranked = new ArrayList<>(merged.entrySet());
+        ranked.sort(Comparator.comparingLong((Map.Entry<String, long[]> e) -> -e.getValue()[0])
+                .thenComparingLong(e -> e.getValue()[1])
+                .thenComparing(Map.Entry::getKey));
+
+        clear();
+        for (Map.Entry<String, long[]> entry : ranked.subList(0, Math.min(capacity, ranked.size()))) {
+            String key = entry.getKey();
+            offer(key, ValueDictionary.hash(key.toCharArray(), 0, key.length()), entry.getValue()[0], entry.getValue()[1]);
+        }
+    }
+
+    /**
+     * Returns the monitored values with the highest counts, ordered by count from the highest.
+     * Values with equal counts are ordered alphabetically.
+     *
+     * @param limit the maximum number of values to return
+     * @return the ranked values
+     */
+    List<RankedValue> top(int limit) {
+        List<RankedValue> ranked = new ArrayList<>(size);
+        for (int entry = 0; entry < size; entry++) {
+            ranked.add(new RankedValue(keys[entry], counts[entry], errors[entry]));
+        }
+        ranked.sort(Comparator.comparingLong(RankedValue::count).reversed().thenComparing(RankedValue::value));
+        return ranked.subList(0, Math.min(limit, ranked.size()));
+    }
+
+    /**
+     * Returns the number of monitored values.
+     *
+     * @return the number of monitored values
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the count a value has to exceed to enter the full sketch.
+     *
+     * @return the lowest monitored count, or 0 if the sketch is not full yet
+     */
+    private long minimumCount() {
+        return size < capacity ? 0 : counts[heap[0]];
+    }
+
+    /**
+     * Starts monitoring a value, replacing the value with the lowest count if the sketch is full.
+     * The replaced count is added to both the count and the error of the new value.
+     *
+     * @param key   the value to monitor
+     * @param hash  the hash of the value
+     * @param count the count of the value
+     * @param error the error of the count
+     */
+    private void offer(String key, int hash, long count, long error) {
+        int entry;
+        if (size < capacity) {
+            if (size == keys.length) {
+                grow();
+            }
+            entry = size;
+            heap[size] = entry;
+            heapPositions[entry] = size;
+            size++;
+            counts[entry] = 0;
+            errors[entry] = 0;
+        } else {
+            entry = heap[0];
+            remove(entry);
+            errors[entry] = counts[entry];
+        }
+        keys[entry] = key;
+        hashes[entry] = hash;
+        counts[entry] += count;
+        errors[entry] += error;
+        insert(entry);
+        siftUp(heapPositions[entry]);
+        siftDown(heapPositions[entry]);
+    }
+
+    /**
+     * Allocates the arrays for the given number of entries, with an index at most half full.
+     *
+     * @param length the number of entries
+     */
+    private void allocate(int length) {
+        keys = new String[length];
+        hashes = new int[length];
+        counts = new long[length];
+        errors = new long[length];
+        heap = new int[length];
+        heapPositions = new int[length];
+        table = new int[Integer.highestOneBit(length * 2 - 1) << 1];
+    }
+
+    /**
+     * Doubles the number of entries, up to the capacity, and rebuilds the index.
+     */
+    private void grow() {
+        int length = (int) Math.min(capacity, keys.length * 2L);
+        keys = Arrays.copyOf(keys, length);
+        hashes = Arrays.copyOf(hashes, length);
+        counts = Arrays.copyOf(counts, length);
+        errors = Arrays.copyOf(errors, length);
+        heap = Arrays.copyOf(heap, length);
+        heapPositions = Arrays.copyOf(heapPositions, length);
+        table = new int[Integer.highestOneBit(length * 2 - 1) << 1];
+        for (int entry = 0; entry < size; entry++) {
+            insert(entry);
+        }
+    }
+
+    /**
+     * Removes all monitored values.
+     */
+    private void clear() {
+        Arrays.fill(table, 0);
+        Arrays.fill(keys, null);
+        size = 0;
+    }
+
+    /**
+     * Looks up the monitored value held in the given character range.
+     *
+     * @param hash   the hash of the value
+     * @param chars  the buffer holding the value
+     * @param offset the offset of the first character of the value
+     * @param length the number of characters in the value
+     * @return the entry of the value, or -1 if the value is not monitored
+     */
+    private int find(int hash, char[] chars, int offset, int length) {
+        int mask = table.length - 1;
+        for (int slot = hash & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int entry = table[slot] - 1;
+            if (hashes[entry] == hash && ValueDictionary.matches(keys[entry], chars, offset, length)) {
+                return entry;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Adds an entry to the index.
+     *
+     * @param entry the entry to add
+     */
+    private void insert(int entry) {
+        int mask = table.length - 1;
+        int slot = hashes[entry] & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = entry + 1;
+    }
+
+    /**
+     * Removes an entry from the index, shifting the following entries of its probe sequence back,
+     * so lookups never need tombstones.
+     *
+     * @param entry the entry to remove
+     */
+    private void remove(int entry) {
+        int mask = table.length - 1;
+        int hole = hashes[entry] & mask;
+        while (table[hole] != entry + 1) {
+            hole = (hole + 1) & mask;
+        }
+
+        for (int slot = (hole + 1) & mask; table[slot] != 0; slot = (slot + 1) & mask) {
+            int home = hashes[table[slot] - 1] & mask;
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                table[hole] = table[slot];
+                hole = slot;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    /**
+     * Moves the heap element up while its count is lower than its parent's.
+     *
+     * @param position the position of the element in the heap
+     */
+    private void siftUp(int position) {
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (counts[heap[parent]] <= counts[heap[position]]) {
+                return;
+            }
+            swap(position, parent);
+            position = parent;
+        }
+    }
+
+    /**
+     * Moves the heap element down while its count is higher than one of its children's.
+     *
+     * @param position the position of the element in the heap
+     */
+    private void siftDown(int position) {
+        while (true) {
+            int smallest = position;
+            int left = 2 * position + 1;
+            int right = left + 1;
+            if (left < size && counts[heap[left]] < counts[heap[smallest]]) {
+                smallest = left;
+            }
+            if (right < size && counts[heap[right]] < counts[heap[smallest]]) {
+                smallest = right;
+            }
+            if (smallest == position) {
+                return;
+            }
+            swap(position, smallest);
+            position = smallest;
+        }
+    }
+
+    private void swap(int first, int second) {
+        int entry = heap[first];
+        heap[first] = heap[second];
+        heap[second] = entry;
+        heapPositions[heap[first]] = first;
+        heapPositions[heap[second]] = second;
+    }
+}
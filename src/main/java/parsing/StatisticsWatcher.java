@@ -0,0 +1,315 @@
+package parsing;
+
+import exceptions.FolderWatchException;
+import exceptions.JsonParsingException;
+import exceptions.TaskExecutionException;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Keeps statistics of a folder with JSON files up to date as files are created, modified or deleted.
+ * Only changed files are parsed; their old counts are subtracted from the totals and the new ones
+ * are added. The XML reports are rewritten once no further changes arrive within the debounce interval.
+ * The files are selected like by the discovery of the statistics collector: every subfolder down to the maximal
+ * depth is watched, subfolders created later on are watched as they appear, and the include and exclude globs
+ * apply to every reported file.
+ */
+public class StatisticsWatcher implements AutoCloseable {
+
+    private static final int MAX_DEBOUNCE_ROUNDS = 10;
+    private static final int MAX_PARSE_ATTEMPTS = 5;
+
+    private final JsonFileStatistics jsonFileStatistics;
+    private final XmlParser xmlParser;
+    private final Path folder;
+    private final Set<String> attributes;
+    private final Duration debounce;
+    private final FileDiscovery discovery;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+
+    private final Map<Path, Map<String, Map<String, Integer>>> fileStats = new HashMap<>();
+    private final Map<String, Map<String, Integer>> stats = new LinkedHashMap<>();
+    private final Set<Path> changedFiles = new LinkedHashSet<>();
+    private final Map<Path, Integer> failedAttempts = new HashMap<>();
+    private final Set<Path> failedFiles = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates a watcher and registers it for changes of the given folder and its subfolders.
+     *
+     * @param jsonFileStatistics the statistics collector used to parse changed files
+     * @param xmlParser          the parser writing the XML reports
+     * @param folder             the folder containing JSON files
+     * @param attributes         the attributes to collect statistics for
+     * @param debounce           the time without changes after which the reports are rewritten
+     * @throws FolderWatchException if the folder cannot be watched
+     */
+    public StatisticsWatcher(JsonFileStatistics jsonFileStatistics, XmlParser xmlParser,
+                             Path folder, Set<String> attributes, Duration debounce) {
+        this.jsonFileStatistics = jsonFileStatistics;
+        this.xmlParser = xmlParser;
+        this.folder = folder;
+        this.attributes = attributes;
+        this.debounce = debounce;
+        this.discovery = jsonFileStatistics.getDiscovery();
+        for (String attribute : attributes) {
+            stats.put(attribute, new HashMap<>());
+        }
+
+        try {
+            this.watchService = folder.getFileSystem().newWatchService();
+        } catch (IOException e) {
+            throw new FolderWatchException("Could not watch folder " + folder, e);
+        }
+        watchTree(folder, file -> {
+        });
+    }
+
+    /**
+     * Collects the initial statistics of the folder, writes the reports and then keeps them up to date
+     * until the watcher is closed. This method blocks the calling thread.
+     *
+     * @param reportListener the listener notified with the path of every written report
+     * @throws JsonParsingException   if there is an error parsing a JSON file during the initial collection
+     * @throws TaskExecutionException if any task of the initial collection fails
+     */
+    public void run(Consumer<String> reportListener) {
+        jsonFileStatistics.collectStatsPerFile(folder, attributes).forEach(this::apply);
+        writeReports(reportListener);
+
+        long pendingSince = 0;
+        try {
+            while (true) {
+                WatchKey key = watchService.poll(debounce.toMillis(), TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    if (changedFiles.isEmpty()) {
+                        pendingSince = System.nanoTime();
+                    }
+                    collectChanges(key);
+                }
+
+                boolean overdue = System.nanoTime() - pendingSince > debounce.toNanos() * MAX_DEBOUNCE_ROUNDS;
+                if (!changedFiles.isEmpty() && (key == null || overdue) && refresh()) {
+                    writeReports(reportListener);
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // the watcher was closed
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns a snapshot of the current statistics.
+     *
+     * @return a map containing each attribute as key and a copy of its statistics map as value
+     */
+    public synchronized Map<String, Map<String, Integer>> getStats() {
+        Map<String, Map<String, Integer>> snapshot = new LinkedHashMap<>();
+        stats.forEach((attribute, values) -> snapshot.put(attribute, new HashMap<>(values)));
+        return snapshot;
+    }
+
+    /**
+     * Returns the files given up on because they failed to parse {@value #MAX_PARSE_ATTEMPTS} times in a row
+     * without changing in between. Their counts are left out of the statistics until they change again.
+     *
+     * @return a snapshot of the failed files
+     */
+    public Set<Path> getFailedFiles() {
+        return Set.copyOf(failedFiles);
+    }
+
+    /**
+     * Stops watching the folder. A running {@link #run(Consumer)} call returns shortly after.
+     */
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            throw new FolderWatchException("Could not stop watching folder " + folder, e);
+        }
+    }
+
+    /**
+     * Records the JSON files affected by the events of the given watch key.
+     * Created subfolders are watched and their files treated as changed, files of deleted subfolders
+     * are treated as changed as well. If events were lost, every known and every present file
+     * is treated as changed.
+     *
+     * @param key the signalled watch key
+     * @throws FolderWatchException if a folder cannot be listed or watched
+     */
+    private void collectChanges(WatchKey key) {
+        Path directory = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                fileStats.keySet().forEach(this::markChanged);
+                watchTree(folder, this::markChanged);
+                continue;
+            }
+            Path path = directory.resolve((Path) event.context());
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                if (discovery.isSearched(folder, path)) {
+                    watchTree(path, this::markChanged);
+                }
+            } else if (discovery.matches(folder, path)) {
+                markChanged(path);
+            } else if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                fileStats.keySet().stream().filter(file -> file.startsWith(path)).toList().forEach(this::markChanged);
+            }
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+    }
+
+    /**
+     * Marks a file as changed, giving it a fresh set of parse attempts.
+     *
+     * @param file the changed file
+     */
+    private void markChanged(Path file) {
+        changedFiles.add(file);
+        failedAttempts.remove(file);
+        failedFiles.remove(file);
+    }
+
+    /**
+     * Watches a folder of the tree and all of its subfolders that may hold JSON files.
+     *
+     * @param start the folder to watch, the watched folder itself or one of its subfolders
+     * @param files the consumer of the JSON files found within the folder
+     * @throws FolderWatchException if a folder cannot be listed or watched
+     */
+    private void watchTree(Path start, Consumer<Path> files) {
+        try {
+            discovery.walk(folder, start, this::watchDirectory, files);
+        } catch (IOException e) {
+            throw new FolderWatchException("Could not list folder " + start, e);
+        }
+    }
+
+    /**
+     * Registers a single folder with the watch service.
+     *
+     * @param directory the folder to watch
+     * @throws FolderWatchException if the folder cannot be watched
+     */
+    private void watchDirectory(Path directory) {
+        try {
+            WatchKey key = directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+            directories.put(key, directory);
+        } catch (IOException e) {
+            throw new FolderWatchException("Could not watch folder " + directory, e);
+        }
+    }
+
+    /**
+     * Re-parses the changed files and applies their deltas to the statistics. The whole debounced batch
+     * of changed files is parsed in a single run, so a burst of changes is spread over the parsing threads,
+     * and the deltas are applied once the run is complete.
+     * Files that cannot be parsed yet, e.g. because they are still being written, are kept as changed
+     * and retried on the next refresh. After {@value #MAX_PARSE_ATTEMPTS} failed attempts without the file
+     * changing in between the file is given up on and its previous counts are removed.
+     *
+     * @return true if the statistics changed
+     */
+    private boolean refresh() {
+        Set<Path> files = new HashSet<>();
+        changedFiles.stream().filter(Files::isRegularFile).forEach(files::add);
+        Map<Path, Map<String, Map<String, Integer>>> newStats;
+        try {
+            newStats = files.isEmpty() ? Map.of() : jsonFileStatistics.collectStatsPerFile(List.copyOf(files), attributes);
+        } catch (TaskExecutionException e) {
+            newStats = Map.of();
+        }
+
+        boolean updated = false;
+        for (Path file : Set.copyOf(changedFiles)) {
+            boolean present = files.contains(file);
+            if (present && !newStats.containsKey(file)) {
+                updated |= retryLater(file);
+                continue;
+            }
+            apply(file, present ? newStats.get(file) : null);
+            changedFiles.remove(file);
+            failedAttempts.remove(file);
+            updated = true;
+        }
+        return updated;
+    }
+
+    /**
+     * Counts a failed attempt to parse a changed file, which is probably still being written.
+     * The file stays changed until it failed too often, then its previous counts are removed.
+     *
+     * @param file the file that failed to parse
+     * @return true if the file was given up on and the statistics changed
+     */
+    private boolean retryLater(Path file) {
+        if (failedAttempts.merge(file, 1, Integer::sum) < MAX_PARSE_ATTEMPTS) {
+            return false;
+        }
+        changedFiles.remove(file);
+        failedAttempts.remove(file);
+        failedFiles.add(file);
+        boolean counted = fileStats.containsKey(file);
+        apply(file, null);
+        return counted;
+    }
+
+    /**
+     * Replaces the statistics of a file: subtracts its previous counts and adds the new ones.
+     *
+     * @param file     the changed file
+     * @param newStats the new statistics of the file per attribute, or null if the file was deleted
+     */
+    private synchronized void apply(Path file, Map<String, Map<String, Integer>> newStats) {
+        Map<String, Map<String, Integer>> oldStats = newStats == null ? fileStats.remove(file) : fileStats.put(file, newStats);
+        for (String attribute : attributes) {
+            Map<String, Integer> total = stats.get(attribute);
+            if (oldStats != null) {
+                oldStats.get(attribute).forEach((value, count) -> total.merge(value, -count, this::sumOrRemove));
+            }
+            if (newStats != null) {
+                newStats.get(attribute).forEach((value, count) -> total.merge(value, count, this::sumOrRemove));
+            }
+        }
+    }
+
+    /**
+     * Writes the XML report of every attribute.
+     *
+     * @param reportListener the listener notified with the path of every written report
+     */
+    private void writeReports(Consumer<String> reportListener) {
+        getStats().forEach((attribute, values) -> reportListener.accept(xmlParser.parseStatsToXmlFile(values, attribute)));
+    }
+
+    private Integer sumOrRemove(Integer count, Integer delta) {
+        int sum = count + delta;
+        return sum == 0 ? null : sum;
+    }
+}
@@ -0,0 +1,243 @@
+package parsing;
+
+import exceptions.StatsCacheException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Persisted cache of per-file statistics.
+ * Each entry holds the partial counts of one JSON file per attribute, keyed by the file path
+ * and validated by the file size and modification time, so only new or changed files
+ * have to be parsed again on the next run.
+ */
+class StatsCache {
+
+    private static final int MAGIC = 0x47535443;
+    private static final int VERSION = 1;
+
+    private final Path cacheFile;
+    private final Map<String, Entry> entries;
+
+    private StatsCache(Path cacheFile, Map<String, Entry> entries) {
+        this.cacheFile = cacheFile;
+        this.entries = entries;
+    }
+
+    /**
+     * Loads the cache from the given file. A missing, outdated or corrupted cache file
+     * results in an empty cache, since all of its content can be rebuilt by parsing.
+     * Every length and count read from the file is checked against the file size before anything is allocated,
+     * so a corrupted file cannot make loading run out of memory.
+     *
+     * @param cacheFile the path to the cache file
+     * @return the loaded cache
+     */
+    static StatsCache load(Path cacheFile) {
+        Map<String, Entry> entries = new HashMap<>();
+        if (Files.isRegularFile(cacheFile)) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(cacheFile)))) {
+                long limit = Files.size(cacheFile);
+                if (in.readInt() == MAGIC && in.readInt() == VERSION) {
+                    int entryCount = readLength(in, limit);
+                    for (int i = 0; i < entryCount; i++) {
+                        String path = readString(in, limit);
+                        entries.put(path, readEntry(in, limit));
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                entries.clear();
+            }
+        }
+        return new StatsCache(cacheFile, entries);
+    }
+
+    /**
+     * Returns the cached statistics of the file if the file has not changed since it was cached
+     * and all requested attributes are present.
+     *
+     * @param file       the JSON file
+     * @param attributes the requested attributes
+     * @return the cached statistics per attribute, or null if the file has to be parsed
+     */
+    Map<String, Map<String, Integer>> get(File file, Set<String> attributes) {
+        Entry entry = entries.get(file.getAbsolutePath());
+        if (entry == null || entry.size() != file.length() || entry.lastModified() != file.lastModified()
+                || !entry.stats().keySet().containsAll(attributes)) {
+            return null;
+        }
+        return entry.stats();
+    }
+
+    /**
+     * Stores the statistics of a parsed file. If the cached entry of the file is still valid, the statistics
+     * are added to the attributes it already holds, so runs asking for different attributes keep each other's
+     * statistics instead of parsing the file again every time.
+     *
+     * @param file         the JSON file
+     * @param size         the size of the file when it was parsed
+     * @param lastModified the modification time of the file when it was parsed
+     * @param stats        the statistics of the file per attribute
+     */
+    void put(File file, long size, long lastModified, Map<String, Map<String, Integer>> stats) {
+        Map<String, Map<String, Integer>> merged = new HashMap<>();
+        Entry entry = entries.get(file.getAbsolutePath());
+        if (entry != null && entry.size() == size && entry.lastModified() == lastModified) {
+            merged.putAll(entry.stats());
+        }
+        merged.putAll(stats);
+        entries.put(file.getAbsolutePath(), new Entry(size, lastModified, merged));
+    }
+
+    /**
+     * Removes the entries of files within the folder that are not among the given ones, e.g. of deleted files.
+     * Entries of files outside the folder are kept, so several folders can share the same cache file.
+     *
+     * @param folder the folder the given files were listed from
+     * @param files  the files within the folder whose entries are kept
+     */
+    void retainAll(Path folder, Collection<File> files) {
+        Path absoluteFolder = folder.toAbsolutePath();
+        Set<String> paths = new HashSet<>();
+        for (File file : files) {
+            paths.add(file.getAbsolutePath());
+        }
+        entries.keySet().removeIf(path -> !paths.contains(path) && Path.of(path).startsWith(absoluteFolder));
+    }
+
+    /**
+     * Merges the cached statistics of the given files.
+     *
+     * @param files      the files to merge the statistics of
+     * @param attributes the attributes to merge
+     * @return a map containing each attribute as key and its merged statistics map as value
+     */
+    Map<String, Map<String, Integer>> merge(Collection<File> files, Set<String> attributes) {
+        Map<String, Map<String, Integer>> stats = new LinkedHashMap<>();
+        for (String attribute : attributes) {
+            stats.put(attribute, new HashMap<>());
+        }
+        for (File file : files) {
+            Entry entry = entries.get(file.getAbsolutePath());
+            if (entry != null) {
+                for (String attribute : attributes) {
+                    Map<String, Integer> target = stats.get(attribute);
+                    entry.stats().get(attribute).forEach((value, count) -> target.merge(value, count, Integer::sum));
+                }
+            }
+        }
+        return stats;
+    }
+
+    /**
+     * Writes the cache to its file. The cache is written to a temporary file first
+     * and then moved in place, so an interrupted write never leaves a corrupted cache behind.
+     *
+     * @throws StatsCacheException if an error occurs while writing the cache file
+     */
+    void save() {
+        Path tempFile = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(entries.size());
+            for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                writeString(out, entry.getKey());
+                writeEntry(out, entry.getValue());
+            }
+        } catch (IOException e) {
+            throw new StatsCacheException("Could not write stats cache", e);
+        }
+
+        try {
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new StatsCacheException("Could not write stats cache", e);
+        }
+    }
+
+    private static Entry readEntry(DataInputStream in, long limit) throws IOException {
+        long size = in.readLong();
+        long lastModified = in.readLong();
+        int attributeCount = readLength(in, limit);
+        Map<String, Map<String, Integer>> stats = new HashMap<>();
+        for (int i = 0; i < attributeCount; i++) {
+            String attribute = readString(in, limit);
+            int valueCount = readLength(in, limit);
+            Map<String, Integer> values = new HashMap<>();
+            for (int j = 0; j < valueCount; j++) {
+                String value = readString(in, limit);
+                values.put(value, in.readInt());
+            }
+            stats.put(attribute, values);
+        }
+        return new Entry(size, lastModified, stats);
+    }
+
+    private static void writeEntry(DataOutputStream out, Entry entry) throws IOException {
+        out.writeLong(entry.size());
+        out.writeLong(entry.lastModified());
+        out.writeInt(entry.stats().size());
+        for (Map.Entry<String, Map<String, Integer>> attribute : entry.stats().entrySet()) {
+            writeString(out, attribute.getKey());
+            out.writeInt(attribute.getValue().size());
+            for (Map.Entry<String, Integer> value : attribute.getValue().entrySet()) {
+                writeString(out, value.getKey());
+                out.writeInt(value.getValue());
+            }
+        }
+    }
+
+    private static String readString(DataInputStream in, long limit) throws IOException {
+        byte[] bytes = new byte[readLength(in, limit)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads a length or a count. Every counted item takes at least one byte of the file,
+     * so a value that is negative or exceeds the file size can only come from a corrupted file.
+     *
+     * @param in    the stream of the cache file
+     * @param limit the size of the cache file
+     * @return the length or count
+     * @throws IOException if the value cannot be read or is out of range
+     */
+    private static int readLength(DataInputStream in, long limit) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > limit) {
+            throw new IOException("Corrupted stats cache: invalid length " + length);
+        }
+        return length;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Cached statistics of a single file.
+     *
+     * @param size         the size of the file when it was parsed
+     * @param lastModified the modification time of the file when it was parsed
+     * @param stats        the statistics of the file per attribute
+     */
+    private record Entry(long size, long lastModified, Map<String, Map<String, Integer>> stats) {
+    }
+}
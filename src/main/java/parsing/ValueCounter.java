@@ -0,0 +1,102 @@
+package parsing;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Single-threaded counter of attribute values.
+ * Every parsing task owns its own counters, so values are counted without locking and without boxing.
+ * <p>
+ * Values are encoded by a {@link ValueDictionary} and counted in a {@code long[]} indexed by their ids,
+ * so a String is allocated only the first time a distinct value is seen, and a hit costs one lookup by
+ * character range and one array increment. Counters are merged id by id into shared counters, and the
+ * ids are decoded back to Strings only once the statistics are handed out.
+ */
+class ValueCounter implements ValueSink {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ValueDictionary dictionary = new ValueDictionary();
+    private long[] counts = new long[INITIAL_CAPACITY];
+
+    /**
+     * Increments the occurrence count of the given value.
+     *
+     * @param value the value to count
+     */
+    void increment(String value) {
+        char[] chars = value.toCharArray();
+        increment(chars, 0, chars.length);
+    }
+
+    /**
+     * Increments the occurrence count of the value held in the given character range.
+     *
+     * @param chars  the buffer holding the value
+     * @param offset the offset of the first character of the value
+     * @param length the number of characters in the value
+     */
+    void increment(char[] chars, int offset, int length) {
+        int id = dictionary.idOf(chars, offset, length);
+        if (id == counts.length) {
+            counts = Arrays.copyOf(counts, counts.length * 2);
+        }
+        counts[id]++;
+    }
+
+    @Override
+    public void add(char[] chars, int offset, int length) {
+        increment(chars, offset, length);
+    }
+
+    /**
+     * Adds the counts of another counter to this one. Ids of the other counter are translated
+     * through this counter's dictionary once per distinct value.
+     *
+     * @param other the counter to merge
+     */
+    void merge(ValueCounter other) {
+        for (int id = 0; id < other.dictionary.size(); id++) {
+            int ownId = dictionary.idOf(other.dictionary.value(id));
+            if (ownId == counts.length) {
+                counts = Arrays.copyOf(counts, counts.length * 2);
+            }
+            counts[ownId] += other.counts[id];
+        }
+    }
+
+    /**
+     * Adds all counted values to the target statistics map.
+     * Each key is merged atomically, so several counters can be merged into the same map concurrently.
+     *
+     * @param target the map to add the counted values to
+     * @throws ArithmeticException if a count does not fit into an int
+     */
+    void mergeInto(Map<String, Integer> target) {
+        for (int id = 0; id < dictionary.size(); id++) {
+            target.merge(dictionary.value(id), Math.toIntExact(counts[id]), Integer::sum);
+        }
+    }
+
+    /**
+     * Decodes the counted values into a statistics map.
+     *
+     * @return a map containing the counted values as keys and their occurrence counts as values
+     * @throws ArithmeticException if a count does not fit into an int
+     */
+    Map<String, Integer> toMap() {
+        Map<String, Integer> stats = new HashMap<>(dictionary.size() * 4 / 3 + 1);
+        mergeInto(stats);
+        return stats;
+    }
+
+    /**
+     * Returns the number of distinct values.
+     *
+     * @return the number of distinct values
+     */
+    int size() {
+        return dictionary.size();
+    }
+}
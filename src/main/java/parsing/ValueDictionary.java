@@ -0,0 +1,143 @@
+package parsing;
+
+import java.util.Arrays;
+
+/**
+ * Single-threaded dictionary assigning dense int ids to attribute values.
+ * Values are looked up directly by character ranges of the parser's text buffer,
+ * so a String is allocated only the first time a distinct value is seen,
+ * and ids can index plain arrays instead of maps keyed by Strings.
+ */
+class ValueDictionary {
+
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] slots = new int[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private String[] values = new String[INITIAL_CAPACITY / 2];
+    private int size;
+
+    /**
+     * Returns the id of the given value, assigning the next free id if the value is new.
+     *
+     * @param value the value to look up
+     * @return the id of the value
+     */
+    int idOf(String value) {
+        char[] chars = value.toCharArray();
+        return idOf(chars, 0, chars.length);
+    }
+
+    /**
+     * Returns the id of the value held in the given character range, assigning the next free id if the value is new.
+     *
+     * @param chars  the buffer holding the value
+     * @param offset the offset of the first character of the value
+     * @param length the number of characters in the value
+     * @return the id of the value
+     */
+    int idOf(char[] chars, int offset, int length) {
+        int hash = hash(chars, offset, length);
+        int mask = slots.length - 1;
+        int slot = hash & mask;
+
+        while (slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if (hashes[slot] == hash && matches(values[id], chars, offset, length)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        int id = size++;
+        if (id == values.length) {
+            values = Arrays.copyOf(values, values.length * 2);
+        }
+        values[id] = new String(chars, offset, length);
+        slots[slot] = id + 1;
+        hashes[slot] = hash;
+        if (size * 4 > slots.length * 3) {
+            resize();
+        }
+        return id;
+    }
+
+    /**
+     * Returns the value with the given id.
+     *
+     * @param id the id of the value
+     * @return the value
+     */
+    String value(int id) {
+        return values[id];
+    }
+
+    /**
+     * Returns the number of distinct values, which is also the next free id.
+     *
+     * @return the number of values
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Computes the hash of a character range, spreading the higher bits of
+     * {@link String#hashCode()}-compatible hash to the lower ones used for slot selection.
+     *
+     * @param chars  the buffer holding the value
+     * @param offset the offset of the first character of the value
+     * @param length the number of characters in the value
+     * @return the hash of the value
+     */
+    static int hash(char[] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Checks whether the key consists of exactly the characters of the given range.
+     *
+     * @param key    the key stored in the table
+     * @param chars  the buffer holding the value
+     * @param offset the offset of the first character of the value
+     * @param length the number of characters in the value
+     * @return true if the key equals the value
+     */
+    static boolean matches(String key, char[] chars, int offset, int length) {
+        if (key.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Doubles the capacity of the table and rehashes all ids.
+     */
+    private void resize() {
+        int[] oldSlots = slots;
+        int[] oldHashes = hashes;
+        slots = new int[oldSlots.length * 2];
+        hashes = new int[oldSlots.length * 2];
+        int mask = slots.length - 1;
+
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] != 0) {
+                int slot = oldHashes[i] & mask;
+                while (slots[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                slots[slot] = oldSlots[i];
+                hashes[slot] = oldHashes[i];
+            }
+        }
+    }
+}
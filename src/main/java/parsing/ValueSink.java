@@ -0,0 +1,24 @@
+package parsing;
+
+/**
+ * Single-threaded consumer of attribute values read straight from the parser's character buffer.
+ * Every parsing task owns its own sinks, and their contents are merged into the shared result once per chunk.
+ */
+interface ValueSink {
+
+    /**
+     * Adds the value held in the given character range.
+     *
+     * @param chars  the buffer holding the value
+     * @param offset the offset of the first character of the value
+     * @param length the number of characters in the value
+     */
+    void add(char[] chars, int offset, int length);
+
+    /**
+     * Notifies the sink that all fields of the current record have been read.
+     * Sinks combining several fields of a record can use it to complete the record.
+     */
+    default void endRecord() {
+    }
+}
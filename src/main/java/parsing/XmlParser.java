@@ -2,12 +2,19 @@ package parsing;
 
 import exceptions.XmlFileCreationException;
 import exceptions.XmlParsingException;
+import metrics.PipelineMetrics;
 
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Utility class for parsing statistics into an XML file
@@ -16,15 +23,47 @@ import java.util.Map;
 public class XmlParser {
 
     private static final String XML_FILE_TEMPLATE = "src/main/resources/statistics_by_%s.xml";
-    private static final String ITEM_TEMPLATE = """
-                <item>
-                    <value>%s</value>
-                    <count>%d</count>
-                </item>
-            """;
+    private static final String TOP_XML_FILE_TEMPLATE = "src/main/resources/statistics_top_by_%s.xml";
+    private static final String DISTINCT_XML_FILE_TEMPLATE = "src/main/resources/statistics_distinct_by_%s.xml";
+    private static final String NUMERIC_XML_FILE_TEMPLATE = "src/main/resources/statistics_numeric_by_%s.xml";
+    private static final String GZIP_EXTENSION = ".gz";
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final boolean compressed;
+    private final PipelineMetrics metrics;
+
+    /**
+     * Creates a parser writing plain XML files.
+     */
+    public XmlParser() {
+        this(false);
+    }
+
+    /**
+     * Creates a parser writing either plain or gzip-compressed XML files.
+     *
+     * @param compressed true to gzip the XML files
+     */
+    public XmlParser(boolean compressed) {
+        this(compressed, new PipelineMetrics());
+    }
+
+    /**
+     * Creates a parser writing either plain or gzip-compressed XML files
+     * and recording the written reports to the given metrics.
+     *
+     * @param compressed true to gzip the XML files
+     * @param metrics    the metrics the written reports are recorded to
+     */
+    public XmlParser(boolean compressed, PipelineMetrics metrics) {
+        this.compressed = compressed;
+        this.metrics = metrics;
+    }
 
     /**
      * Parses statistics into an XML file based on the provided attribute.
+     * Items are streamed to the file through a large buffer, so reports with millions
+     * of distinct values are written with constant overhead per item.
      *
      * @param statistic a map containing attribute values
      *                  as keys and their occurrence counts as values
@@ -34,31 +73,184 @@ public class XmlParser {
      * @throws XmlParsingException if an error occurs while writing to the XML file
      */
     public String parseStatsToXmlFile(Map<String, Integer> statistic, String attribute) {
-        Path xmlPath = createXmlFile(attribute);
+        long start = System.nanoTime();
+        Path xmlPath = createXmlFile(XML_FILE_TEMPLATE, attribute);
 
-        try (BufferedWriter writer = Files.newBufferedWriter(xmlPath)) {
-            writer.append("<statistics>\n");
+        try (Writer writer = openWriter(xmlPath)) {
+            XmlStatsWriter statsWriter = new XmlStatsWriter(writer);
+            statsWriter.writeStart();
             for (Map.Entry<String, Integer> entry : statistic.entrySet()) {
-                writer.append(ITEM_TEMPLATE.formatted(entry.getKey(), entry.getValue()));
+                statsWriter.writeItem(entry.getKey(), entry.getValue());
+            }
+            statsWriter.writeEnd();
+            writer.flush();
+
+            metrics.recordReport(statistic.size(), System.nanoTime() - start);
+            return xmlPath.toString();
+        } catch (IOException e) {
+            throw new XmlParsingException("Could not write to xml file", e);
+        }
+    }
+
+    /**
+     * Parses the most frequent values of an attribute into an XML file, ranked by count from the highest.
+     * Every item holds its rank, its estimated count and the maximum error of the count.
+     *
+     * @param ranked    the values ranked by count
+     * @param attribute the attribute for which statistics are being parsed
+     *                  (e.g., "developer", "yearReleased", "genre")
+     * @return the path to the created XML file
+     * @throws XmlParsingException if an error occurs while writing to the XML file
+     */
+    public String parseTopStatsToXmlFile(List<RankedValue> ranked, String attribute) {
+        long start = System.nanoTime();
+        Path xmlPath = createXmlFile(TOP_XML_FILE_TEMPLATE, attribute);
+
+        try (Writer writer = openWriter(xmlPath)) {
+            XmlStatsWriter statsWriter = new XmlStatsWriter(writer);
+            statsWriter.writeStart();
+            for (int i = 0; i < ranked.size(); i++) {
+                statsWriter.writeRankedItem(i + 1, ranked.get(i));
+            }
+            statsWriter.writeEnd();
+            writer.flush();
+
+            metrics.recordReport(ranked.size(), System.nanoTime() - start);
+            return xmlPath.toString();
+        } catch (IOException e) {
+            throw new XmlParsingException("Could not write to xml file", e);
+        }
+    }
+
+    /**
+     * Parses the estimated number of distinct values of an attribute into an XML file.
+     * The report holds the estimate, its standard error and the relative standard error.
+     *
+     * @param estimate  the cardinality estimate
+     * @param attribute the attribute for which statistics are being parsed
+     *                  (e.g., "developer", "yearReleased", "genre")
+     * @return the path to the created XML file
+     * @throws XmlParsingException if an error occurs while writing to the XML file
+     */
+    public String parseDistinctStatsToXmlFile(CardinalityEstimate estimate, String attribute) {
+        long start = System.nanoTime();
+        Path xmlPath = createXmlFile(DISTINCT_XML_FILE_TEMPLATE, attribute);
+
+        try (Writer writer = openWriter(xmlPath)) {
+            XmlStatsWriter statsWriter = new XmlStatsWriter(writer);
+            statsWriter.writeStart();
+            statsWriter.writeEstimate(estimate);
+            statsWriter.writeEnd();
+            writer.flush();
+
+            metrics.recordReport(1, System.nanoTime() - start);
+            return xmlPath.toString();
+        } catch (IOException e) {
+            throw new XmlParsingException("Could not write to xml file", e);
+        }
+    }
+
+    /**
+     * Parses the statistics of a numeric attribute into an XML file: the summary of all values
+     * followed by the summary of every group, each with its histogram buckets. The number of values left out
+     * because they are not integers is written first if any were skipped.
+     *
+     * @param statistics the statistics of the numeric attribute
+     * @param attribute  the numeric attribute (e.g., "yearReleased")
+     * @return the path to the created XML file
+     * @throws XmlParsingException if an error occurs while writing to the XML file
+     */
+    public String parseNumericStatsToXmlFile(NumericStatistics statistics, String attribute) {
+        long start = System.nanoTime();
+        Path xmlPath = createXmlFile(NUMERIC_XML_FILE_TEMPLATE, attribute);
+
+        try (Writer writer = openWriter(xmlPath)) {
+            XmlStatsWriter statsWriter = new XmlStatsWriter(writer);
+            statsWriter.writeStart();
+            if (statistics.skipped() > 0) {
+                statsWriter.writeSkipped(statistics.skipped());
+            }
+            if (statistics.overall() != null) {
+                statsWriter.writeSummary(statistics.overall(), "    ");
+            }
+            for (Map.Entry<String, NumericSummary> group : statistics.groups().entrySet()) {
+                statsWriter.writeGroup(group.getKey(), group.getValue());
             }
-            writer.append("</statistics>");
+            statsWriter.writeEnd();
+            writer.flush();
 
+            metrics.recordReport(1 + statistics.groups().size(), System.nanoTime() - start);
             return xmlPath.toString();
         } catch (IOException e) {
             throw new XmlParsingException("Could not write to xml file", e);
         }
     }
 
+    /**
+     * Parses two-dimensional statistics into an XML file with a group per value of the grouping attribute,
+     * each holding the items of the counted attribute. The file is named after both attributes,
+     * e.g. {@code statistics_by_yearReleased_and_genre.xml}.
+     *
+     * @param statistic a map containing each value of the grouping attribute as key
+     *                  and the occurrence counts of the attribute's values within the group as value
+     * @param groupBy   the grouping attribute
+     * @param attribute the counted attribute
+     * @return the path to the created XML file
+     * @throws XmlParsingException if an error occurs while writing to the XML file
+     */
+    public String parseCrossTabStatsToXmlFile(Map<String, Map<String, Long>> statistic, String groupBy, String attribute) {
+        long start = System.nanoTime();
+        Path xmlPath = createXmlFile(XML_FILE_TEMPLATE, groupBy + "_and_" + attribute);
+
+        try (Writer writer = openWriter(xmlPath)) {
+            XmlStatsWriter statsWriter = new XmlStatsWriter(writer);
+            statsWriter.writeStart();
+            long items = 0;
+            for (Map.Entry<String, Map<String, Long>> group : statistic.entrySet()) {
+                statsWriter.writeGroupStart(group.getKey());
+                for (Map.Entry<String, Long> entry : group.getValue().entrySet()) {
+                    statsWriter.writeGroupItem(entry.getKey(), entry.getValue());
+                }
+                statsWriter.writeGroupEnd();
+                items += group.getValue().size();
+            }
+            statsWriter.writeEnd();
+            writer.flush();
+
+            metrics.recordReport(items, System.nanoTime() - start);
+            return xmlPath.toString();
+        } catch (IOException e) {
+            throw new XmlParsingException("Could not write to xml file", e);
+        }
+    }
+
+    /**
+     * Opens a buffered writer to the XML file, compressing the output if configured.
+     *
+     * @param xmlPath the path to the XML file
+     * @return the writer to the XML file
+     * @throws IOException if an error occurs while opening the file
+     */
+    private Writer openWriter(Path xmlPath) throws IOException {
+        OutputStream out = Files.newOutputStream(xmlPath);
+        if (compressed) {
+            out = new GZIPOutputStream(out, BUFFER_SIZE);
+        }
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
     /**
      * Creates an XML file for storing statistics based on the provided attribute.
      *
+     * @param template  the template of the file name
      * @param attribute the attribute for which the XML file is being created
      *                  (e.g., "developer", "yearReleased", "genre")
      * @return the Path object representing the created XML file
      * @throws XmlFileCreationException if an error occurs while creating the XML file
      */
-    private Path createXmlFile(String attribute) {
-        Path xmlPath = Path.of(String.format(XML_FILE_TEMPLATE, attribute));
+    private Path createXmlFile(String template, String attribute) {
+        String fileName = String.format(template, attribute);
+        Path xmlPath = Path.of(compressed ? fileName + GZIP_EXTENSION : fileName);
 
         try {
             Files.deleteIfExists(xmlPath);
@@ -0,0 +1,278 @@
+package parsing;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streaming writer of statistics reports.
+ * Items are written piece by piece into the underlying writer without format strings or temporary
+ * Strings, and values are XML-escaped, so the cost per item stays constant for reports of any size.
+ */
+class XmlStatsWriter {
+
+    private static final char REPLACEMENT_CHARACTER = '\uFFFD';
+
+    private final Writer writer;
+    private final char[] digits = new char[20];
+
+    /**
+     * Creates a report writer on top of the given writer.
+     *
+     * @param writer the writer to write the report to
+     */
+    XmlStatsWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Writes the opening tag of the report.
+     *
+     * @throws IOException if an error occurs while writing
+     */
+    void writeStart() throws IOException {
+        writer.write("<statistics>\n");
+    }
+
+    /**
+     * Writes the number of numeric values left out of the statistics because they are not integers.
+     *
+     * @param skipped the number of skipped values
+     * @throws IOException if an error occurs while writing
+     */
+    void writeSkipped(long skipped) throws IOException {
+        writeElement("    ", "skipped", skipped);
+    }
+
+    /**
+     * Writes a single statistics item.
+     *
+     * @param value the attribute value
+     * @param count the occurrence count of the value
+     * @throws IOException if an error occurs while writing
+     */
+    void writeItem(String value, long count) throws IOException {
+        writeItem(value, count, "    ");
+    }
+
+    /**
+     * Writes a single statistics item within a group.
+     *
+     * @param value the attribute value
+     * @param count the occurrence count of the value within the group
+     * @throws IOException if an error occurs while writing
+     */
+    void writeGroupItem(String value, long count) throws IOException {
+        writeItem(value, count, "        ");
+    }
+
+    /**
+     * Writes the opening tag of a group and the value of the grouping attribute.
+     *
+     * @param value the value of the grouping attribute
+     * @throws IOException if an error occurs while writing
+     */
+    void writeGroupStart(String value) throws IOException {
+        writer.write("    <group>\n        <value>");
+        writeEscaped(value);
+        writer.write("</value>\n");
+    }
+
+    /**
+     * Writes the closing tag of a group.
+     *
+     * @throws IOException if an error occurs while writing
+     */
+    void writeGroupEnd() throws IOException {
+        writer.write("    </group>\n");
+    }
+
+    /**
+     * Writes a single item of a ranked report.
+     *
+     * @param rank  the position of the value in the report, starting at 1
+     * @param value the ranked value
+     * @throws IOException if an error occurs while writing
+     */
+    void writeRankedItem(int rank, RankedValue value) throws IOException {
+        writer.write("    <item>\n        <rank>");
+        writeNumber(rank);
+        writer.write("</rank>\n        <value>");
+        writeEscaped(value.value());
+        writer.write("</value>\n        <count>");
+        writeNumber(value.count());
+        writer.write("</count>\n        <error>");
+        writeNumber(value.error());
+        writer.write("</error>\n    </item>\n");
+    }
+
+    /**
+     * Writes the estimated number of distinct values together with its standard error.
+     *
+     * @param estimate the cardinality estimate
+     * @throws IOException if an error occurs while writing
+     */
+    void writeEstimate(CardinalityEstimate estimate) throws IOException {
+        writer.write("    <distinct>\n        <estimate>");
+        writeNumber(estimate.estimate());
+        writer.write("</estimate>\n        <error>");
+        writeNumber(estimate.absoluteError());
+        writer.write("</error>\n        <relativeError>");
+        writer.write(String.format(Locale.ROOT, "%.4f", estimate.relativeError()));
+        writer.write("</relativeError>\n    </distinct>\n");
+    }
+
+    /**
+     * Writes the summary of a numeric attribute, including its histogram buckets.
+     *
+     * @param summary the summary to write
+     * @param indent  the indentation of the summary element
+     * @throws IOException if an error occurs while writing
+     */
+    void writeSummary(NumericSummary summary, String indent) throws IOException {
+        String inner = indent + "    ";
+        writer.write(indent);
+        writer.write("<summary>\n");
+        writeElement(inner, "count", summary.count());
+        writeElement(inner, "min", summary.min());
+        writeElement(inner, "max", summary.max());
+        writer.write(inner);
+        writer.write("<mean>");
+        writer.write(String.format(Locale.ROOT, "%.2f", summary.mean()));
+        writer.write("</mean>\n");
+        writeElement(inner, "median", summary.median());
+        writeElement(inner, "p90", summary.p90());
+        writeElement(inner, "p99", summary.p99());
+        for (Map.Entry<Integer, Long> bucket : summary.buckets().entrySet()) {
+            writer.write(inner);
+            writer.write("<bucket>\n");
+            writeElement(inner + "    ", "from", bucket.getKey());
+            writeElement(inner + "    ", "to", (long) bucket.getKey() + summary.bucketWidth() - 1);
+            writeElement(inner + "    ", "count", bucket.getValue());
+            writer.write(inner);
+            writer.write("</bucket>\n");
+        }
+        writer.write(indent);
+        writer.write("</summary>\n");
+    }
+
+    /**
+     * Writes the summary of a numeric attribute for the records having the given value of the grouping attribute.
+     *
+     * @param value   the value of the grouping attribute
+     * @param summary the summary of the group
+     * @throws IOException if an error occurs while writing
+     */
+    void writeGroup(String value, NumericSummary summary) throws IOException {
+        writeGroupStart(value);
+        writeSummary(summary, "        ");
+        writeGroupEnd();
+    }
+
+    /**
+     * Writes the closing tag of the report.
+     *
+     * @throws IOException if an error occurs while writing
+     */
+    void writeEnd() throws IOException {
+        writer.write("</statistics>");
+    }
+
+    /**
+     * Writes a single statistics item with the given indentation.
+     *
+     * @param value  the attribute value
+     * @param count  the occurrence count of the value
+     * @param indent the indentation of the item element
+     * @throws IOException if an error occurs while writing
+     */
+    private void writeItem(String value, long count, String indent) throws IOException {
+        writer.write(indent);
+        writer.write("<item>\n");
+        writer.write(indent);
+        writer.write("    <value>");
+        writeEscaped(value);
+        writer.write("</value>\n");
+        writeElement(indent + "    ", "count", count);
+        writer.write(indent);
+        writer.write("</item>\n");
+    }
+
+    /**
+     * Writes an element holding a number on its own line.
+     *
+     * @param indent the indentation of the element
+     * @param name   the name of the element
+     * @param number the number to write
+     * @throws IOException if an error occurs while writing
+     */
+    private void writeElement(String indent, String name, long number) throws IOException {
+        writer.write(indent);
+        writer.write('<');
+        writer.write(name);
+        writer.write('>');
+        writeNumber(number);
+        writer.write("</");
+        writer.write(name);
+        writer.write(">\n");
+    }
+
+    /**
+     * Writes the text with XML special characters replaced by entities.
+     * Characters that are not allowed in XML 1.0 are replaced with U+FFFD: control characters other than
+     * tab and line breaks, the noncharacters U+FFFE and U+FFFF, and surrogates that are not part of a valid pair.
+     *
+     * @param text the text to write
+     * @throws IOException if an error occurs while writing
+     */
+    private void writeEscaped(String text) throws IOException {
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                i++;
+                continue;
+            }
+            String entity = switch (c) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> "&quot;";
+                case '\'' -> "&apos;";
+                default -> null;
+            };
+            boolean invalid = c < 0x20 && c != '\t' && c != '\n' && c != '\r'
+                    || Character.isSurrogate(c) || c == '\uFFFE' || c == '\uFFFF';
+            if (entity != null || invalid) {
+                writer.write(text, start, i - start);
+                if (entity != null) {
+                    writer.write(entity);
+                } else {
+                    writer.write(REPLACEMENT_CHARACTER);
+                }
+                start = i + 1;
+            }
+        }
+        writer.write(text, start, text.length() - start);
+    }
+
+    /**
+     * Writes the decimal representation of a number through a reusable digit buffer.
+     *
+     * @param number the number to write
+     * @throws IOException if an error occurs while writing
+     */
+    private void writeNumber(long number) throws IOException {
+        if (number < 0) {
+            writer.write(Long.toString(number));
+            return;
+        }
+        int position = digits.length;
+        do {
+            digits[--position] = (char) ('0' + number % 10);
+            number /= 10;
+        } while (number > 0);
+        writer.write(digits, position, digits.length - position);
+    }
+}
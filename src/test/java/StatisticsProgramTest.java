@@ -15,8 +15,10 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -106,7 +108,7 @@ public class StatisticsProgramTest {
         assertThatThrownBy(() -> statisticsProgram.attributeValidation(attribute))
                 .isInstanceOf(InvalidAttributeException.class)
                 .hasMessageContaining("Attribute " + attribute + " does not exist. \n" +
-                        "Available fields are: developer, yearReleased, genre");
+                        "Available fields are: title, developer, developer.name, yearReleased, genre");
 
         Files.delete(dir);
     }
@@ -134,12 +136,35 @@ public class StatisticsProgramTest {
         Files.delete(dir);
     }
 
+    @Test
+    public void testStartWithSeveralAttributes() throws IOException {
+        String folder = "test2";
+        dir = Files.createDirectory(Path.of(folder));
+
+        Map<String, Integer> developerStats = Map.of("Developer1", 10);
+        Map<String, Integer> genreStats = Map.of("Action", 3);
+        Map<String, Map<String, Integer>> mockStats = new LinkedHashMap<>();
+        mockStats.put("developer", developerStats);
+        mockStats.put("genre", genreStats);
+
+        when(jsonFileStatistics.collectStats(eq(dir), eq(Set.of("developer", "genre"))))
+                .thenReturn(mockStats);
+
+        statisticsProgram.start(folder, List.of("developer", "genre"));
+
+        verify(jsonFileStatistics).collectStats(dir, Set.of("developer", "genre"));
+        verify(xmlParser).parseStatsToXmlFile(developerStats, "developer");
+        verify(xmlParser).parseStatsToXmlFile(genreStats, "genre");
+
+        Files.delete(dir);
+    }
+
     @Test
     void testMain() throws IOException {
         Path file;
         try {
             dir = Files.createDirectory(Path.of("testDir"));
-            file = Files.createFile(Path.of("testDir\\testFile.json"));
+            file = Files.createFile(dir.resolve("testFile.json"));
             Files.write(file, JSON.getBytes());
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -163,6 +188,44 @@ public class StatisticsProgramTest {
         Files.delete(dir);
     }
 
+    @Test
+    void testMainWithExecutorOption() throws IOException {
+        Path file;
+        try {
+            dir = Files.createDirectory(Path.of("testDir"));
+            file = Files.createFile(dir.resolve("testFile.json"));
+            Files.write(file, JSON.getBytes());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        PrintStream originalOut = System.out;
+        System.setOut(new PrintStream(outputStream, true, StandardCharsets.UTF_8));
+
+        String[] args = {"testDir", "genre", "--executor=fork-join"};
+        StatisticsProgram.main(args);
+
+        System.setOut(originalOut);
+
+        String consoleOutput = outputStream.toString(StandardCharsets.UTF_8);
+        assertTrue(consoleOutput.contains("Collecting stats..."));
+        assertTrue(consoleOutput.contains("Statistics collected"));
+
+        Files.delete(file);
+        Files.delete(Path.of("src/main/resources/statistics_by_genre.xml"));
+        Files.delete(dir);
+    }
+
+    @Test
+    void testMainWithUnknownExecutor() {
+        String[] args = {"testDir", "genre", "--executor=cached"};
+
+        assertThatThrownBy(() -> StatisticsProgram.main(args))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown executor cached");
+    }
+
     @Test
     void testMainWithInsufficientArguments() {
         String[] insufficientArgs = {"developer"};
@@ -0,0 +1,87 @@
+package metrics;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PipelineMetricsTest {
+
+    @Test
+    void testRatesAndUtilization() {
+        PipelineMetrics metrics = new PipelineMetrics();
+        metrics.setParallelism(2);
+        metrics.recordParsedFile(1000, TimeUnit.MILLISECONDS.toNanos(500));
+        metrics.recordParsedFile(3000, TimeUnit.MILLISECONDS.toNanos(500));
+        metrics.recordParsingStage(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(metrics.getParsedFiles()).isEqualTo(2);
+        assertThat(metrics.getFilesPerSecond()).isEqualTo(2.0);
+        assertThat(metrics.getBytesPerSecond()).isEqualTo(4000.0);
+        assertThat(metrics.getThreadUtilization()).isEqualTo(0.5);
+    }
+
+    @Test
+    void testQueueDepth() {
+        PipelineMetrics metrics = new PipelineMetrics();
+        metrics.taskSubmitted();
+        metrics.taskSubmitted();
+        metrics.taskSubmitted();
+        metrics.taskStarted();
+
+        assertThat(metrics.getQueueDepth()).isEqualTo(2);
+        assertThat(metrics.getMaxQueueDepth()).isEqualTo(3);
+
+        metrics.taskDropped();
+        assertThat(metrics.getQueueDepth()).isEqualTo(1);
+    }
+
+    @Test
+    void testLatencyPercentiles() {
+        PipelineMetrics metrics = new PipelineMetrics();
+        for (int i = 0; i < 99; i++) {
+            metrics.recordParsedFile(1, TimeUnit.MICROSECONDS.toNanos(100));
+        }
+        metrics.recordParsedFile(1, TimeUnit.MICROSECONDS.toNanos(5000));
+
+        assertThat(metrics.getParseLatencyP50Micros()).isEqualTo(127);
+        assertThat(metrics.getParseLatencyP99Micros()).isEqualTo(127);
+        assertThat(metrics.latencyPercentile(1.0)).isEqualTo(8191);
+    }
+
+    @Test
+    void testJsonSummary() throws IOException {
+        PipelineMetrics metrics = new PipelineMetrics();
+        metrics.recordListing(3, 0);
+        metrics.recordDistinctKeys("genre", 12);
+        metrics.recordReport(12, 0);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        metrics.writeJson(out);
+
+        Map<String, String> fields = new HashMap<>();
+        try (JsonParser parser = new JsonFactory().createParser(out.toByteArray())) {
+            String path = "";
+            while (parser.nextToken() != null) {
+                if (parser.currentToken() == JsonToken.FIELD_NAME) {
+                    path = parser.getParsingContext().getParent().getCurrentName() + "." + parser.currentName();
+                } else if (parser.currentToken().isScalarValue()) {
+                    fields.put(path, parser.getText());
+                }
+            }
+        }
+
+        assertThat(fields).containsEntry("listing.files", "3")
+                .containsEntry("distinctKeys.genre", "12")
+                .containsEntry("writing.reports", "1")
+                .containsKey("parsing.bytesPerSecond");
+    }
+}
@@ -0,0 +1,138 @@
+package parsing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ColumnarStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWriteAndCount() throws IOException {
+        File file = Files.writeString(tempDir.resolve("games.json"), "[]").toFile();
+        Path storeFile = tempDir.resolve(ColumnarStore.FILE_NAME);
+        Map<String, ColumnBuilder> columns = new LinkedHashMap<>();
+        columns.put("genre", column("Action", "RPG", "Action"));
+        columns.put("yearReleased", column("2017", "1998", "2017", "2017"));
+
+        ColumnarStore.write(storeFile, ColumnarStore.fingerprint(tempDir, List.of(file)), columns);
+        ColumnarStore store = ColumnarStore.open(storeFile);
+
+        assertThat(store).isNotNull();
+        assertThat(store.isCurrent(List.of(file))).isTrue();
+        assertThat(store.hasColumn("developer.name")).isFalse();
+        assertThat(store.count("genre")).isEqualTo(Map.of("Action", 2, "RPG", 1));
+        assertThat(store.count("yearReleased")).isEqualTo(Map.of("2017", 3, "1998", 1));
+    }
+
+    @Test
+    void testNonCanonicalIntegersAreKeptAsText() throws IOException {
+        File file = Files.writeString(tempDir.resolve("games.json"), "[]").toFile();
+        Path storeFile = tempDir.resolve(ColumnarStore.FILE_NAME);
+        Map<String, ColumnBuilder> columns = Map.of(
+                "yearReleased", column("2017", "-0", "2017.0"),
+                "developer.name", column("1", "100000000"));
+
+        ColumnarStore.write(storeFile, ColumnarStore.fingerprint(tempDir, List.of(file)), columns);
+        ColumnarStore store = ColumnarStore.open(storeFile);
+
+        assertThat(store.count("yearReleased")).isEqualTo(Map.of("2017", 1, "-0", 1, "2017.0", 1));
+        assertThat(store.count("developer.name")).isEqualTo(Map.of("1", 1, "100000000", 1));
+    }
+
+    @Test
+    void testChangedFilesMakeStoreOutdated() throws IOException {
+        File first = Files.writeString(tempDir.resolve("first.json"), "[]").toFile();
+        Path storeFile = tempDir.resolve(ColumnarStore.FILE_NAME);
+        ColumnarStore.write(storeFile, ColumnarStore.fingerprint(tempDir, List.of(first)), Map.of("genre", column("RPG")));
+        ColumnarStore store = ColumnarStore.open(storeFile);
+
+        File second = Files.writeString(tempDir.resolve("second.json"), "[]").toFile();
+        assertThat(store.isCurrent(List.of(first, second))).isFalse();
+
+        Files.writeString(first.toPath(), "[ ]");
+        assertThat(store.isCurrent(List.of(first))).isFalse();
+    }
+
+    @Test
+    void testCorruptedStoreIsIgnored() throws IOException {
+        Path storeFile = Files.writeString(tempDir.resolve(ColumnarStore.FILE_NAME), "not a store");
+
+        assertThat(ColumnarStore.open(storeFile)).isNull();
+        assertThat(ColumnarStore.open(tempDir.resolve("missing.columns"))).isNull();
+    }
+
+    @Test
+    void testTruncatedStoreIsIgnored() throws IOException {
+        File file = Files.writeString(tempDir.resolve("games.json"), "[]").toFile();
+        Path storeFile = tempDir.resolve(ColumnarStore.FILE_NAME);
+        Map<String, ColumnBuilder> columns = new LinkedHashMap<>();
+        columns.put("genre", column("Action", "RPG", "Action"));
+        columns.put("yearReleased", column("2017", "1998"));
+        ColumnarStore.write(storeFile, ColumnarStore.fingerprint(tempDir, List.of(file)), columns);
+        byte[] bytes = Files.readAllBytes(storeFile);
+
+        for (int length = 0; length < bytes.length; length++) {
+            Files.write(storeFile, Arrays.copyOf(bytes, length));
+            assertThat(ColumnarStore.open(storeFile)).as("store truncated to %d bytes", length).isNull();
+        }
+    }
+
+    @Test
+    void testStoreWithInvalidColumnLengthIsIgnored() throws IOException {
+        File file = Files.writeString(tempDir.resolve("games.json"), "[]").toFile();
+        Path storeFile = tempDir.resolve(ColumnarStore.FILE_NAME);
+        ColumnarStore.write(storeFile, ColumnarStore.fingerprint(tempDir, List.of(file)),
+                Map.of("genre", column("Action", "RPG")));
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(storeFile));
+        int valueCountOffset = bytes.capacity() - Long.BYTES - Integer.BYTES;
+
+        Files.write(storeFile, bytes.putInt(valueCountOffset, 1_000).array());
+
+        assertThat(ColumnarStore.open(storeFile)).isNull();
+    }
+
+    @Test
+    void testRewrittenStoreIsChanged() throws IOException {
+        File file = Files.writeString(tempDir.resolve("games.json"), "[]").toFile();
+        Path storeFile = tempDir.resolve(ColumnarStore.FILE_NAME);
+        ColumnarStore.write(storeFile, ColumnarStore.fingerprint(tempDir, List.of(file)), Map.of("genre", column("RPG")));
+        ColumnarStore store = ColumnarStore.open(storeFile);
+
+        assertThat(store.isUnchanged()).isTrue();
+
+        ColumnarStore.write(storeFile, ColumnarStore.fingerprint(tempDir, List.of(file)), Map.of("genre", column("RPG")));
+        assertThat(store.isUnchanged()).isFalse();
+    }
+
+    @Test
+    void testMergedColumnsKeepAllValues() {
+        ColumnBuilder first = column("Action", "RPG");
+        first.merge(column("RPG", "Puzzle"));
+
+        assertThat(first.size()).isEqualTo(4);
+        assertThat(first.dictionary().size()).isEqualTo(3);
+        assertThat(first.dictionary().value(first.id(3))).isEqualTo("Puzzle");
+    }
+
+    private static ColumnBuilder column(String... values) {
+        ColumnBuilder column = new ColumnBuilder();
+        for (String value : values) {
+            column.add(value.toCharArray(), 0, value.length());
+        }
+        return column;
+    }
+}
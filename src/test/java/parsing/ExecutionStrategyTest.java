@@ -0,0 +1,74 @@
+package parsing;
+
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import exceptions.TaskExecutionException;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ExecutionStrategyTest {
+
+    @Test
+    void testFromName() {
+        assertThat(ExecutionStrategy.fromName("fixed")).isEqualTo(ExecutionStrategy.FIXED);
+        assertThat(ExecutionStrategy.fromName("fork-join")).isEqualTo(ExecutionStrategy.FORK_JOIN);
+        assertThat(ExecutionStrategy.fromName("virtual")).isEqualTo(ExecutionStrategy.VIRTUAL);
+    }
+
+    @Test
+    void testUnknownName() {
+        assertThatThrownBy(() -> ExecutionStrategy.fromName("cached"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Unknown executor cached");
+    }
+
+    @Test
+    void testFixedAndForkJoinExecutorsRunTasks() throws Exception {
+        for (ExecutionStrategy strategy : new ExecutionStrategy[]{ExecutionStrategy.FIXED, ExecutionStrategy.FORK_JOIN}) {
+            ExecutorService executor = strategy.createExecutor();
+            Future<Integer> result = executor.submit(() -> 42);
+
+            assertThat(result.get()).isEqualTo(42);
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testDaemonThreadsAreNumberedByPrefix() {
+        ThreadFactory factory = ExecutionStrategy.daemonThreadFactory("stats-test-");
+
+        Thread first = factory.newThread(() -> {
+        });
+        Thread second = factory.newThread(() -> {
+        });
+
+        assertThat(first.isDaemon()).isTrue();
+        assertThat(first.getName()).isEqualTo("stats-test-1");
+        assertThat(second.getName()).isEqualTo("stats-test-2");
+    }
+
+    @Test
+    void testRecyclerPools() {
+        assertThat(ExecutionStrategy.FIXED.recyclerPool()).isSameAs(JsonRecyclerPools.threadLocalPool());
+        assertThat(ExecutionStrategy.FORK_JOIN.recyclerPool()).isSameAs(JsonRecyclerPools.threadLocalPool());
+        assertThat(ExecutionStrategy.VIRTUAL.recyclerPool()).isSameAs(JsonRecyclerPools.sharedLockFreePool());
+    }
+
+    @Test
+    void testVirtualExecutorRequiresJava21() throws Exception {
+        if (Runtime.version().feature() >= 21) {
+            ExecutorService executor = ExecutionStrategy.VIRTUAL.createExecutor();
+            assertThat(executor.submit(() -> 42).get()).isEqualTo(42);
+            executor.shutdown();
+        } else {
+            assertThatThrownBy(ExecutionStrategy.VIRTUAL::createExecutor)
+                    .isInstanceOf(TaskExecutionException.class)
+                    .hasMessageContaining("Virtual threads require Java 21 or newer");
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package parsing;
+
+import exceptions.InvalidAttributeException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FieldPathTest {
+
+    @Test
+    void testScalarFieldPath() {
+        FieldPath path = FieldPath.of("yearReleased");
+
+        assertThat(path.getAttribute()).isEqualTo("yearReleased");
+        assertThat(path.segments()).containsExactly("yearReleased");
+    }
+
+    @Test
+    void testNestedObjectResolvesToItsName() {
+        assertThat(FieldPath.of("developer").segments()).containsExactly("developer", "name");
+        assertThat(FieldPath.of("developer.name").segments()).containsExactly("developer", "name");
+    }
+
+    @Test
+    void testSegmentsAreInterned() {
+        String segment = FieldPath.of(new String("title")).segments()[0];
+
+        assertThat(segment).isSameAs("title");
+    }
+
+    @Test
+    void testAvailableFields() {
+        assertThat(FieldPath.availableFields())
+                .isEqualTo(List.of("title", "developer", "developer.name", "yearReleased", "genre"));
+    }
+
+    @Test
+    void testInvalidPaths() {
+        for (String attribute : List.of("dev", "developer.id", "title.name", "developer.", "")) {
+            assertThatThrownBy(() -> FieldPath.of(attribute))
+                    .isInstanceOf(InvalidAttributeException.class)
+                    .hasMessageContaining("Attribute " + attribute + " does not exist.");
+        }
+    }
+}
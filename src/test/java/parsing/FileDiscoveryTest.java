@@ -0,0 +1,107 @@
+package parsing;
+
+import exceptions.InvalidFolderException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FileDiscoveryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(tempDir.resolve("top.json"), "[]");
+        Files.writeString(tempDir.resolve("notes.txt"), "");
+        Files.createDirectories(tempDir.resolve("2024/01"));
+        Files.writeString(tempDir.resolve("2024/01/day.json"), "[]");
+        Files.createDirectories(tempDir.resolve("2024/tmp"));
+        Files.writeString(tempDir.resolve("2024/tmp/partial.json"), "[]");
+    }
+
+    @Test
+    void testDirectChildrenByDefaultDepth() {
+        List<File> files = new FileDiscovery("**.json", null, 1).discover(tempDir, file -> {
+        });
+
+        assertThat(files).containsExactly(tempDir.resolve("top.json").toFile());
+    }
+
+    @Test
+    void testNestedFilesAreHandedToConsumerAsFound() {
+        List<File> consumed = new ArrayList<>();
+
+        List<File> files = new FileDiscovery("**.json", null, 3).discover(tempDir, consumed::add);
+
+        assertThat(files).containsExactlyInAnyOrder(tempDir.resolve("top.json").toFile(),
+                tempDir.resolve("2024/01/day.json").toFile(), tempDir.resolve("2024/tmp/partial.json").toFile());
+        assertThat(consumed).isEqualTo(files);
+    }
+
+    @Test
+    void testIncludeAndExcludeGlobs() {
+        List<File> files = new FileDiscovery("2024/**.json", "**/tmp", 3).discover(tempDir, file -> {
+        });
+
+        assertThat(files).containsExactly(tempDir.resolve("2024/01/day.json").toFile());
+    }
+
+    @Test
+    void testDepthLimitsNestedFiles() {
+        List<File> files = new FileDiscovery("**.json", null, 2).discover(tempDir, file -> {
+        });
+
+        assertThat(files).containsExactly(tempDir.resolve("top.json").toFile());
+    }
+
+    @Test
+    void testSymbolicLinksToFilesAreFound(@TempDir Path targetDir) throws IOException {
+        Path target = Files.writeString(targetDir.resolve("target.json"), "[]");
+        Files.createSymbolicLink(tempDir.resolve("linked.json"), target);
+        Files.createSymbolicLink(tempDir.resolve("broken.json"), targetDir.resolve("missing.json"));
+
+        List<File> files = new FileDiscovery("**.json", null, 1).discover(tempDir, file -> {
+        });
+
+        assertThat(files).containsExactlyInAnyOrder(tempDir.resolve("top.json").toFile(),
+                tempDir.resolve("linked.json").toFile());
+    }
+
+    @Test
+    void testSingleFilesAndFoldersMatchLikeDiscovery() {
+        FileDiscovery discovery = new FileDiscovery("**.json", "**/tmp", 2);
+
+        assertThat(discovery.matches(tempDir, tempDir.resolve("2024/a.json"))).isTrue();
+        assertThat(discovery.matches(tempDir, tempDir.resolve("2024/a.txt"))).isFalse();
+        assertThat(discovery.matches(tempDir, tempDir.resolve("2024/tmp/a.json"))).isFalse();
+        assertThat(discovery.matches(tempDir, tempDir.resolve("2024/01/a.json"))).isFalse();
+        assertThat(discovery.isSearched(tempDir, tempDir.resolve("2024"))).isTrue();
+        assertThat(discovery.isSearched(tempDir, tempDir.resolve("2024/01"))).isFalse();
+        assertThat(discovery.isSearched(tempDir, tempDir.resolve("2024/tmp"))).isFalse();
+    }
+
+    @Test
+    void testEmptyFolder() throws IOException {
+        Path empty = Files.createDirectory(tempDir.resolve("empty"));
+
+        assertThatThrownBy(() -> new FileDiscovery("**.json", null, 1).discover(empty, file -> {
+        })).isInstanceOf(InvalidFolderException.class).hasMessageContaining("does not contain any files");
+    }
+
+    @Test
+    void testMissingFolder() {
+        assertThatThrownBy(() -> new FileDiscovery("**.json", null, 1).discover(tempDir.resolve("missing"), file -> {
+        })).isInstanceOf(InvalidFolderException.class);
+    }
+}
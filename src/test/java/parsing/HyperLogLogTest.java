@@ -0,0 +1,71 @@
+package parsing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HyperLogLogTest {
+
+    @Test
+    void testSmallCardinalityIsNearlyExact() {
+        HyperLogLog sketch = new HyperLogLog(14);
+        for (int i = 0; i < 1000; i++) {
+            sketch.add("Developer " + (i % 100));
+        }
+
+        assertThat(sketch.estimate().estimate()).isBetween(99L, 101L);
+    }
+
+    @Test
+    void testLargeCardinalityWithinErrorBound() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        int distinct = 500_000;
+        for (int i = 0; i < distinct; i++) {
+            sketch.add("Game " + i);
+        }
+
+        CardinalityEstimate estimate = sketch.estimate();
+        assertThat(estimate.relativeError()).isEqualTo(1.04 / 64);
+        assertThat(estimate.estimate()).isBetween((long) (distinct * (1 - 4 * estimate.relativeError())),
+                (long) (distinct * (1 + 4 * estimate.relativeError())));
+    }
+
+    @Test
+    void testMergeEqualsSketchOfAllValues() {
+        HyperLogLog first = new HyperLogLog(10);
+        HyperLogLog second = new HyperLogLog(10);
+        HyperLogLog all = new HyperLogLog(10);
+        for (int i = 0; i < 20_000; i++) {
+            (i % 2 == 0 ? first : second).add("Title " + i);
+            all.add("Title " + i);
+        }
+
+        first.merge(second);
+
+        assertThat(first.estimate()).isEqualTo(all.estimate());
+    }
+
+    @Test
+    void testAddByCharacterRange() {
+        HyperLogLog bySubstring = new HyperLogLog(8);
+        HyperLogLog byString = new HyperLogLog(8);
+        char[] buffer = "Action, Adventure".toCharArray();
+        bySubstring.add(buffer, 0, 6);
+        bySubstring.add(buffer, 8, 9);
+        byString.add("Action");
+        byString.add("Adventure");
+
+        assertThat(bySubstring.estimate()).isEqualTo(byString.estimate());
+        assertThat(bySubstring.estimate().estimate()).isEqualTo(2);
+    }
+
+    @Test
+    void testInvalidPrecision() {
+        assertThatThrownBy(() -> new HyperLogLog(3))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Precision must be between 4 and 18");
+        assertThatThrownBy(() -> new HyperLogLog(8).merge(new HyperLogLog(9)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
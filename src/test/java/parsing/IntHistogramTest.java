@@ -0,0 +1,101 @@
+package parsing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntHistogramTest {
+
+    @Test
+    void testSummary() {
+        IntHistogram histogram = new IntHistogram();
+        for (int year : new int[]{2017, 1998, 2001, 2017, 2009}) {
+            histogram.add(year);
+        }
+
+        NumericSummary summary = histogram.summary(10);
+
+        assertThat(summary.count()).isEqualTo(5);
+        assertThat(summary.min()).isEqualTo(1998);
+        assertThat(summary.max()).isEqualTo(2017);
+        assertThat(summary.mean()).isEqualTo(2008.4);
+        assertThat(summary.median()).isEqualTo(2009);
+        assertThat(summary.p90()).isEqualTo(2017);
+        assertThat(summary.buckets()).containsExactly(Map.entry(1990, 1L), Map.entry(2000, 2L), Map.entry(2010, 2L));
+    }
+
+    @Test
+    void testGrowsInBothDirections() {
+        IntHistogram histogram = new IntHistogram();
+        histogram.add(1000);
+        histogram.add(5000);
+        histogram.add(-3000);
+        histogram.add(999_999);
+        histogram.add(1000);
+
+        NumericSummary summary = histogram.summary(1000);
+
+        assertThat(summary.min()).isEqualTo(-3000);
+        assertThat(summary.max()).isEqualTo(999_999);
+        assertThat(summary.median()).isEqualTo(1000);
+        assertThat(summary.buckets())
+                .containsExactly(Map.entry(-3000, 1L), Map.entry(1000, 2L), Map.entry(5000, 1L), Map.entry(999_000, 1L));
+    }
+
+    @Test
+    void testMerge() {
+        IntHistogram first = new IntHistogram();
+        IntHistogram second = new IntHistogram();
+        first.add(1990);
+        second.add(1985);
+        second.add(1990);
+
+        first.merge(second);
+
+        NumericSummary summary = first.summary(10);
+        assertThat(summary.count()).isEqualTo(3);
+        assertThat(summary.buckets()).containsExactly(Map.entry(1980, 1L), Map.entry(1990, 2L));
+    }
+
+    @Test
+    void testEmptyHistogramHasNoSummary() {
+        assertThat(new IntHistogram().summary(10)).isNull();
+    }
+
+    @Test
+    void testWideRangeFallsBackToSparseCounts() {
+        IntHistogram histogram = new IntHistogram();
+        histogram.add(0);
+        histogram.add(5);
+        histogram.add(Integer.MAX_VALUE);
+        histogram.add(Integer.MIN_VALUE + 1);
+        IntHistogram other = new IntHistogram();
+        other.add(5);
+        histogram.merge(other);
+
+        NumericSummary summary = histogram.summary(1);
+
+        assertThat(summary.count()).isEqualTo(5);
+        assertThat(summary.min()).isEqualTo(Integer.MIN_VALUE + 1);
+        assertThat(summary.max()).isEqualTo(Integer.MAX_VALUE);
+        assertThat(summary.median()).isEqualTo(5);
+        assertThat(summary.buckets()).containsExactly(Map.entry(Integer.MIN_VALUE + 1, 1L), Map.entry(0, 1L),
+                Map.entry(5, 2L), Map.entry(Integer.MAX_VALUE, 1L));
+    }
+
+    @Test
+    void testSparseHistogramMergesIntoDenseOne() {
+        IntHistogram sparse = new IntHistogram();
+        sparse.add(-1_000_000_000);
+        sparse.add(1_000_000_000);
+        IntHistogram dense = new IntHistogram();
+        dense.add(7);
+
+        dense.merge(sparse);
+
+        assertThat(dense.summary(10).buckets()).containsExactly(Map.entry(-1_000_000_000, 1L), Map.entry(0, 1L),
+                Map.entry(1_000_000_000, 1L));
+    }
+}
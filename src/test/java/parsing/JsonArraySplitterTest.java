@@ -0,0 +1,108 @@
+package parsing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonArraySplitterTest {
+
+    private static final String JSON = """
+            [
+              { "title": "A, [tricky] {title}", "genre": "Action" },
+              { "title": "Quote \\" ], {", "genre": "RPG" },
+              { "title": "C", "developer": { "name": "Dev, Inc" }, "genre": "Platformer" }
+            ]""";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSmallFileIsKeptWhole() throws IOException {
+        File file = write("small.json", JSON);
+
+        List<FileChunk> chunks = split(new JsonArraySplitter(1024), file);
+
+        assertThat(chunks).containsExactly(FileChunk.wholeFile(file));
+    }
+
+    @Test
+    void testSplitOnTopLevelElementBoundaries() throws IOException {
+        File file = write("large.json", JSON);
+
+        List<FileChunk> chunks = split(new JsonArraySplitter(1), file);
+
+        assertThat(chunks).hasSize(3);
+        assertThat(read(chunks.get(0))).isEqualTo("[\n  { \"title\": \"A, [tricky] {title}\", \"genre\": \"Action\" }]");
+        assertThat(read(chunks.get(1))).isEqualTo("[\n  { \"title\": \"Quote \\\" ], {\", \"genre\": \"RPG\" }]");
+        assertThat(read(chunks.get(2))).startsWith("[\n  { \"title\": \"C\"").endsWith("\"Platformer\" }\n]");
+    }
+
+    @Test
+    void testConcatenatedArraysAreSplitArrayByArray() throws IOException {
+        File file = write("concatenated.json", "[{\"genre\": \"Action\"}, {\"genre\": \"RPG\"}]\n[{\"genre\": \"Puzzle\"}]\n");
+
+        List<FileChunk> chunks = split(new JsonArraySplitter(1), file);
+
+        assertThat(chunks).hasSize(3);
+        assertThat(read(chunks.get(0))).isEqualTo("[{\"genre\": \"Action\"}]");
+        assertThat(read(chunks.get(1))).isEqualTo("[ {\"genre\": \"RPG\"}]");
+        assertThat(read(chunks.get(2))).isEqualTo("[{\"genre\": \"Puzzle\"}]");
+    }
+
+    @Test
+    void testValuesFollowingArraysBecomeLastChunk() throws IOException {
+        File file = write("mixed.json", "[{\"genre\": \"Action\"}, {\"genre\": \"RPG\"}] {\"genre\": \"Puzzle\"} [1]");
+
+        List<FileChunk> chunks = split(new JsonArraySplitter(1), file);
+
+        assertThat(chunks).hasSize(3);
+        assertThat(read(chunks.get(1))).isEqualTo("[ {\"genre\": \"RPG\"}]");
+        assertThat(chunks.get(2).lines()).isTrue();
+        assertThat(read(chunks.get(2))).isEqualTo("{\"genre\": \"Puzzle\"} [1]");
+    }
+
+    @Test
+    void testTruncatedArrayEndsInLastChunk() throws IOException {
+        File file = write("truncated.json", "[{\"genre\": \"Action\"}, {\"genre\": \"RP");
+
+        List<FileChunk> chunks = split(new JsonArraySplitter(1), file);
+
+        assertThat(chunks).hasSize(2);
+        assertThat(read(chunks.get(1))).isEqualTo("[ {\"genre\": \"RP]");
+    }
+
+    @Test
+    void testNonArrayFileIsKeptWhole() throws IOException {
+        File file = write("object.json", "{ \"title\": \"A\", \"genre\": \"Action\" }");
+
+        List<FileChunk> chunks = split(new JsonArraySplitter(1), file);
+
+        assertThat(chunks).containsExactly(FileChunk.wholeFile(file));
+    }
+
+    private static List<FileChunk> split(JsonArraySplitter splitter, File file) throws IOException {
+        List<FileChunk> chunks = new ArrayList<>();
+        splitter.split(file, chunks::add);
+        return chunks;
+    }
+
+    private File write(String name, String content) throws IOException {
+        return Files.writeString(tempDir.resolve(name), content).toFile();
+    }
+
+    private String read(FileChunk chunk) throws IOException {
+        try (InputStream in = new JsonInputOpener(ParsingConfig.defaults()).open(chunk)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
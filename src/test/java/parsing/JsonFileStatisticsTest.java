@@ -1,17 +1,35 @@
 package parsing;
 
 import com.fasterxml.jackson.core.JsonParser;
+import io.airlift.compress.zstd.ZstdOutputStream;
+import exceptions.InvalidAttributeException;
 import exceptions.InvalidFolderException;
 import exceptions.TaskExecutionException;
+import metrics.PipelineMetrics;
 import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -40,7 +58,7 @@ public class JsonFileStatisticsTest {
     static void setUpBeforeClass() {
         try {
             dir = Files.createDirectory(Path.of("testDir"));
-            file = Files.createFile(Path.of("testDir\\testFile.json"));
+            file = Files.createFile(dir.resolve("testFile.json"));
             Files.write(file, JSON.getBytes());
         } catch (IOException e) {
             throw new RuntimeException(e);
@@ -62,6 +80,11 @@ public class JsonFileStatisticsTest {
         jfs = new JsonFileStatistics();
     }
 
+    @AfterEach
+    void tearDown() {
+        jfs.close();
+    }
+
 
     @Test
     void testCollectStatsSuccess() {
@@ -79,6 +102,464 @@ public class JsonFileStatisticsTest {
         assertThat(stats).isEqualTo(expectedStats);
     }
 
+    @Test
+    void testSeveralAttributesCollectedInOnePass() {
+        Map<String, Map<String, Integer>> stats = jfs.collectStats(dir, Set.of("genre", "developer", "yearReleased"));
+
+        assertThat(stats).containsOnlyKeys("genre", "developer", "yearReleased");
+        assertThat(stats.get("genre")).isEqualTo(Map.of("Action", 1, "Adventure", 1));
+        assertThat(stats.get("developer")).isEqualTo(Map.of("Nintendo EPD", 1));
+        assertThat(stats.get("yearReleased")).isEqualTo(Map.of("2017", 1));
+    }
+
+    @Test
+    void testAnyFieldPathCanBeCollected(@TempDir Path pathDir) throws IOException {
+        Files.writeString(pathDir.resolve("paths.json"), """
+                [
+                  {
+                    "title": "Zelda",
+                    "extra": { "genre": "Ignored", "title": ["Ignored"] },
+                    "developer": { "country": "Japan", "name": "Nintendo EPD" },
+                    "genre": "Action"
+                  },
+                  {
+                    "developer": "Unknown",
+                    "title": "Tetris"
+                  }
+                ]""");
+
+        Map<String, Map<String, Integer>> stats =
+                jfs.collectStats(pathDir, Set.of("title", "developer", "developer.name", "genre"));
+
+        assertThat(stats.get("title")).isEqualTo(Map.of("Zelda", 1, "Tetris", 1));
+        assertThat(stats.get("developer")).isEqualTo(Map.of("Nintendo EPD", 1));
+        assertThat(stats.get("developer.name")).isEqualTo(Map.of("Nintendo EPD", 1));
+        assertThat(stats.get("genre")).isEqualTo(Map.of("Action", 1));
+    }
+
+    @Test
+    void testFieldsAreMatchedInAnyOrder(@TempDir Path orderDir) throws IOException {
+        Files.writeString(orderDir.resolve("games.json"), """
+                [
+                  {"genre": "Action", "title": "A", "developer": {"name": "Nintendo EPD", "country": "Japan"}},
+                  {"developer": {"country": "Japan", "name": "Capcom"}, "extra": {"genre": "Ignored"}, "genre": "RPG"},
+                  {"title": "C", "genre": "Puzzle"},
+                  {"developer": {"name": "Capcom"}}
+                ]""");
+
+        Map<String, Map<String, Integer>> stats = jfs.collectStats(orderDir, Set.of("genre", "developer"));
+
+        assertThat(stats.get("genre")).isEqualTo(Map.of("Action", 1, "RPG", 1, "Puzzle", 1));
+        assertThat(stats.get("developer")).isEqualTo(Map.of("Nintendo EPD", 1, "Capcom", 2));
+    }
+
+    @Test
+    void testNumericStatsGroupedByGenre(@TempDir Path numericDir) throws IOException {
+        Files.writeString(numericDir.resolve("numeric.json"), """
+                [
+                  { "yearReleased": 2017, "genre": "Action, Adventure" },
+                  { "genre": "Action", "yearReleased": 1998 },
+                  { "yearReleased": "2005", "genre": "Puzzle" },
+                  { "genre": "Puzzle" }
+                ]""");
+
+        NumericStatistics stats = jfs.collectNumericStats(numericDir, "yearReleased", "genre", 10);
+
+        assertThat(stats.overall().count()).isEqualTo(3);
+        assertThat(stats.overall().min()).isEqualTo(1998);
+        assertThat(stats.overall().max()).isEqualTo(2017);
+        assertThat(stats.overall().buckets()).containsExactly(Map.entry(1990, 1L), Map.entry(2000, 1L), Map.entry(2010, 1L));
+        assertThat(stats.groups()).containsOnlyKeys("Action", "Adventure", "Puzzle");
+        assertThat(stats.groups().get("Action").count()).isEqualTo(2);
+        assertThat(stats.groups().get("Action").mean()).isEqualTo(2007.5);
+        assertThat(stats.groups().get("Puzzle").median()).isEqualTo(2005);
+    }
+
+    @Test
+    void testNonIntegralNumbersAreSkipped(@TempDir Path numericDir) throws IOException {
+        Files.writeString(numericDir.resolve("numeric.json"), """
+                [
+                  { "yearReleased": 2017 },
+                  { "yearReleased": 2017.9 },
+                  { "yearReleased": 1e3 },
+                  { "yearReleased": 3000000000 },
+                  { "yearReleased": "unknown" },
+                  { "yearReleased": "1998" }
+                ]""");
+
+        NumericStatistics stats = jfs.collectNumericStats(numericDir, "yearReleased", null, 10);
+
+        assertThat(stats.overall().count()).isEqualTo(2);
+        assertThat(stats.overall().max()).isEqualTo(2017);
+        assertThat(stats.skipped()).isEqualTo(4);
+    }
+
+    @Test
+    void testNumericStatsWithoutGrouping() {
+        NumericStatistics stats = jfs.collectNumericStats(dir, "yearReleased", null, 10);
+
+        assertThat(stats.overall().count()).isEqualTo(1);
+        assertThat(stats.overall().median()).isEqualTo(2017);
+        assertThat(stats.groups()).isEmpty();
+    }
+
+    @Test
+    void testCrossTabStats(@TempDir Path crossTabDir) throws IOException {
+        Files.writeString(crossTabDir.resolve("first.json"), """
+                [
+                  { "yearReleased": 2017, "genre": "Action, Adventure" },
+                  { "genre": "Action", "yearReleased": 2017 }
+                ]""");
+        Files.writeString(crossTabDir.resolve("second.json"), """
+                [
+                  { "yearReleased": 1998, "genre": "Action" },
+                  { "genre": "Puzzle" }
+                ]""");
+
+        Map<String, Map<String, Long>> stats = jfs.collectCrossTabStats(crossTabDir, "yearReleased", "genre");
+
+        assertThat(stats).isEqualTo(Map.of(
+                "1998", Map.of("Action", 1L),
+                "2017", Map.of("Action", 2L, "Adventure", 1L)));
+        assertThat(stats.keySet()).containsExactly("1998", "2017");
+    }
+
+    @Test
+    void testCrossTabGroupsAreOrderedNumerically(@TempDir Path crossTabDir) throws IOException {
+        Files.writeString(crossTabDir.resolve("games.json"), """
+                [
+                  { "yearReleased": 10, "genre": "RPG, Action" },
+                  { "yearReleased": 9, "genre": "Action" },
+                  { "yearReleased": 100, "genre": "Action" }
+                ]""");
+
+        Map<String, Map<String, Long>> byYear = jfs.collectCrossTabStats(crossTabDir, "yearReleased", "genre");
+        Map<String, Map<String, Long>> byGenre = jfs.collectCrossTabStats(crossTabDir, "genre", "yearReleased");
+
+        assertThat(byYear.keySet()).containsExactly("9", "10", "100");
+        assertThat(byYear.get("10").keySet()).containsExactly("Action", "RPG");
+        assertThat(byGenre.keySet()).containsExactly("Action", "RPG");
+        assertThat(byGenre.get("Action").keySet()).containsExactly("9", "10", "100");
+    }
+
+    @Test
+    void testSeveralNumericAttributesAggregatedInOnePass(@TempDir Path numericDir) throws IOException {
+        Files.writeString(numericDir.resolve("numeric.json"), """
+                [
+                  { "title": "1942", "yearReleased": 2017, "genre": "Action" },
+                  { "genre": "Action", "yearReleased": 1998, "title": "Tetris" },
+                  { "yearReleased": 2005, "genre": "Puzzle", "title": "2048" }
+                ]""");
+
+        Map<String, NumericStatistics> stats =
+                jfs.collectNumericStats(numericDir, List.of("yearReleased", "title"), "genre", 10);
+
+        assertThat(stats).containsOnlyKeys("yearReleased", "title");
+        assertThat(stats.get("yearReleased").overall().count()).isEqualTo(3);
+        assertThat(stats.get("yearReleased").groups().get("Action").mean()).isEqualTo(2007.5);
+        assertThat(stats.get("title").overall().count()).isEqualTo(2);
+        assertThat(stats.get("title").groups().get("Puzzle").median()).isEqualTo(2048);
+        assertThat(stats.get("title").groups().get("Action").count()).isEqualTo(1);
+    }
+
+    @Test
+    void testSeveralCrossTabAttributesCollectedInOnePass() {
+        Map<String, Map<String, Map<String, Long>>> stats =
+                jfs.collectCrossTabStats(dir, "yearReleased", List.of("genre", "developer"));
+
+        assertThat(stats.get("genre")).isEqualTo(Map.of("2017", Map.of("Action", 1L, "Adventure", 1L)));
+        assertThat(stats.get("developer")).isEqualTo(Map.of("2017", Map.of("Nintendo EPD", 1L)));
+    }
+
+    @Test
+    void testUnknownAttribute() {
+        assertThatThrownBy(() -> jfs.collectStats(dir, "developer.id"))
+                .isInstanceOf(InvalidAttributeException.class);
+    }
+
+    @Test
+    void testExecutorIsReusedAcrossRuns() {
+        Map<String, Integer> expectedStats = Map.of("Action", 1, "Adventure", 1);
+
+        assertThat(jfs.collectStats(dir, "genre")).isEqualTo(expectedStats);
+        assertThat(jfs.collectStats(dir, "genre")).isEqualTo(expectedStats);
+    }
+
+    @Test
+    void testForkJoinStrategy() {
+        try (JsonFileStatistics forkJoin = new JsonFileStatistics(ExecutionStrategy.FORK_JOIN)) {
+            Map<String, Integer> stats = forkJoin.collectStats(dir, "developer");
+
+            assertThat(stats).isEqualTo(Map.of("Nintendo EPD", 1));
+        }
+    }
+
+    @Test
+    void testLargeFileIsParsedInChunks(@TempDir Path largeDir) throws IOException {
+        String game = """
+                  {
+                    "title": "Game, [part] {1}",
+                    "developer": { "name": "Nintendo EPD" },
+                    "yearReleased": 2017,
+                    "genre": "Action, Adventure"
+                  }""";
+        Files.writeString(largeDir.resolve("large.json"), "[" + String.join(",", Collections.nCopies(1000, game)) + "]");
+        ParsingConfig config = ParsingConfig.builder().chunkSize(1024).build();
+
+        try (JsonFileStatistics chunked = new JsonFileStatistics(ExecutionStrategy.FIXED.createExecutor(), config)) {
+            Map<String, Map<String, Integer>> stats = chunked.collectStats(largeDir, Set.of("genre", "developer"));
+
+            assertThat(stats.get("genre")).isEqualTo(Map.of("Action", 1000, "Adventure", 1000));
+            assertThat(stats.get("developer")).isEqualTo(Map.of("Nintendo EPD", 1000));
+        }
+    }
+
+    @Test
+    void testConcatenatedArraysAreParsedInChunks(@TempDir Path concatenatedDir) throws IOException {
+        String array = "[" + String.join(",", Collections.nCopies(200, "{\"genre\": \"Action\"}")) + "]\n";
+        Files.writeString(concatenatedDir.resolve("games.json"), array + array + "{\"genre\": \"RPG\"}\n" + array);
+        ParsingConfig config = ParsingConfig.builder().chunkSize(1024).build();
+
+        try (JsonFileStatistics chunked = new JsonFileStatistics(ExecutionStrategy.FIXED.createExecutor(), config)) {
+            assertThat(chunked.collectStats(concatenatedDir, "genre")).isEqualTo(Map.of("Action", 600, "RPG", 1));
+            assertThat(chunked.getMetrics().getParsedFiles()).isGreaterThan(3);
+        }
+    }
+
+    @Test
+    void testValuesAreSplitLikeStringSplit(@TempDir Path splitDir) throws IOException {
+        List<String> genres = List.of("Action", "", "Action, , RPG", "Action, ", ", Action", ", ", "RPG,Action");
+        StringBuilder json = new StringBuilder("[");
+        Map<String, Integer> expectedStats = new HashMap<>();
+        for (String genre : genres) {
+            json.append(json.length() > 1 ? "," : "").append("{\"genre\": \"").append(genre).append("\"}");
+            for (String value : genre.split(", ")) {
+                expectedStats.merge(value, 1, Integer::sum);
+            }
+        }
+        Files.writeString(splitDir.resolve("split.json"), json.append("]"));
+
+        assertThat(jfs.collectStats(splitDir, "genre")).isEqualTo(expectedStats);
+    }
+
+    @Test
+    void testTopStatsAreRankedByCount(@TempDir Path topDir) throws IOException {
+        Files.writeString(topDir.resolve("first.json"),
+                "[{\"genre\": \"Action, RPG\"}, {\"genre\": \"Action\"}, {\"genre\": \"Puzzle, Action\"}]");
+        Files.writeString(topDir.resolve("second.json"), "[{\"genre\": \"RPG, Strategy\"}]");
+
+        Map<String, List<RankedValue>> top = jfs.collectTopStats(topDir, Set.of("genre"), 2);
+
+        assertThat(top.get("genre")).containsExactly(new RankedValue("Action", 3, 0), new RankedValue("RPG", 2, 0));
+    }
+
+    @Test
+    void testTopStatsOnThreadPerTaskExecutor(@TempDir Path topDir) throws IOException {
+        for (int i = 0; i < 20; i++) {
+            Files.writeString(topDir.resolve("file" + i + ".json"), "[{\"genre\": \"Action, Genre " + i + "\"}]");
+        }
+        ExecutorService threadPerTask = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0L, TimeUnit.MILLISECONDS,
+                new SynchronousQueue<>());
+
+        try (JsonFileStatistics virtualLike = new JsonFileStatistics(threadPerTask)) {
+            Map<String, List<RankedValue>> top = virtualLike.collectTopStats(topDir, Set.of("genre"), 1);
+            Map<String, CardinalityEstimate> distinct = virtualLike.collectDistinctStats(topDir, Set.of("genre"), 10);
+
+            assertThat(top.get("genre")).containsExactly(new RankedValue("Action", 20, 0));
+            assertThat(distinct.get("genre").estimate()).isBetween(20L, 22L);
+        }
+    }
+
+    @Test
+    void testTopStatsWithInvalidLimit() {
+        assertThatThrownBy(() -> jfs.collectTopStats(dir, Set.of("genre"), 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Limit must be positive");
+    }
+
+    @Test
+    void testDistinctStatsAreEstimated(@TempDir Path distinctDir) throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 300; i++) {
+            json.append(i > 0 ? "," : "").append("{\"genre\": \"Genre ").append(i % 50).append(", Action\"}");
+        }
+        Files.writeString(distinctDir.resolve("distinct.json"), json.append("]"));
+
+        Map<String, CardinalityEstimate> estimates = jfs.collectDistinctStats(distinctDir, Set.of("genre"), 14);
+
+        assertThat(estimates.get("genre").estimate()).isBetween(50L, 52L);
+        assertThat(jfs.getMetrics().getDistinctKeys()).contains("genre=" + estimates.get("genre").estimate());
+    }
+
+    @Test
+    void testCacheParsesOnlyChangedFiles(@TempDir Path cacheDir) throws IOException {
+        Path jsonDir = Files.createDirectory(cacheDir.resolve("json"));
+        Path first = Files.writeString(jsonDir.resolve("first.json"), "[{\"genre\": \"Action\"}]");
+        Path second = Files.writeString(jsonDir.resolve("second.json"), "[{\"genre\": \"RPG\"}]");
+        ParsingConfig config = ParsingConfig.builder().cacheFile(cacheDir.resolve("stats.cache")).build();
+
+        try (JsonFileStatistics cached = new JsonFileStatistics(ExecutionStrategy.FIXED.createExecutor(), config)) {
+            assertThat(cached.collectStats(jsonDir, "genre")).isEqualTo(Map.of("Action", 1, "RPG", 1));
+            assertThat(cached.getMetrics().getListedFiles()).isEqualTo(2);
+        }
+
+        long lastModified = first.toFile().lastModified();
+        Files.writeString(first, "[{\"genre\": \"Oops!!\"}]");
+        assertThat(first.toFile().setLastModified(lastModified)).isTrue();
+        Files.delete(second);
+        Files.writeString(jsonDir.resolve("third.json"), "[{\"genre\": \"Action, Platformer\"}]");
+
+        try (JsonFileStatistics cached = new JsonFileStatistics(ExecutionStrategy.FIXED.createExecutor(), config)) {
+            assertThat(cached.collectStats(jsonDir, "genre")).isEqualTo(Map.of("Action", 2, "Platformer", 1));
+        }
+    }
+
+    @Test
+    void testColumnarStoreAnswersStats(@TempDir Path columnarDir) throws IOException {
+        Path first = Files.writeString(columnarDir.resolve("first.json"), JSON);
+        Files.writeString(columnarDir.resolve("second.json"), """
+                [{"title": "Hades", "developer": {"name": "Supergiant Games"}, "yearReleased": 2020, "genre": "Action"}]""");
+        Map<String, Map<String, Integer>> parsed = jfs.collectStats(columnarDir, Set.of("developer", "yearReleased", "genre"));
+
+        Path storeFile = jfs.writeColumnarStore(columnarDir);
+
+        assertThat(storeFile).isEqualTo(columnarDir.resolve(ColumnarStore.FILE_NAME)).isRegularFile();
+        long parsedFiles = jfs.getMetrics().getParsedFiles();
+        assertThat(jfs.collectStats(columnarDir, Set.of("developer", "yearReleased", "genre"))).isEqualTo(parsed);
+        assertThat(jfs.collectStats(columnarDir, "title"))
+                .isEqualTo(Map.of("The Legend of Zelda: Breath of the Wild", 1, "Hades", 1));
+        assertThat(jfs.getMetrics().getParsedFiles()).isEqualTo(parsedFiles);
+
+        Files.writeString(first, "[{\"genre\": \"Puzzle\"}]");
+        assertThat(jfs.collectStats(columnarDir, "genre")).isEqualTo(Map.of("Puzzle", 1, "Action", 1));
+    }
+
+    @Test
+    void testTruncatedColumnarStoreFallsBackToParsing(@TempDir Path columnarDir) throws IOException {
+        Files.writeString(columnarDir.resolve("games.json"), "[{\"genre\": \"Action\"}, {\"genre\": \"RPG\"}]");
+        Path storeFile = jfs.writeColumnarStore(columnarDir);
+        assertThat(jfs.collectStats(columnarDir, "genre")).isEqualTo(Map.of("Action", 1, "RPG", 1));
+        long parsedFiles = jfs.getMetrics().getParsedFiles();
+
+        byte[] bytes = Files.readAllBytes(storeFile);
+        Files.write(storeFile, Arrays.copyOf(bytes, bytes.length - 1));
+
+        assertThat(jfs.collectStats(columnarDir, "genre")).isEqualTo(Map.of("Action", 1, "RPG", 1));
+        assertThat(jfs.getMetrics().getParsedFiles()).isGreaterThan(parsedFiles);
+    }
+
+    @Test
+    void testNestedFoldersAreDiscovered(@TempDir Path nestedDir) throws IOException {
+        Path day = Files.createDirectories(nestedDir.resolve("2024/01/01"));
+        Files.writeString(nestedDir.resolve("top.json"), "[{\"genre\": \"Action\"}]");
+        Files.writeString(day.resolve("games.json"), "[{\"genre\": \"RPG\"}]");
+        ParsingConfig config = ParsingConfig.builder().maxDepth(4).excludeGlob("top.json").build();
+
+        assertThat(jfs.collectStats(nestedDir, "genre")).isEqualTo(Map.of("Action", 1));
+        try (JsonFileStatistics nested = new JsonFileStatistics(ExecutionStrategy.FIXED.createExecutor(), config)) {
+            assertThat(nested.collectStats(nestedDir, "genre")).isEqualTo(Map.of("RPG", 1));
+        }
+    }
+
+    @Test
+    void testSkipPolicyReturnsStatsOfValidFiles(@TempDir Path skipDir) throws IOException {
+        Files.writeString(skipDir.resolve("good.json"), "[{\"genre\": \"Action\"}]");
+        Path bad = Files.writeString(skipDir.resolve("bad.json"), "[{]}");
+        ParsingConfig config = ParsingConfig.builder().errorPolicy(ErrorPolicy.SKIP).build();
+
+        try (JsonFileStatistics skipping = new JsonFileStatistics(ExecutionStrategy.FIXED.createExecutor(), config)) {
+            assertThat(skipping.collectStats(skipDir, "genre")).isEqualTo(Map.of("Action", 1));
+            assertThat(skipping.getSkippedFiles()).extracting(SkippedFile::file).containsExactly(bad);
+            assertThat(skipping.getMetrics().getSkippedFiles()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void testStatsOfGivenFilesAreCollectedInOneRun(@TempDir Path batchDir) throws IOException {
+        Path first = Files.writeString(batchDir.resolve("first.json"), "[{\"genre\": \"Action\"}]");
+        Path second = Files.writeString(batchDir.resolve("second.json"), "[{\"genre\": \"RPG, Action\"}]");
+        Path bad = Files.writeString(batchDir.resolve("bad.json"), "[{]}");
+
+        Map<Path, Map<String, Map<String, Integer>>> stats =
+                jfs.collectStatsPerFile(List.of(first, bad, second), Set.of("genre"));
+
+        assertThat(stats).containsOnlyKeys(first, second);
+        assertThat(stats.get(second).get("genre")).isEqualTo(Map.of("RPG", 1, "Action", 1));
+        assertThat(jfs.getSkippedFiles()).extracting(SkippedFile::file).containsExactly(bad);
+    }
+
+    @Test
+    void testSkipPolicyDropsAllChunksOfCorruptedFile(@TempDir Path skipDir) throws IOException {
+        Files.writeString(skipDir.resolve("good.json"), "[{\"genre\": \"RPG\"}]");
+        String game = "{\"genre\": \"Action\"}";
+        Path bad = Files.writeString(skipDir.resolve("bad.json"),
+                "[" + String.join(",", Collections.nCopies(200, game)) + ", {\"genre\": }]");
+        ParsingConfig config = ParsingConfig.builder().errorPolicy(ErrorPolicy.SKIP).chunkSize(1024).build();
+
+        try (JsonFileStatistics skipping = new JsonFileStatistics(ExecutionStrategy.FIXED.createExecutor(), config)) {
+            assertThat(skipping.collectStats(skipDir, "genre")).isEqualTo(Map.of("RPG", 1));
+            assertThat(skipping.getSkippedFiles()).extracting(SkippedFile::file).containsExactly(bad);
+        }
+    }
+
+    @Test
+    void testFileTimeoutStopsParsing(@TempDir Path timeoutDir) throws IOException {
+        Files.writeString(timeoutDir.resolve("slow.json"), "[{\"genre\": \"Action\"}, {\"genre\": \"RPG\"}]");
+        ParsingConfig config = ParsingConfig.builder()
+                .errorPolicy(ErrorPolicy.SKIP)
+                .fileTimeout(Duration.ZERO)
+                .build();
+
+        try (JsonFileStatistics limited = new JsonFileStatistics(ExecutionStrategy.FIXED.createExecutor(), config)) {
+            assertThat(limited.collectStats(timeoutDir, "genre")).isEmpty();
+            assertThat(limited.getSkippedFiles()).singleElement()
+                    .extracting(SkippedFile::reason).asString().contains("exceeded the timeout");
+        }
+    }
+
+    @Test
+    void testCompressedFilesAreParsed(@TempDir Path compressedDir) throws IOException {
+        Files.writeString(compressedDir.resolve("plain.json"), "[{\"genre\": \"Action\"}]");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(compressedDir.resolve("archive.json.gz")))) {
+            out.write("[{\"genre\": \"RPG\"}, {\"genre\": \"Action\"}]".getBytes(StandardCharsets.UTF_8));
+        }
+        try (OutputStream out = new ZstdOutputStream(Files.newOutputStream(compressedDir.resolve("archive.json.zst")))) {
+            out.write("[{\"genre\": \"Puzzle\"}]".getBytes(StandardCharsets.UTF_8));
+        }
+
+        assertThat(jfs.collectStats(compressedDir, "genre")).isEqualTo(Map.of("Action", 2, "RPG", 1, "Puzzle", 1));
+    }
+
+    @Test
+    void testJsonLinesFilesAreParsedInChunks(@TempDir Path linesDir) throws IOException {
+        String game = "{\"title\": \"Game\", \"developer\": {\"name\": \"Nintendo EPD\"}, \"genre\": \"Action, RPG\"}\n";
+        Files.writeString(linesDir.resolve("games.jsonl"), game.repeat(1000));
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(linesDir.resolve("games.ndjson.gz")))) {
+            out.write(game.repeat(10).getBytes(StandardCharsets.UTF_8));
+        }
+        Files.writeString(linesDir.resolve("values.json"), "{\"genre\": \"Puzzle\"} [{\"genre\": \"Puzzle\"}] 1");
+        ParsingConfig config = ParsingConfig.builder().chunkSize(1024).build();
+
+        try (JsonFileStatistics chunked = new JsonFileStatistics(ExecutionStrategy.FIXED.createExecutor(), config)) {
+            Map<String, Map<String, Integer>> stats = chunked.collectStats(linesDir, Set.of("genre", "developer"));
+
+            assertThat(stats.get("genre")).isEqualTo(Map.of("Action", 1010, "RPG", 1010, "Puzzle", 2));
+            assertThat(stats.get("developer")).isEqualTo(Map.of("Nintendo EPD", 1010));
+        }
+    }
+
+    @Test
+    void testMetricsAreRecorded() {
+        jfs.collectStats(dir, Set.of("genre", "developer"));
+        PipelineMetrics metrics = jfs.getMetrics();
+
+        assertThat(metrics.getListedFiles()).isEqualTo(1);
+        assertThat(metrics.getParsedFiles()).isEqualTo(1);
+        assertThat(metrics.getParsedBytes()).isEqualTo(JSON.length());
+        assertThat(metrics.getQueueDepth()).isZero();
+        assertThat(metrics.getDistinctKeys()).isEqualTo("{developer=1, genre=2}");
+    }
+
     @Test
     void testEmptyFolder() throws IOException {
         Path emptyDir = Files.createDirectory(Path.of("empty"));
@@ -92,7 +573,7 @@ public class JsonFileStatisticsTest {
 
     @Test
     void testNotJsonFileIgnores() throws IOException {
-        Path notJson = Files.createFile(Path.of("testDir\\notJson.xml"));
+        Path notJson = Files.createFile(dir.resolve("notJson.xml"));
         Map<String, Integer> stats = jfs.collectStats(dir, "genre");
         Map<String, Integer> expectedStats = Map.of("Action", 1, "Adventure", 1);
 
@@ -102,7 +583,7 @@ public class JsonFileStatisticsTest {
 
     @Test
     void testJsonFileFailedToCollectStatistics() throws IOException {
-        Path incorrectJson = Files.createFile(Path.of("testDir\\incorrect.json"));
+        Path incorrectJson = Files.createFile(dir.resolve("incorrect.json"));
         try {
             Files.write(incorrectJson, "[{]}".getBytes());
         } catch (IOException e) {
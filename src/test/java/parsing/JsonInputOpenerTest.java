@@ -0,0 +1,141 @@
+package parsing;
+
+import io.airlift.compress.zstd.ZstdOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JsonInputOpenerTest {
+
+    private static final String JSON = "[{\"genre\": \"Action\"}, {\"genre\": \"RPG\"}]";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testStreamAndMappedModesReadSameBytes() throws IOException {
+        File file = Files.writeString(tempDir.resolve("games.json"), JSON).toFile();
+        FileChunk wholeFile = FileChunk.wholeFile(file);
+        FileChunk secondElement = new FileChunk(file, 21, 17);
+
+        JsonInputOpener stream = new JsonInputOpener(ParsingConfig.defaults());
+        JsonInputOpener mapped = new JsonInputOpener(ParsingConfig.builder()
+                .inputMode(InputMode.MAPPED)
+                .mappingThreshold(0)
+                .build());
+
+        assertThat(read(mapped, wholeFile)).isEqualTo(JSON).isEqualTo(read(stream, wholeFile));
+        assertThat(read(mapped, secondElement)).isEqualTo("[ {\"genre\": \"RPG\"}]").isEqualTo(read(stream, secondElement));
+    }
+
+    @Test
+    void testCompressedFilesAreDecompressedOnSeparateThread() throws IOException {
+        File gzip = write(tempDir.resolve("games.json.gz"), GZIPOutputStream::new);
+        File zstd = write(tempDir.resolve("games.json.zst"), ZstdOutputStream::new);
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            JsonInputOpener inline = new JsonInputOpener(ParsingConfig.defaults());
+            JsonInputOpener threaded = new JsonInputOpener(ParsingConfig.defaults(), executor);
+
+            assertThat(read(threaded, FileChunk.wholeFile(gzip))).isEqualTo(JSON).isEqualTo(read(inline, FileChunk.wholeFile(gzip)));
+            assertThat(read(threaded, FileChunk.wholeFile(zstd))).isEqualTo(JSON).isEqualTo(read(inline, FileChunk.wholeFile(zstd)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testLargeCompressedFileIsReadThroughRecycledBlocks() throws IOException {
+        String json = "[" + "{\"genre\": \"Action\"}, ".repeat(100_000) + "{\"genre\": \"RPG\"}]";
+        Path path = tempDir.resolve("large.json.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(path))) {
+            out.write(json.getBytes(StandardCharsets.UTF_8));
+        }
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            JsonInputOpener threaded = new JsonInputOpener(ParsingConfig.defaults(), executor);
+
+            assertThat(read(threaded, FileChunk.wholeFile(path.toFile()))).isEqualTo(json);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testErrorWhileDecompressingIsHandedToReader() throws IOException {
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() {
+                throw new OutOfMemoryError("Java heap space");
+            }
+        };
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try (InputStream in = new DecompressingInputStream(failing, Compression.GZIP, executor)) {
+            assertThatThrownBy(in::readAllBytes).isInstanceOf(IOException.class)
+                    .hasCauseInstanceOf(OutOfMemoryError.class);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testCorruptedCompressedFileFails() throws IOException {
+        File corrupted = Files.writeString(tempDir.resolve("games.json.gz"), JSON).toFile();
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            JsonInputOpener threaded = new JsonInputOpener(ParsingConfig.defaults(), executor);
+
+            assertThatThrownBy(() -> read(threaded, FileChunk.wholeFile(corrupted))).isInstanceOf(IOException.class);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testCompressionForFileName() {
+        assertThat(Compression.forFileName("games.json")).isEqualTo(Compression.NONE);
+        assertThat(Compression.forFileName("games.json.gz")).isEqualTo(Compression.GZIP);
+        assertThat(Compression.forFileName("games.json.zst")).isEqualTo(Compression.ZSTD);
+        assertThat(Compression.forFileName("games.ndjson.zst")).isEqualTo(Compression.ZSTD);
+        assertThat(Compression.isJsonFile("games.txt.gz")).isFalse();
+        assertThat(JsonFormat.forFileName("games.json.gz")).isEqualTo(JsonFormat.ARRAY);
+        assertThat(JsonFormat.forFileName("games.jsonl")).isEqualTo(JsonFormat.LINES);
+        assertThat(JsonFormat.forFileName("games.ndjson.gz")).isEqualTo(JsonFormat.LINES);
+    }
+
+    @Test
+    void testFromName() {
+        assertThat(InputMode.fromName("mapped")).isEqualTo(InputMode.MAPPED);
+        assertThat(InputMode.fromName("stream")).isEqualTo(InputMode.STREAM);
+    }
+
+    private File write(Path path, CompressorFactory compressor) throws IOException {
+        try (OutputStream out = compressor.create(Files.newOutputStream(path))) {
+            out.write(JSON.getBytes(StandardCharsets.UTF_8));
+        }
+        return path.toFile();
+    }
+
+    private interface CompressorFactory {
+        OutputStream create(OutputStream out) throws IOException;
+    }
+
+    private String read(JsonInputOpener opener, FileChunk chunk) throws IOException {
+        try (InputStream in = opener.open(chunk)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package parsing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JsonLinesSplitterTest {
+
+    private static final String JSON_LINES = """
+            { "title": "A", "genre": "Action" }
+            { "title": "Line\\nbreak", "genre": "RPG" }
+            { "title": "C", "genre": "Platformer" }""";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSmallFileIsKeptWhole() throws IOException {
+        File file = write("small.jsonl", JSON_LINES);
+
+        List<FileChunk> chunks = new JsonLinesSplitter(1024).split(file);
+
+        assertThat(chunks).containsExactly(FileChunk.wholeFile(file));
+    }
+
+    @Test
+    void testSplitOnLineBreaks() throws IOException {
+        File file = write("large.jsonl", JSON_LINES);
+
+        List<FileChunk> chunks = new JsonLinesSplitter(1).split(file);
+
+        assertThat(chunks).hasSize(3).allMatch(FileChunk::lines);
+        assertThat(read(chunks.get(0))).isEqualTo("{ \"title\": \"A\", \"genre\": \"Action\" }\n");
+        assertThat(read(chunks.get(1))).isEqualTo("{ \"title\": \"Line\\nbreak\", \"genre\": \"RPG\" }\n");
+        assertThat(read(chunks.get(2))).isEqualTo("{ \"title\": \"C\", \"genre\": \"Platformer\" }");
+    }
+
+    @Test
+    void testChunksHoldSeveralLines() throws IOException {
+        File file = write("large.ndjson", JSON_LINES + "\n");
+
+        List<FileChunk> chunks = new JsonLinesSplitter(40).split(file);
+
+        assertThat(chunks).hasSize(2);
+        assertThat(read(chunks.get(0)).lines()).hasSize(2);
+        assertThat(read(chunks.get(1))).isEqualTo("{ \"title\": \"C\", \"genre\": \"Platformer\" }\n");
+    }
+
+    private File write(String name, String content) throws IOException {
+        return Files.writeString(tempDir.resolve(name), content).toFile();
+    }
+
+    private String read(FileChunk chunk) throws IOException {
+        try (InputStream in = new JsonInputOpener(ParsingConfig.defaults()).open(chunk)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package parsing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PairCounterTest {
+
+    @Test
+    void testPairsAreCountedSeparately() {
+        PairCounter counter = new PairCounter();
+        counter.add(0, 0, 1);
+        counter.add(0, 1, 1);
+        counter.add(1, 0, 1);
+        counter.add(0, 1, 2);
+
+        assertThat(collect(counter)).isEqualTo(Map.of(List.of(0, 0), 1L, List.of(0, 1), 3L, List.of(1, 0), 1L));
+        assertThat(counter.size()).isEqualTo(3);
+    }
+
+    @Test
+    void testGrowsBeyondInitialCapacity() {
+        PairCounter counter = new PairCounter();
+        for (int first = 0; first < 100; first++) {
+            for (int second = 0; second < 100; second++) {
+                counter.add(first, second, first + second);
+            }
+        }
+
+        Map<List<Integer>, Long> pairs = collect(counter);
+        assertThat(pairs).hasSize(10_000);
+        assertThat(pairs.get(List.of(99, 42))).isEqualTo(141);
+        assertThat(pairs.get(List.of(0, 0))).isZero();
+    }
+
+    @Test
+    void testLargeIdsArePacked() {
+        PairCounter counter = new PairCounter();
+        counter.add(Integer.MAX_VALUE, Integer.MAX_VALUE, 5);
+        counter.add(Integer.MAX_VALUE, 0, 7);
+
+        assertThat(collect(counter))
+                .isEqualTo(Map.of(List.of(Integer.MAX_VALUE, Integer.MAX_VALUE), 5L, List.of(Integer.MAX_VALUE, 0), 7L));
+    }
+
+    private static Map<List<Integer>, Long> collect(PairCounter counter) {
+        Map<List<Integer>, Long> pairs = new HashMap<>();
+        counter.forEach((first, second, count) -> pairs.put(List.of(first, second), count));
+        return pairs;
+    }
+}
@@ -0,0 +1,123 @@
+package parsing;
+
+import exceptions.JsonParsingException;
+import exceptions.TaskExecutionException;
+import metrics.PipelineMetrics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParsingRunTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final ExecutorService mergeExecutor = Executors.newSingleThreadExecutor();
+    private final PipelineMetrics metrics = new PipelineMetrics();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        mergeExecutor.shutdownNow();
+    }
+
+    @Test
+    void testPendingTasksAreBounded() {
+        ParsingRun run = new ParsingRun(executor, mergeExecutor, ErrorPolicy.FAIL_FAST, 2, metrics);
+        AtomicInteger merged = new AtomicInteger();
+
+        for (int i = 0; i < 20; i++) {
+            File file = new File(i + ".json");
+            run.submit(file, () -> run.merge(file, merged::incrementAndGet));
+        }
+
+        assertThat(run.await()).isEmpty();
+        assertThat(merged).hasValue(20);
+        assertThat(metrics.getMaxQueueDepth()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void testFailFastCancelsRemainingTasks() {
+        ParsingRun run = new ParsingRun(executor, mergeExecutor, ErrorPolicy.FAIL_FAST, 4, metrics);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean finished = new AtomicBoolean();
+
+        run.submit(new File("bad.json"), () -> {
+            awaitQuietly(release);
+            throw new JsonParsingException("Failed to parse json file", new RuntimeException());
+        });
+        run.submit(new File("slow.json"), () -> {
+            awaitQuietly(new CountDownLatch(1));
+            finished.set(!Thread.currentThread().isInterrupted());
+        });
+        release.countDown();
+
+        assertThatThrownBy(run::await)
+                .isInstanceOf(TaskExecutionException.class)
+                .hasMessageContaining("Failed to collect statistics");
+        assertThat(metrics.getCancelledTasks()).isEqualTo(1);
+        assertThat(metrics.getQueueDepth()).isZero();
+        assertThat(finished).isFalse();
+    }
+
+    @Test
+    void testResultsAreMergedAfterMergeExecutorShutdown() {
+        ExecutorService closedMergeExecutor = JsonFileStatistics.createMergeExecutor(1, 1);
+        closedMergeExecutor.shutdown();
+        ParsingRun run = new ParsingRun(executor, closedMergeExecutor, ErrorPolicy.FAIL_FAST, 4, metrics);
+        AtomicInteger merged = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            File file = new File(i + ".json");
+            run.submit(file, () -> run.merge(file, merged::incrementAndGet));
+        }
+
+        assertThat(run.await()).isEmpty();
+        assertThat(merged).hasValue(3);
+    }
+
+    @Test
+    void testSkipReportsFailingFiles() {
+        ParsingRun run = new ParsingRun(executor, mergeExecutor, ErrorPolicy.SKIP, 4, metrics);
+        AtomicBoolean parsed = new AtomicBoolean();
+
+        run.submit(new File("bad.json"), () -> {
+            throw new JsonParsingException("Failed to parse json file", new RuntimeException("Unexpected character"));
+        });
+        run.submit(new File("good.json"), () -> parsed.set(true));
+        run.fail(new File("unreadable.json"), new JsonParsingException("Failed to parse json file", null));
+
+        List<SkippedFile> skipped = run.await();
+
+        assertThat(parsed).isTrue();
+        assertThat(skipped).containsExactlyInAnyOrder(
+                new SkippedFile(Path.of("bad.json"), "Failed to parse json file: Unexpected character"),
+                new SkippedFile(Path.of("unreadable.json"), "Failed to parse json file"));
+        assertThat(metrics.getSkippedFiles()).isEqualTo(2);
+    }
+
+    @Test
+    void testFailFastRethrowsSubmissionErrors() {
+        ParsingRun run = new ParsingRun(executor, mergeExecutor, ErrorPolicy.FAIL_FAST, 4, metrics);
+        JsonParsingException error = new JsonParsingException("Failed to parse json file", null);
+
+        assertThatThrownBy(() -> run.fail(new File("unreadable.json"), error)).isSameAs(error);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
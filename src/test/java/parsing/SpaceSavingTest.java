@@ -0,0 +1,118 @@
+package parsing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpaceSavingTest {
+
+    @Test
+    void testCountsAreExactBelowCapacity() {
+        SpaceSaving sketch = new SpaceSaving(10);
+        for (String value : List.of("Action", "RPG", "Action", "Puzzle", "Action", "RPG")) {
+            sketch.add(value);
+        }
+
+        assertThat(sketch.top(10)).containsExactly(
+                new RankedValue("Action", 3, 0),
+                new RankedValue("RPG", 2, 0),
+                new RankedValue("Puzzle", 1, 0));
+        assertThat(sketch.top(1)).containsExactly(new RankedValue("Action", 3, 0));
+    }
+
+    @Test
+    void testSketchGrowsUpToCapacity() {
+        SpaceSaving sketch = new SpaceSaving(1000);
+        for (int i = 0; i < 500; i++) {
+            for (int repeat = 0; repeat <= i % 3; repeat++) {
+                sketch.add("value-" + i);
+            }
+        }
+
+        assertThat(sketch.size()).isEqualTo(500);
+        assertThat(sketch.top(500)).allMatch(value -> value.error() == 0)
+                .allMatch(value -> value.count() == Integer.parseInt(value.value().substring(6)) % 3 + 1);
+    }
+
+    @Test
+    void testAddByCharacterRange() {
+        SpaceSaving sketch = new SpaceSaving(4);
+        char[] buffer = "Action, Adventure, Action".toCharArray();
+        sketch.add(buffer, 0, 6);
+        sketch.add(buffer, 8, 9);
+        sketch.add(buffer, 19, 6);
+
+        assertThat(sketch.top(2)).containsExactly(new RankedValue("Action", 2, 0), new RankedValue("Adventure", 1, 0));
+    }
+
+    @Test
+    void testHeavyHittersSurviveHugeCardinality() {
+        SpaceSaving sketch = new SpaceSaving(50);
+        Map<String, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 100_000; i++) {
+            String value = i % 4 == 0 ? "heavy-" + (i % 3) : "rare-" + random.nextInt(1_000_000);
+            sketch.add(value);
+            exact.merge(value, 1L, Long::sum);
+        }
+
+        List<RankedValue> top = sketch.top(3);
+        assertThat(sketch.size()).isEqualTo(50);
+        assertThat(top).extracting(RankedValue::value).containsExactlyInAnyOrder("heavy-0", "heavy-1", "heavy-2");
+        for (RankedValue value : top) {
+            assertThat(value.count()).isGreaterThanOrEqualTo(exact.get(value.value()));
+            assertThat(value.guaranteedCount()).isLessThanOrEqualTo(exact.get(value.value()));
+        }
+    }
+
+    @Test
+    void testMergeAddsCountsOfSharedValues() {
+        SpaceSaving first = new SpaceSaving(10);
+        SpaceSaving second = new SpaceSaving(10);
+        first.add("Action");
+        first.add("Action");
+        first.add("RPG");
+        second.add("Action");
+        second.add("Puzzle");
+
+        first.merge(second);
+
+        assertThat(first.top(10)).containsExactly(
+                new RankedValue("Action", 3, 0),
+                new RankedValue("Puzzle", 1, 0),
+                new RankedValue("RPG", 1, 0));
+    }
+
+    @Test
+    void testMergeOfFullSketchesKeepsUpperBounds() {
+        SpaceSaving first = new SpaceSaving(2);
+        SpaceSaving second = new SpaceSaving(2);
+        for (String value : List.of("A", "A", "A", "B", "C")) {
+            first.add(value);
+        }
+        for (String value : List.of("A", "D", "D", "E")) {
+            second.add(value);
+        }
+
+        first.merge(second);
+
+        List<RankedValue> top = first.top(2);
+        assertThat(top).extracting(RankedValue::value).containsExactly("A", "D");
+        assertThat(top.get(0).count()).isGreaterThanOrEqualTo(4);
+        assertThat(top.get(1).count()).isGreaterThanOrEqualTo(2);
+        assertThat(first.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testInvalidCapacity() {
+        assertThatThrownBy(() -> new SpaceSaving(0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Capacity must be positive");
+    }
+}
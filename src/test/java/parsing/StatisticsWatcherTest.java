@@ -0,0 +1,125 @@
+package parsing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StatisticsWatcherTest {
+
+    @TempDir
+    Path dir;
+
+    private JsonFileStatistics jsonFileStatistics;
+    private StatisticsWatcher watcher;
+    private Thread watcherThread;
+    private final List<String> reports = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(dir.resolve("first.json"), "[{\"genre\": \"Action, RPG\"}]");
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        watcher.close();
+        watcherThread.join();
+        jsonFileStatistics.close();
+    }
+
+    @Test
+    void testStatisticsFollowFileChanges() throws Exception {
+        start(new JsonFileStatistics());
+        awaitStats(Map.of("Action", 1, "RPG", 1));
+        assertThat(reports).contains("statistics_by_genre.xml");
+
+        Path second = Files.writeString(dir.resolve("second.json"), "[{\"genre\": \"Action\"}]");
+        awaitStats(Map.of("Action", 2, "RPG", 1));
+
+        Files.writeString(dir.resolve("first.json"), "[{\"genre\": \"Platformer\"}]");
+        awaitStats(Map.of("Action", 1, "Platformer", 1));
+
+        Files.delete(second);
+        awaitStats(Map.of("Platformer", 1));
+    }
+
+    @Test
+    void testSubfoldersAreWatched() throws Exception {
+        start(new JsonFileStatistics(ExecutionStrategy.FIXED.createExecutor(), ParsingConfig.builder().maxDepth(2).build()));
+        awaitStats(Map.of("Action", 1, "RPG", 1));
+
+        Path subfolder = Files.createDirectory(dir.resolve("2024"));
+        Files.createDirectory(subfolder.resolve("too-deep"));
+        Files.writeString(subfolder.resolve("too-deep").resolve("deep.json"), "[{\"genre\": \"Puzzle\"}]");
+        Path second = Files.writeString(subfolder.resolve("second.json"), "[{\"genre\": \"Action\"}]");
+        awaitStats(Map.of("Action", 2, "RPG", 1));
+
+        Files.writeString(second, "[{\"genre\": \"Platformer\"}]");
+        awaitStats(Map.of("Action", 1, "RPG", 1, "Platformer", 1));
+    }
+
+    @Test
+    void testExcludedFilesAreIgnored() throws Exception {
+        ParsingConfig config = ParsingConfig.builder().excludeGlob("ignored*").build();
+        start(new JsonFileStatistics(ExecutionStrategy.FIXED.createExecutor(), config));
+        awaitStats(Map.of("Action", 1, "RPG", 1));
+
+        Files.writeString(dir.resolve("ignored.json"), "[{\"genre\": \"Puzzle\"}]");
+        Files.writeString(dir.resolve("second.json"), "[{\"genre\": \"Action\"}]");
+        awaitStats(Map.of("Action", 2, "RPG", 1));
+    }
+
+    @Test
+    void testSkippedFilesAreRetriedUntilGivenUp() throws Exception {
+        ParsingConfig config = ParsingConfig.builder().errorPolicy(ErrorPolicy.SKIP).build();
+        start(new JsonFileStatistics(ExecutionStrategy.FIXED.createExecutor(), config));
+        awaitStats(Map.of("Action", 1, "RPG", 1));
+
+        Path second = Files.writeString(dir.resolve("second.json"), "[{\"genre\": \"Puzzle\"}]");
+        awaitStats(Map.of("Action", 1, "RPG", 1, "Puzzle", 1));
+
+        Files.writeString(second, "[{\"genre\": ");
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (watcher.getFailedFiles().isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(watcher.getFailedFiles()).containsExactly(second);
+        awaitStats(Map.of("Action", 1, "RPG", 1));
+
+        Files.writeString(second, "[{\"genre\": \"Puzzle\"}]");
+        awaitStats(Map.of("Action", 1, "RPG", 1, "Puzzle", 1));
+        assertThat(watcher.getFailedFiles()).isEmpty();
+    }
+
+    private void start(JsonFileStatistics statistics) {
+        XmlParser xmlParser = mock(XmlParser.class);
+        when(xmlParser.parseStatsToXmlFile(anyMap(), eq("genre"))).thenReturn("statistics_by_genre.xml");
+        jsonFileStatistics = statistics;
+        watcher = new StatisticsWatcher(jsonFileStatistics, xmlParser, dir, Set.of("genre"), Duration.ofMillis(100));
+        watcherThread = new Thread(() -> watcher.run(reports::add));
+        watcherThread.start();
+    }
+
+    private void awaitStats(Map<String, Integer> expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!watcher.getStats().get("genre").equals(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertThat(watcher.getStats().get("genre")).isEqualTo(expected);
+    }
+}
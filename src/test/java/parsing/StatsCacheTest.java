@@ -0,0 +1,121 @@
+package parsing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StatsCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testSaveAndLoad() throws IOException {
+        File file = Files.writeString(tempDir.resolve("games.json"), "[]").toFile();
+        Path cacheFile = tempDir.resolve("stats.cache");
+
+        StatsCache cache = StatsCache.load(cacheFile);
+        cache.put(file, file.length(), file.lastModified(), Map.of("genre", Map.of("Action", 2, "RPG", 1)));
+        cache.save();
+
+        StatsCache loaded = StatsCache.load(cacheFile);
+
+        assertThat(loaded.get(file, Set.of("genre"))).isEqualTo(Map.of("genre", Map.of("Action", 2, "RPG", 1)));
+        assertThat(loaded.get(file, Set.of("genre", "developer"))).isNull();
+    }
+
+    @Test
+    void testChangedFileIsNotReturned() throws IOException {
+        File file = Files.writeString(tempDir.resolve("games.json"), "[]").toFile();
+        StatsCache cache = StatsCache.load(tempDir.resolve("stats.cache"));
+        cache.put(file, file.length(), file.lastModified(), Map.of("genre", Map.of("Action", 1)));
+
+        Files.writeString(file.toPath(), "[ ]");
+
+        assertThat(cache.get(file, Set.of("genre"))).isNull();
+    }
+
+    @Test
+    void testMergeSkipsRemovedFiles() throws IOException {
+        File first = Files.writeString(tempDir.resolve("first.json"), "[]").toFile();
+        File second = Files.writeString(tempDir.resolve("second.json"), "[]").toFile();
+        StatsCache cache = StatsCache.load(tempDir.resolve("stats.cache"));
+        cache.put(first, first.length(), first.lastModified(), Map.of("genre", Map.of("Action", 1)));
+        cache.put(second, second.length(), second.lastModified(), Map.of("genre", Map.of("Action", 2, "RPG", 1)));
+
+        assertThat(cache.merge(List.of(first, second), Set.of("genre")))
+                .isEqualTo(Map.of("genre", Map.of("Action", 3, "RPG", 1)));
+
+        cache.retainAll(tempDir, List.of(first));
+
+        assertThat(cache.get(second, Set.of("genre"))).isNull();
+        assertThat(cache.merge(List.of(first, second), Set.of("genre")))
+                .isEqualTo(Map.of("genre", Map.of("Action", 1)));
+    }
+
+    @Test
+    void testAttributesOfDifferentRunsAreKept() throws IOException {
+        File file = Files.writeString(tempDir.resolve("games.json"), "[]").toFile();
+        StatsCache cache = StatsCache.load(tempDir.resolve("stats.cache"));
+        cache.put(file, file.length(), file.lastModified(), Map.of("genre", Map.of("Action", 1)));
+        cache.put(file, file.length(), file.lastModified(), Map.of("developer", Map.of("Capcom", 1)));
+
+        assertThat(cache.get(file, Set.of("genre", "developer")))
+                .isEqualTo(Map.of("genre", Map.of("Action", 1), "developer", Map.of("Capcom", 1)));
+
+        cache.put(file, file.length() + 1, file.lastModified(), Map.of("developer", Map.of("Capcom", 2)));
+
+        assertThat(cache.get(file, Set.of("genre"))).isNull();
+    }
+
+    @Test
+    void testEntriesOfOtherFoldersAreKept() throws IOException {
+        Path otherDir = Files.createDirectory(tempDir.resolve("other"));
+        Path jsonDir = Files.createDirectory(tempDir.resolve("json"));
+        File other = Files.writeString(otherDir.resolve("games.json"), "[]").toFile();
+        File removed = Files.writeString(jsonDir.resolve("games.json"), "[]").toFile();
+        StatsCache cache = StatsCache.load(tempDir.resolve("stats.cache"));
+        cache.put(other, other.length(), other.lastModified(), Map.of("genre", Map.of("Action", 1)));
+        cache.put(removed, removed.length(), removed.lastModified(), Map.of("genre", Map.of("RPG", 1)));
+
+        cache.retainAll(jsonDir, List.of());
+
+        assertThat(cache.get(other, Set.of("genre"))).isNotNull();
+        assertThat(cache.get(removed, Set.of("genre"))).isNull();
+    }
+
+    @Test
+    void testCacheWithInvalidLengthIsIgnored() throws IOException {
+        Path cacheFile = tempDir.resolve("stats.cache");
+        File file = Files.writeString(tempDir.resolve("games.json"), "[]").toFile();
+        StatsCache cache = StatsCache.load(cacheFile);
+        cache.put(file, file.length(), file.lastModified(), Map.of("genre", Map.of("Action", 1)));
+        cache.save();
+
+        for (int length : new int[]{-1, Integer.MAX_VALUE}) {
+            ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(cacheFile));
+            content.putInt(12, length);
+            Files.write(cacheFile, content.array());
+
+            assertThat(StatsCache.load(cacheFile).get(file, Set.of("genre"))).isNull();
+        }
+    }
+
+    @Test
+    void testCorruptedCacheIsIgnored() throws IOException {
+        Path cacheFile = Files.writeString(tempDir.resolve("stats.cache"), "garbage");
+        File file = Files.writeString(tempDir.resolve("games.json"), "[]").toFile();
+
+        assertThat(StatsCache.load(cacheFile).get(file, Set.of("genre"))).isNull();
+    }
+}
@@ -0,0 +1,98 @@
+package parsing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ValueCounterTest {
+
+    @Test
+    void testIncrementAndMerge() {
+        ValueCounter counter = new ValueCounter();
+        counter.increment("Action");
+        counter.increment("Action");
+        counter.increment("RPG");
+
+        Map<String, Integer> stats = new HashMap<>(Map.of("Action", 1));
+        counter.mergeInto(stats);
+
+        assertThat(stats).isEqualTo(Map.of("Action", 3, "RPG", 1));
+    }
+
+    @Test
+    void testIncrementByCharacterRange() {
+        ValueCounter counter = new ValueCounter();
+        char[] buffer = "Action, Adventure, Action".toCharArray();
+        counter.increment(buffer, 0, 6);
+        counter.increment(buffer, 8, 9);
+        counter.increment(buffer, 19, 6);
+        counter.increment(buffer, 0, 0);
+
+        Map<String, Integer> stats = new HashMap<>();
+        counter.mergeInto(stats);
+
+        assertThat(stats).isEqualTo(Map.of("Action", 2, "Adventure", 1, "", 1));
+    }
+
+    @Test
+    void testGrowsBeyondInitialCapacity() {
+        ValueCounter counter = new ValueCounter();
+        for (int i = 0; i < 10_000; i++) {
+            counter.increment(String.valueOf(i));
+            counter.increment(String.valueOf(i % 100));
+        }
+
+        Map<String, Integer> stats = new HashMap<>();
+        counter.mergeInto(stats);
+
+        assertThat(stats).hasSize(10_000);
+        assertThat(stats.get("42")).isEqualTo(101);
+        assertThat(stats.get("4242")).isEqualTo(1);
+    }
+
+    @Test
+    void testConcurrentMergeKeepsExactCounts() throws InterruptedException {
+        Map<String, Integer> stats = new ConcurrentHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+
+        for (int task = 0; task < 200; task++) {
+            executor.submit(() -> {
+                ValueCounter counter = new ValueCounter();
+                for (int i = 0; i < 1000; i++) {
+                    counter.increment("Action");
+                    counter.increment(String.valueOf(i % 10));
+                }
+                counter.mergeInto(stats);
+            });
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(stats.get("Action")).isEqualTo(200_000);
+        assertThat(stats.get("0")).isEqualTo(20_000);
+        assertThat(stats).hasSize(11);
+    }
+
+    @Test
+    void testMergeCountersWithDifferentIds() {
+        ValueCounter first = new ValueCounter();
+        ValueCounter second = new ValueCounter();
+        first.increment("Action");
+        first.increment("RPG");
+        second.increment("RPG");
+        second.increment("Puzzle");
+        second.increment("RPG");
+
+        first.merge(second);
+
+        assertThat(first.size()).isEqualTo(3);
+        assertThat(first.toMap()).isEqualTo(Map.of("Action", 1, "RPG", 3, "Puzzle", 1));
+    }
+}
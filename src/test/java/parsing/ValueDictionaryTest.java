@@ -0,0 +1,44 @@
+package parsing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ValueDictionaryTest {
+
+    @Test
+    void testIdsAreDenseAndStable() {
+        ValueDictionary dictionary = new ValueDictionary();
+        char[] buffer = "Action, Adventure, Action".toCharArray();
+
+        assertThat(dictionary.idOf(buffer, 0, 6)).isEqualTo(0);
+        assertThat(dictionary.idOf(buffer, 8, 9)).isEqualTo(1);
+        assertThat(dictionary.idOf(buffer, 19, 6)).isEqualTo(0);
+        assertThat(dictionary.idOf("Adventure")).isEqualTo(1);
+        assertThat(dictionary.size()).isEqualTo(2);
+        assertThat(dictionary.value(1)).isEqualTo("Adventure");
+    }
+
+    @Test
+    void testHitDoesNotAllocateValue() {
+        ValueDictionary dictionary = new ValueDictionary();
+        int id = dictionary.idOf("Nintendo EPD");
+        String value = dictionary.value(id);
+
+        dictionary.idOf("Nintendo EPD".toCharArray(), 0, 12);
+
+        assertThat(dictionary.value(id)).isSameAs(value);
+    }
+
+    @Test
+    void testGrowsBeyondInitialCapacity() {
+        ValueDictionary dictionary = new ValueDictionary();
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(dictionary.idOf(String.valueOf(i))).isEqualTo(i);
+        }
+
+        assertThat(dictionary.size()).isEqualTo(10_000);
+        assertThat(dictionary.idOf("4242")).isEqualTo(4242);
+        assertThat(dictionary.value(9999)).isEqualTo("9999");
+    }
+}
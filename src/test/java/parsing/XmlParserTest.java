@@ -3,15 +3,20 @@ package parsing;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
 class XmlParserTest {
 
-    private static final String XML_FILE = "src\\main\\resources\\statistics_by_developer.xml";
+    private static final String XML_FILE = Path.of("src", "main", "resources", "statistics_by_developer.xml").toString();
 
     @Test
     void testParseStatsToFileSuccess() throws IOException {
@@ -29,4 +34,173 @@ class XmlParserTest {
 
         Files.delete(filePath);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testItemsAreWrittenInReportFormat() throws IOException {
+        String fileName = new XmlParser().parseStatsToXmlFile(Map.of("Nintendo EPD", 12), "developer");
+        Path filePath = Path.of(fileName);
+
+        assertThat(Files.readString(filePath)).isEqualTo("""
+                <statistics>
+                    <item>
+                        <value>Nintendo EPD</value>
+                        <count>12</count>
+                    </item>
+                </statistics>""");
+
+        Files.delete(filePath);
+    }
+
+    @Test
+    void testValuesAreEscaped() throws IOException {
+        String fileName = new XmlParser().parseStatsToXmlFile(Map.of("Tom & Jerry's <\"Games\">\u0001", 1), "developer");
+        Path filePath = Path.of(fileName);
+
+        assertThat(Files.readString(filePath))
+                .contains("<value>Tom &amp; Jerry&apos;s &lt;&quot;Games&quot;&gt;\uFFFD</value>");
+
+        Files.delete(filePath);
+    }
+
+    @Test
+    void testCharactersInvalidInXmlAreReplaced() throws IOException {
+        String value = "Lone \uD800 low \uDC00 pair \uD83C\uDFAE nonchar \uFFFF end \uD83C";
+        String fileName = new XmlParser().parseStatsToXmlFile(Map.of(value, 1), "developer");
+        Path filePath = Path.of(fileName);
+
+        assertThat(Files.readString(filePath))
+                .contains("<value>Lone \uFFFD low \uFFFD pair \uD83C\uDFAE nonchar \uFFFD end \uFFFD</value>");
+
+        Files.delete(filePath);
+    }
+
+    @Test
+    void testCompressedReport() throws IOException {
+        String fileName = new XmlParser(true).parseStatsToXmlFile(Map.of("Developer 1", 2), "developer");
+        Path filePath = Path.of(fileName);
+
+        assertThat(fileName).isEqualTo(XML_FILE + ".gz");
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(filePath))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8))
+                    .contains("<value>Developer 1</value>")
+                    .endsWith("</statistics>");
+        }
+
+        Files.delete(filePath);
+    }
+
+    @Test
+    void testTopStatsAreWrittenInRankedFormat() throws IOException {
+        String fileName = new XmlParser().parseTopStatsToXmlFile(
+                List.of(new RankedValue("Action", 3, 0), new RankedValue("RPG", 2, 1)), "genre");
+        Path filePath = Path.of(fileName);
+
+        assertThat(fileName).isEqualTo("src/main/resources/statistics_top_by_genre.xml");
+        assertThat(Files.readString(filePath)).isEqualTo("""
+                <statistics>
+                    <item>
+                        <rank>1</rank>
+                        <value>Action</value>
+                        <count>3</count>
+                        <error>0</error>
+                    </item>
+                    <item>
+                        <rank>2</rank>
+                        <value>RPG</value>
+                        <count>2</count>
+                        <error>1</error>
+                    </item>
+                </statistics>""");
+
+        Files.delete(filePath);
+    }
+
+    @Test
+    void testDistinctStatsReport() throws IOException {
+        String fileName = new XmlParser().parseDistinctStatsToXmlFile(new CardinalityEstimate(12000, 0.0081), "developer");
+        Path filePath = Path.of(fileName);
+
+        assertThat(fileName).isEqualTo("src/main/resources/statistics_distinct_by_developer.xml");
+        assertThat(Files.readString(filePath)).isEqualTo("""
+                <statistics>
+                    <distinct>
+                        <estimate>12000</estimate>
+                        <error>97</error>
+                        <relativeError>0.0081</relativeError>
+                    </distinct>
+                </statistics>""");
+
+        Files.delete(filePath);
+    }
+
+    @Test
+    void testNumericStatsReport() throws IOException {
+        NumericSummary action = new NumericSummary(2, 1998, 2017, 2007.5, 1998, 2017, 2017, 10,
+                Map.of(1990, 1L));
+        NumericStatistics statistics = new NumericStatistics(action, Map.of("Action", action), 0);
+
+        String fileName = new XmlParser().parseNumericStatsToXmlFile(statistics, "yearReleased");
+        Path filePath = Path.of(fileName);
+
+        assertThat(fileName).isEqualTo("src/main/resources/statistics_numeric_by_yearReleased.xml");
+        assertThat(Files.readString(filePath)).isEqualTo("""
+                <statistics>
+                    <summary>
+                        <count>2</count>
+                        <min>1998</min>
+                        <max>2017</max>
+                        <mean>2007.50</mean>
+                        <median>1998</median>
+                        <p90>2017</p90>
+                        <p99>2017</p99>
+                        <bucket>
+                            <from>1990</from>
+                            <to>1999</to>
+                            <count>1</count>
+                        </bucket>
+                    </summary>
+                    <group>
+                        <value>Action</value>
+                        <summary>
+                            <count>2</count>
+                            <min>1998</min>
+                            <max>2017</max>
+                            <mean>2007.50</mean>
+                            <median>1998</median>
+                            <p90>2017</p90>
+                            <p99>2017</p99>
+                            <bucket>
+                                <from>1990</from>
+                                <to>1999</to>
+                                <count>1</count>
+                            </bucket>
+                        </summary>
+                    </group>
+                </statistics>""");
+
+        Files.delete(filePath);
+    }
+
+    @Test
+    void testCrossTabStatsReport() throws IOException {
+        Map<String, Map<String, Long>> stats = new LinkedHashMap<>();
+        stats.put("2017", new LinkedHashMap<>(Map.of("Action", 2L)));
+
+        String fileName = new XmlParser().parseCrossTabStatsToXmlFile(stats, "yearReleased", "genre");
+        Path filePath = Path.of(fileName);
+
+        assertThat(fileName).isEqualTo("src/main/resources/statistics_by_yearReleased_and_genre.xml");
+        assertThat(Files.readString(filePath)).isEqualTo("""
+                <statistics>
+                    <group>
+                        <value>2017</value>
+                        <item>
+                            <value>Action</value>
+                            <count>2</count>
+                        </item>
+                    </group>
+                </statistics>""");
+
+        Files.delete(filePath);
+    }
+}